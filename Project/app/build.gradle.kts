@@ -29,6 +29,10 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+    testOptions {
+        // android.util.Log & Co. liefern in lokalen Unit-Tests Standardwerte statt Exceptions
+        unitTests.isReturnDefaultValues = true
+    }
 }
 
 dependencies {
@@ -51,6 +55,18 @@ dependencies {
    implementation("com.squareup.okhttp3:okhttp:4.9.3")
    // Logging-Interceptor für HTTP Requests/Responses
    implementation("com.squareup.okhttp3:logging-interceptor:4.9.3")
+   // Lokaler HTTP-/WebSocket-Server für Unit-Tests
+   testImplementation("com.squareup.okhttp3:mockwebserver:4.9.3")
+
+    // Lokale Datenbank (Room) + beobachtbare Abfragen (LiveData) + Zustand je Bildschirm (ViewModel)
+    implementation(libs.room.runtime)
+    annotationProcessor(libs.room.compiler)
+    implementation(libs.lifecycle.livedata)
+    implementation(libs.lifecycle.viewmodel)
+
+    // Seitenweises Laden langer Listen (Room-PagingSource → RecyclerView)
+    implementation(libs.paging.runtime)
+    implementation(libs.room.paging)
 
     implementation(libs.appcompat)
     implementation(libs.material)
@@ -0,0 +1,56 @@
+package com.example.disciteomnes;
+
+import android.app.Application;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.example.disciteomnes.data.sync.Outbox;
+import com.example.disciteomnes.network.HttpClientProvider;
+import com.example.disciteomnes.network.SessionManager;
+import com.example.disciteomnes.network.SingleFlight;
+import com.example.disciteomnes.ui.LoginActivity;
+
+/**
+ * Application-Klasse der App.
+ *
+ * Initialisiert prozessweite Komponenten genau einmal beim Start,
+ * bevor die erste Activity erzeugt wird.
+ */
+public class DisciteOmnesApp extends Application {
+
+    private static final String TAG = "App";
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // HTTP-Cache im App-Cache-Verzeichnis einrichten
+        HttpClientProvider.init(this);
+
+        // Lehnt der Server die Erneuerung ab, ist die Sitzung vorbei → zurück zum Login
+        SessionManager.getInstance().addSessionExpiredListener(() ->
+                new Handler(Looper.getMainLooper()).post(this::showLogin));
+
+        // Gespeicherte Sitzung laden und ihre Erneuerung vor Ablauf planen
+        SessionManager.getInstance().init(this);
+
+        // Ausstehende Offline-Änderungen abspielen, sobald Netz verfügbar ist
+        Outbox.getInstance(this).start();
+    }
+
+    /**
+     * Verwirft die zwischengespeicherten Antworten der abgelaufenen Sitzung und öffnet den
+     * Login als neue Aufgabe. Die lokale Datenbank bleibt erhalten, damit ausstehende
+     * Offline-Änderungen nach dem erneuten Login noch gesendet werden.
+     */
+    private void showLogin() {
+        Log.w(TAG, "Sitzung abgelaufen – zurück zum Login");
+        HttpClientProvider.clearCache();
+        SingleFlight.getInstance().clear();
+        Intent intent = new Intent(this, LoginActivity.class);
+        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+        startActivity(intent);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.disciteomnes.data.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Diese Klasse stellt die Parameter der Datenbankfunktion {@code create_group_and_join} dar.
+ *
+ * Die Funktion legt die Gruppe an und trägt den aufrufenden Benutzer in einem Schritt
+ * als Mitglied ein; der Ersteller ergibt sich serverseitig aus dem JWT.
+ */
+public class CreateGroupRequest {
+
+    // Der Name der zu erstellenden Gruppe (Parametername der Funktion: "group_name")
+    @SerializedName("group_name")
+    private String groupName;
+
+    /**
+     * @param groupName der gewünschte Name der neuen Gruppe
+     */
+    public CreateGroupRequest(String groupName) {
+        this.groupName = groupName;
+    }
+
+    /**
+     * Gibt den Gruppennamen zurück.
+     *
+     * @return der Name der Gruppe
+     */
+    public String getGroupName() {
+        return groupName;
+    }
+}
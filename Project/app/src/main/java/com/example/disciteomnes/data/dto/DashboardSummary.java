@@ -0,0 +1,139 @@
+package com.example.disciteomnes.data.dto;
+
+import com.example.disciteomnes.data.models.Task;
+import com.google.gson.annotations.SerializedName;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Diese Klasse repräsentiert die Antwort der Datenbankfunktion {@code dashboard_summary}.
+ *
+ * Sie enthält alles, was das Dashboard anzeigt, in einer einzigen Antwort:
+ * die Gruppen des Benutzers (jeweils mit dem nächsten fälligen Lernschritt),
+ * die Zahl der offenen und überfälligen Aufgaben und die nächsten fälligen Aufgaben.
+ */
+public class DashboardSummary {
+
+    /**
+     * Eine Gruppe des Benutzers mit ihrem nächsten fälligen Lernschritt.
+     */
+    public static class GroupSummary {
+
+        @SerializedName("id")
+        private String id;
+
+        @SerializedName("name")
+        private String name;
+
+        @SerializedName("description")
+        private String description;
+
+        @SerializedName("created_by")
+        private String createdBy;
+
+        // Nächster noch nicht erledigter Schritt aller Pläne der Gruppe (null, wenn keiner ansteht)
+        @SerializedName("next_step")
+        private NextStep nextStep;
+
+        public String getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getCreatedBy() {
+            return createdBy;
+        }
+
+        public NextStep getNextStep() {
+            return nextStep;
+        }
+    }
+
+    /**
+     * Der nächste fällige Lernschritt einer Gruppe samt Titel seines Plans.
+     */
+    public static class NextStep {
+
+        @SerializedName("id")
+        private int id;
+
+        @SerializedName("plan_id")
+        private int planId;
+
+        @SerializedName("plan_title")
+        private String planTitle;
+
+        @SerializedName("title")
+        private String title;
+
+        // Fälligkeitsdatum im Format "YYYY-MM-DD"
+        @SerializedName("due_date")
+        private String dueDate;
+
+        public int getId() {
+            return id;
+        }
+
+        public int getPlanId() {
+            return planId;
+        }
+
+        public String getPlanTitle() {
+            return planTitle;
+        }
+
+        public String getTitle() {
+            return title;
+        }
+
+        public String getDueDate() {
+            return dueDate;
+        }
+    }
+
+    // Anzahl aller nicht erledigten Aufgaben
+    @SerializedName("open_tasks")
+    private int openTasks;
+
+    // Davon bereits überfällig
+    @SerializedName("overdue_tasks")
+    private int overdueTasks;
+
+    // Die nächsten fälligen offenen Aufgaben (aufsteigend nach Datum)
+    @SerializedName("next_tasks")
+    private List<Task> nextTasks;
+
+    // Alle Gruppen des Benutzers (alphabetisch)
+    @SerializedName("groups")
+    private List<GroupSummary> groups;
+
+    public int getOpenTasks() {
+        return openTasks;
+    }
+
+    public int getOverdueTasks() {
+        return overdueTasks;
+    }
+
+    /**
+     * @return die nächsten fälligen Aufgaben (nie null)
+     */
+    public List<Task> getNextTasks() {
+        return nextTasks != null ? nextTasks : Collections.emptyList();
+    }
+
+    /**
+     * @return die Gruppen des Benutzers (nie null)
+     */
+    public List<GroupSummary> getGroups() {
+        return groups != null ? groups : Collections.emptyList();
+    }
+}
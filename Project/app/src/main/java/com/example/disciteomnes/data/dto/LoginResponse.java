@@ -5,7 +5,9 @@ import com.google.gson.annotations.SerializedName;
 /**
  * Diese Klasse repräsentiert die Serverantwort nach einer erfolgreichen Login-Anfrage.
  *
- * Sie enthält das Access-Token, das für authentifizierte Folgeanfragen verwendet wird.
+ * Sie enthält das Access-Token, das für authentifizierte Folgeanfragen verwendet wird,
+ * sowie das Refresh-Token, mit dem vor Ablauf ein neues Access-Token geholt wird.
+ * Dieselbe Antwort liefert auch die Token-Erneuerung.
  */
 public class LoginResponse {
 
@@ -13,6 +15,14 @@ public class LoginResponse {
     @SerializedName("access_token")
     private String accessToken;
 
+    // Das Refresh-Token zum Erneuern der Sitzung (JSON-Feld: "refresh_token")
+    @SerializedName("refresh_token")
+    private String refreshToken;
+
+    // Gültigkeit des Access-Tokens in Sekunden (JSON-Feld: "expires_in")
+    @SerializedName("expires_in")
+    private long expiresIn;
+
     /**
      * Gibt das vom Server erhaltene Access-Token zurück.
      *
@@ -21,4 +31,22 @@ public class LoginResponse {
     public String getAccessToken() {
         return accessToken;
     }
+
+    /**
+     * Gibt das Refresh-Token zurück.
+     *
+     * @return das Refresh-Token (nur einmal verwendbar)
+     */
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    /**
+     * Gibt die Gültigkeit des Access-Tokens zurück.
+     *
+     * @return Gültigkeit in Sekunden (0, falls nicht übermittelt)
+     */
+    public long getExpiresIn() {
+        return expiresIn;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.disciteomnes.data.dto;
+
+import com.google.gson.annotations.SerializedName;
+
+/**
+ * Diese Klasse stellt das Datenübertragungsobjekt (DTO) für das Erneuern eines Access-Tokens dar.
+ *
+ * Sie wird an `auth/v1/token?grant_type=refresh_token` gesendet; die Antwort ist
+ * wie beim Login ein {@link LoginResponse} mit neuem Access- und Refresh-Token.
+ */
+public class RefreshTokenRequest {
+
+    // Das zuletzt erhaltene Refresh-Token (JSON-Feld: "refresh_token")
+    @SerializedName("refresh_token")
+    private final String refreshToken;
+
+    /**
+     * @param refreshToken das Refresh-Token der aktuellen Sitzung
+     */
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+}
@@ -2,11 +2,16 @@ package com.example.disciteomnes.data.dto;
 
 import com.google.gson.annotations.SerializedName;
 
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * Diese Klasse stellt das Datenübertragungsobjekt (DTO) für eine Registrierungsanfrage dar.
  *
  * Sie wird verwendet, um die Registrierungsdaten eines neuen Benutzers
  * (E-Mail und Passwort) an den Authentifizierungs-Endpunkt zu senden.
+ * Der Anzeigename reist als Benutzer-Metadatum mit; ein Datenbank-Trigger legt daraus
+ * beim Signup das Profil an.
  */
 public class RegisterRequest {
 
@@ -18,14 +23,20 @@ public class RegisterRequest {
     @SerializedName("password")
     private String password;
 
+    // Benutzer-Metadaten (wird als "data" gesendet, z. B. {"name": "Alex"})
+    @SerializedName("data")
+    private Map<String, String> data;
+
     /**
      * Konstruktor zum Erstellen eines neuen RegisterRequest-Objekts.
      *
      * @param email    die E-Mail-Adresse des neuen Benutzers
      * @param password das Passwort für das Benutzerkonto
+     * @param name     der Anzeigename für das Profil
      */
-    public RegisterRequest(String email, String password) {
+    public RegisterRequest(String email, String password, String name) {
         this.email = email;
         this.password = password;
+        this.data = Collections.singletonMap("name", name);
     }
 }
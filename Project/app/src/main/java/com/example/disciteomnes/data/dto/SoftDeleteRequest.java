@@ -0,0 +1,22 @@
+package com.example.disciteomnes.data.dto;
+
+/**
+ * Dieses DTO markiert eine Zeile als gelöscht (Soft-Delete), statt sie zu entfernen.
+ *
+ * Die Zeile bleibt als Tombstone mit {@code deleted = true} in Supabase erhalten,
+ * damit andere Geräte die Löschung beim nächsten Delta-Sync erkennen.
+ */
+public class SoftDeleteRequest {
+
+    // Immer true – die Zeile gilt danach als gelöscht
+    private final boolean deleted = true;
+
+    /**
+     * Gibt zurück, ob die Zeile als gelöscht markiert wird.
+     *
+     * @return immer true
+     */
+    public boolean isDeleted() {
+        return deleted;
+    }
+}
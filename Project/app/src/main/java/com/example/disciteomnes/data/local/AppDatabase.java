@@ -0,0 +1,115 @@
+package com.example.disciteomnes.data.local;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+import androidx.room.Database;
+import androidx.room.Room;
+import androidx.room.RoomDatabase;
+import androidx.room.TypeConverters;
+import androidx.room.migration.Migration;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import com.example.disciteomnes.data.models.Group;
+import com.example.disciteomnes.data.models.Profile;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.models.StudyStep;
+import com.example.disciteomnes.data.models.Task;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Lokale SQLite-Datenbank (Room) – die "Source of Truth" der App.
+ *
+ * Alle Listen werden aus diesen Tabellen angezeigt. Netzwerkantworten werden nur
+ * noch hier hineingeschrieben; die Oberfläche beobachtet die Tabellen per LiveData.
+ */
+@Database(
+        entities = {Task.class, Group.class, StudyPlan.class, StudyStep.class, Profile.class,
+                SyncState.class, OutboxEntry.class},
+        version = 4,
+        exportSchema = false
+)
+@TypeConverters(Converters.class)
+public abstract class AppDatabase extends RoomDatabase {
+
+    private static final String DB_NAME = "disciteomnes.db";
+
+    private static volatile AppDatabase instance;
+
+    // Alle Schreibzugriffe laufen nacheinander auf diesem Hintergrund-Thread
+    public static final ExecutorService databaseWriteExecutor = Executors.newSingleThreadExecutor();
+
+    public abstract TaskDao taskDao();
+    public abstract GroupDao groupDao();
+    public abstract StudyPlanDao studyPlanDao();
+    public abstract StudyStepDao studyStepDao();
+    public abstract ProfileDao profileDao();
+    public abstract SyncStateDao syncStateDao();
+    public abstract OutboxDao outboxDao();
+
+    /**
+     * Version 1 → 2: Delta-Sync (updated_at, Tombstones und Hochwassermarken).
+     * Die Marken starten leer, daher läuft der erste Abgleich nach dem Update vollständig.
+     */
+    static final Migration MIGRATION_1_2 = new Migration(1, 2) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            for (String table : new String[]{"tasks", "study_plans", "study_steps"}) {
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `updated_at` TEXT");
+                db.execSQL("ALTER TABLE `" + table + "` ADD COLUMN `deleted` INTEGER NOT NULL DEFAULT 0");
+            }
+            db.execSQL("CREATE TABLE IF NOT EXISTS `sync_state` ("
+                    + "`table_name` TEXT NOT NULL, `scope` TEXT NOT NULL, `watermark` TEXT, "
+                    + "PRIMARY KEY(`table_name`, `scope`))");
+        }
+    };
+
+    /**
+     * Version 2 → 3: Outbox für offline durchgeführte Schreiboperationen.
+     */
+    static final Migration MIGRATION_2_3 = new Migration(2, 3) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("CREATE TABLE IF NOT EXISTS `outbox` ("
+                    + "`id` INTEGER PRIMARY KEY AUTOINCREMENT NOT NULL, `table_name` TEXT NOT NULL, "
+                    + "`op` TEXT NOT NULL, `entity_id` TEXT NOT NULL, `payload` TEXT, "
+                    + "`attempts` INTEGER NOT NULL)");
+            db.execSQL("CREATE INDEX IF NOT EXISTS `index_outbox_table_name_entity_id` "
+                    + "ON `outbox` (`table_name`, `entity_id`)");
+        }
+    };
+
+    /**
+     * Version 3 → 4: frühester Sendezeitpunkt für entprellte Outbox-Einträge.
+     */
+    static final Migration MIGRATION_3_4 = new Migration(3, 4) {
+        @Override
+        public void migrate(@NonNull SupportSQLiteDatabase db) {
+            db.execSQL("ALTER TABLE `outbox` ADD COLUMN `not_before` INTEGER NOT NULL DEFAULT 0");
+        }
+    };
+
+    /**
+     * Gibt die prozessweite Datenbank-Instanz zurück (wird beim ersten Aufruf erstellt).
+     *
+     * @param context beliebiger Context (es wird der Application-Context verwendet)
+     * @return die AppDatabase
+     */
+    public static AppDatabase getInstance(Context context) {
+        AppDatabase db = instance;
+        if (db == null) {
+            synchronized (AppDatabase.class) {
+                db = instance;
+                if (db == null) {
+                    db = Room.databaseBuilder(context.getApplicationContext(), AppDatabase.class, DB_NAME)
+                            .addMigrations(MIGRATION_1_2, MIGRATION_2_3, MIGRATION_3_4)
+                            .build();
+                    instance = db;
+                }
+            }
+        }
+        return db;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.room.TypeConverter;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Room-TypeConverter für Felder, die SQLite nicht direkt speichern kann.
+ *
+ * Listen (z. B. {@code completed_by} eines StudySteps) werden als JSON-Text abgelegt.
+ */
+public class Converters {
+
+    private static final Gson GSON = new Gson();
+    private static final Type STRING_LIST = new TypeToken<List<String>>() { }.getType();
+
+    @TypeConverter
+    public static String fromStringList(List<String> values) {
+        return values == null ? null : GSON.toJson(values);
+    }
+
+    @TypeConverter
+    public static List<String> toStringList(String json) {
+        return json == null ? null : GSON.fromJson(json, STRING_LIST);
+    }
+}
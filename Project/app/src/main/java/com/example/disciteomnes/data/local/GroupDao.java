@@ -0,0 +1,43 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.disciteomnes.data.models.Group;
+
+import java.util.List;
+
+/**
+ * Datenzugriff auf die lokale Tabelle "user_groups" (Gruppen des eingeloggten Benutzers).
+ */
+@Dao
+public interface GroupDao {
+
+    /**
+     * Beobachtet alle Gruppen alphabetisch (ohne Groß-/Kleinschreibung).
+     */
+    @Query("SELECT * FROM user_groups ORDER BY name COLLATE NOCASE")
+    LiveData<List<Group>> observeAll();
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(Group group);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<Group> groups);
+
+    @Query("DELETE FROM user_groups")
+    void deleteAll();
+
+    /**
+     * Ersetzt alle Gruppen durch den Serverstand (in einer Transaktion).
+     */
+    @Transaction
+    default void replaceAll(List<Group> groups) {
+        deleteAll();
+        upsertAll(groups);
+    }
+}
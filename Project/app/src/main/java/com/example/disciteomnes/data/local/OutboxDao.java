@@ -0,0 +1,60 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Delete;
+import androidx.room.Insert;
+import androidx.room.Query;
+import androidx.room.Update;
+
+import java.util.List;
+
+/**
+ * Datenzugriff auf die Outbox (ausstehende Schreiboperationen).
+ */
+@Dao
+public interface OutboxDao {
+
+    /**
+     * Alle ausstehenden Einträge in Abspielreihenfolge.
+     */
+    @Query("SELECT * FROM outbox ORDER BY id")
+    List<OutboxEntry> getAll();
+
+    /**
+     * Ausstehende Einträge für eine bestimmte Zeile (älteste zuerst).
+     */
+    @Query("SELECT * FROM outbox WHERE table_name = :tableName AND entity_id = :entityId ORDER BY id")
+    List<OutboxEntry> getForEntity(String tableName, String entityId);
+
+    /**
+     * IDs aller Zeilen einer Tabelle, für die noch Änderungen ausstehen.
+     * Der Abgleich darf diese Zeilen nicht mit dem (älteren) Serverstand überschreiben.
+     */
+    @Query("SELECT DISTINCT entity_id FROM outbox WHERE table_name = :tableName")
+    List<String> getPendingEntityIds(String tableName);
+
+    /**
+     * Anzahl ausstehender Einträge (z. B. für eine "wird synchronisiert"-Anzeige).
+     */
+    @Query("SELECT COUNT(*) FROM outbox")
+    LiveData<Integer> observeCount();
+
+    @Insert
+    long insert(OutboxEntry entry);
+
+    @Update
+    void update(OutboxEntry entry);
+
+    @Delete
+    void delete(OutboxEntry entry);
+
+    @Delete
+    void deleteAll(List<OutboxEntry> entries);
+
+    /**
+     * Ersetzt nach dem Einfügen eine temporäre ID durch die Server-ID.
+     */
+    @Query("UPDATE outbox SET entity_id = :newId WHERE table_name = :tableName AND entity_id = :oldId")
+    void remapEntityId(String tableName, String oldId, String newId);
+}
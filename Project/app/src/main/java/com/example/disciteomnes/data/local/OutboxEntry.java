@@ -0,0 +1,111 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+/**
+ * Eine noch nicht an Supabase übertragene Schreiboperation (Outbox-Eintrag).
+ *
+ * Die Änderung ist lokal bereits sichtbar; der Eintrag wird in Einfügereihenfolge
+ * (aufsteigende id) abgespielt, sobald eine Verbindung besteht.
+ */
+@Entity(tableName = "outbox", indices = @Index({"table_name", "entity_id"}))
+public class OutboxEntry {
+
+    public static final String OP_INSERT = "INSERT";
+    public static final String OP_UPDATE = "UPDATE";
+    public static final String OP_DELETE = "DELETE";
+
+    // Laufende Nummer = Abspielreihenfolge
+    @PrimaryKey(autoGenerate = true)
+    private long id;
+
+    // Ziel-Tabelle in Supabase (z. B. "tasks")
+    @NonNull
+    @ColumnInfo(name = "table_name")
+    private String tableName;
+
+    // INSERT, UPDATE oder DELETE
+    @NonNull
+    private String op;
+
+    // Betroffene Zeile: Server-ID, temporäre (negative) ID oder bei Verknüpfungen ein Schlüssel
+    @NonNull
+    @ColumnInfo(name = "entity_id")
+    private String entityId;
+
+    // JSON-Body der Anfrage (bei DELETE leer)
+    private String payload;
+
+    // Anzahl fehlgeschlagener Versuche (Serverfehler)
+    private int attempts;
+
+    // Frühester Sendezeitpunkt (System.currentTimeMillis(), 0 = sofort) – für entprellte Eingaben
+    @ColumnInfo(name = "not_before", defaultValue = "0")
+    private long notBefore;
+
+    public OutboxEntry(@NonNull String tableName, @NonNull String op, @NonNull String entityId, String payload) {
+        this.tableName = tableName;
+        this.op = op;
+        this.entityId = entityId;
+        this.payload = payload;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    @NonNull
+    public String getTableName() {
+        return tableName;
+    }
+
+    @NonNull
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(@NonNull String op) {
+        this.op = op;
+    }
+
+    @NonNull
+    public String getEntityId() {
+        return entityId;
+    }
+
+    public void setEntityId(@NonNull String entityId) {
+        this.entityId = entityId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public long getNotBefore() {
+        return notBefore;
+    }
+
+    public void setNotBefore(long notBefore) {
+        this.notBefore = notBefore;
+    }
+}
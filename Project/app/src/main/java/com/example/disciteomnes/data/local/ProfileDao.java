@@ -0,0 +1,21 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+import com.example.disciteomnes.data.models.Profile;
+
+/**
+ * Datenzugriff auf die lokale Tabelle "profiles".
+ */
+@Dao
+public interface ProfileDao {
+
+    @Query("SELECT * FROM profiles WHERE id = :id")
+    Profile getById(String id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(Profile profile);
+}
@@ -0,0 +1,30 @@
+package com.example.disciteomnes.data.local;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Teilt ID-Listen für Abfragen mit {@code IN (:ids)} in Blöcke auf.
+ *
+ * SQLite erlaubt höchstens 999 gebundene Variablen pro Anweisung; Room bindet jede ID einzeln.
+ * Alle Aufrufer, die beliebig lange ID-Listen an ein DAO übergeben, gehen daher über {@link #chunks}.
+ */
+public final class SqlChunks {
+
+    // Höchstzahl gebundener IDs je Abfrage – mit Luft für weitere Parameter der Anweisung
+    public static final int MAX_IDS_PER_QUERY = 500;
+
+    private SqlChunks() { }
+
+    /**
+     * Teilt eine Liste in Blöcke zu höchstens {@link #MAX_IDS_PER_QUERY} Einträgen.
+     * Die Blöcke sind Sichten auf die übergebene Liste und dürfen nicht verändert werden.
+     */
+    public static <T> List<List<T>> chunks(List<T> ids) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i += MAX_IDS_PER_QUERY) {
+            chunks.add(ids.subList(i, Math.min(ids.size(), i + MAX_IDS_PER_QUERY)));
+        }
+        return chunks;
+    }
+}
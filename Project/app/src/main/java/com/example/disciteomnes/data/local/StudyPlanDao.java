@@ -0,0 +1,117 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.disciteomnes.data.models.StudyPlan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Datenzugriff auf die lokale Tabelle "study_plans".
+ */
+@Dao
+public interface StudyPlanDao {
+
+    /**
+     * Beobachtet alle Lernpläne einer Gruppe.
+     */
+    @Query("SELECT * FROM study_plans WHERE group_id = :groupId ORDER BY id")
+    LiveData<List<StudyPlan>> observeByGroup(String groupId);
+
+    /**
+     * Beobachtet alle Lernpläne mehrerer Gruppen (z. B. aller Gruppen des Benutzers).
+     */
+    @Query("SELECT * FROM study_plans WHERE group_id IN (:groupIds) ORDER BY id")
+    LiveData<List<StudyPlan>> observeByGroups(List<String> groupIds);
+
+    @Query("SELECT * FROM study_plans WHERE id = :id")
+    StudyPlan getById(int id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(StudyPlan plan);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<StudyPlan> plans);
+
+    @Query("DELETE FROM study_plans WHERE group_id = :groupId AND id > 0 AND id NOT IN (:keepIds)")
+    void deleteMissing(String groupId, List<Integer> keepIds);
+
+    /**
+     * Ersetzt alle Lernpläne einer Gruppe durch den Serverstand (in einer Transaktion).
+     * Temporäre Zeilen (negative ID) und Zeilen mit ausstehenden Outbox-Änderungen bleiben erhalten.
+     *
+     * @param pendingIds IDs mit ausstehenden lokalen Änderungen
+     */
+    @Transaction
+    default void replaceForGroup(String groupId, List<StudyPlan> plans, Set<Integer> pendingIds) {
+        List<Integer> ids = new ArrayList<>();
+        List<StudyPlan> fresh = new ArrayList<>();
+        for (StudyPlan plan : plans) {
+            ids.add(plan.getId());
+            if (!pendingIds.contains(plan.getId())) {
+                fresh.add(plan);
+            }
+        }
+        deleteMissing(groupId, ids);
+        upsertAll(fresh);
+    }
+
+    @Query("DELETE FROM study_plans WHERE group_id IN (:groupIds) AND id > :afterId AND id <= :upToId"
+            + " AND id NOT IN (:keepIds)")
+    void deleteMissingInRange(List<String> groupIds, int afterId, int upToId, List<Integer> keepIds);
+
+    /**
+     * Übernimmt eine Seite des ersten Abgleichs (Keyset-Paging nach id, in einer Transaktion).
+     * Lokale Pläne im id-Bereich (afterId, upToId], die der Server nicht mehr liefert, werden
+     * gelöscht; Zeilen mit ausstehenden Outbox-Änderungen werden nicht überschrieben.
+     *
+     * @param groupIds   Gruppen, die die Seite abdeckt
+     * @param afterId    größte id der vorherigen Seite (erste Seite: 0)
+     * @param upToId     größte id dieser Seite (letzte Seite: Integer.MAX_VALUE)
+     * @param pendingIds IDs mit ausstehenden lokalen Änderungen
+     */
+    @Transaction
+    default void applyPage(List<String> groupIds, List<StudyPlan> page, int afterId, int upToId, Set<Integer> pendingIds) {
+        List<Integer> ids = new ArrayList<>();
+        List<StudyPlan> fresh = new ArrayList<>();
+        for (StudyPlan plan : page) {
+            ids.add(plan.getId());
+            if (!pendingIds.contains(plan.getId())) {
+                fresh.add(plan);
+            }
+        }
+        deleteMissingInRange(groupIds, afterId, upToId, ids);
+        upsertAll(fresh);
+    }
+
+    @Query("DELETE FROM study_plans WHERE id = :id")
+    void deleteById(int id);
+
+    /**
+     * Übernimmt geänderte Zeilen aus dem Delta-Sync: Tombstones werden lokal gelöscht,
+     * alle anderen Zeilen eingefügt bzw. überschrieben. Zeilen mit ausstehenden
+     * Outbox-Änderungen werden übersprungen – der lokale Stand ist neuer.
+     */
+    @Transaction
+    default void applyDelta(List<StudyPlan> changed, Set<Integer> pendingIds) {
+        List<StudyPlan> live = new ArrayList<>();
+        for (StudyPlan plan : changed) {
+            if (pendingIds.contains(plan.getId())) {
+                continue;
+            }
+            if (plan.isDeleted()) {
+                deleteById(plan.getId());
+            } else {
+                live.add(plan);
+            }
+        }
+        upsertAll(live);
+    }
+}
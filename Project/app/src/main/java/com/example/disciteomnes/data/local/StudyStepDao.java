@@ -0,0 +1,131 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.disciteomnes.data.models.StudyStep;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Datenzugriff auf die lokale Tabelle "study_steps".
+ */
+@Dao
+public interface StudyStepDao {
+
+    /**
+     * Liefert die Lernschritte eines Plans seitenweise (sortiert nach Fälligkeit).
+     */
+    @Query("SELECT * FROM study_steps WHERE plan_id = :planId ORDER BY due_date, id")
+    PagingSource<Integer, StudyStep> pageByPlan(int planId);
+
+    @Query("SELECT * FROM study_steps WHERE id = :id")
+    StudyStep getById(int id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(StudyStep step);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<StudyStep> steps);
+
+    @Query("DELETE FROM study_steps WHERE plan_id = :planId AND id > :afterId AND id <= :upToId"
+            + " AND id NOT IN (:keepIds)")
+    void deleteMissingInRange(int planId, int afterId, int upToId, List<Integer> keepIds);
+
+    /**
+     * Übernimmt eine Seite des ersten Abgleichs (Keyset-Paging nach id, in einer Transaktion).
+     * Lokale Schritte im id-Bereich (afterId, upToId], die der Server nicht mehr liefert, werden
+     * gelöscht; Zeilen mit ausstehenden Outbox-Änderungen werden nicht überschrieben.
+     *
+     * @param afterId    größte id der vorherigen Seite (erste Seite: 0)
+     * @param upToId     größte id dieser Seite (letzte Seite: Integer.MAX_VALUE)
+     * @param pendingIds IDs mit ausstehenden lokalen Änderungen
+     */
+    @Transaction
+    default void applyPage(int planId, List<StudyStep> page, int afterId, int upToId, Set<Integer> pendingIds) {
+        List<Integer> ids = new ArrayList<>();
+        List<StudyStep> fresh = new ArrayList<>();
+        for (StudyStep step : page) {
+            ids.add(step.getId());
+            if (!pendingIds.contains(step.getId())) {
+                fresh.add(step);
+            }
+        }
+        deleteMissingInRange(planId, afterId, upToId, ids);
+        upsertAll(fresh);
+    }
+
+    @Query("SELECT id FROM study_steps WHERE plan_id = :planId AND id > 0")
+    List<Integer> getServerIdsByPlan(int planId);
+
+    @Query("DELETE FROM study_steps WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+
+    /**
+     * Ersetzt alle Lernschritte eines Plans durch den Serverstand (in einer Transaktion),
+     * z. B. die mit dem Plan eingebetteten Schritte. Anders als {@link #applyPage} bindet das
+     * keine ID-Liste des ganzen Plans: Die zu löschenden IDs werden hier bestimmt und in
+     * Blöcken über {@link SqlChunks#chunks} gelöscht.
+     * Temporäre Zeilen (negative ID) und Zeilen mit ausstehenden Outbox-Änderungen bleiben erhalten.
+     *
+     * @param pendingIds IDs mit ausstehenden lokalen Änderungen
+     */
+    @Transaction
+    default void replaceForPlan(int planId, List<StudyStep> steps, Set<Integer> pendingIds) {
+        Set<Integer> serverIds = new HashSet<>();
+        List<StudyStep> fresh = new ArrayList<>();
+        for (StudyStep step : steps) {
+            serverIds.add(step.getId());
+            if (!pendingIds.contains(step.getId())) {
+                fresh.add(step);
+            }
+        }
+        List<Integer> missing = new ArrayList<>();
+        for (Integer id : getServerIdsByPlan(planId)) {
+            if (!serverIds.contains(id) && !pendingIds.contains(id)) {
+                missing.add(id);
+            }
+        }
+        for (List<Integer> chunk : SqlChunks.chunks(missing)) {
+            deleteByIds(chunk);
+        }
+        upsertAll(fresh);
+    }
+
+    @Query("DELETE FROM study_steps WHERE id = :id")
+    void deleteById(int id);
+
+    /**
+     * Hängt Schritte eines offline angelegten Plans nach dem Hochladen an die Server-ID um.
+     */
+    @Query("UPDATE study_steps SET plan_id = :newPlanId WHERE plan_id = :oldPlanId")
+    void remapPlanId(int oldPlanId, int newPlanId);
+
+    /**
+     * Übernimmt geänderte Zeilen aus dem Delta-Sync: Tombstones werden lokal gelöscht,
+     * alle anderen Zeilen eingefügt bzw. überschrieben. Zeilen mit ausstehenden
+     * Outbox-Änderungen werden übersprungen – der lokale Stand ist neuer.
+     */
+    @Transaction
+    default void applyDelta(List<StudyStep> changed, Set<Integer> pendingIds) {
+        List<StudyStep> live = new ArrayList<>();
+        for (StudyStep step : changed) {
+            if (pendingIds.contains(step.getId())) {
+                continue;
+            }
+            if (step.isDeleted()) {
+                deleteById(step.getId());
+            } else {
+                live.add(step);
+            }
+        }
+        upsertAll(live);
+    }
+}
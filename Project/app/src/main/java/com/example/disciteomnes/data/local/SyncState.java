@@ -0,0 +1,47 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+
+/**
+ * Hochwassermarke des Delta-Syncs für eine Tabelle in einem Bereich.
+ *
+ * Beispiel: table_name = "study_steps", scope = "12" (plan_id) →
+ * watermark = größtes bisher empfangenes updated_at dieses Plans.
+ */
+@Entity(tableName = "sync_state", primaryKeys = {"table_name", "scope"})
+public class SyncState {
+
+    // Name der Supabase-Tabelle (z. B. "tasks")
+    @NonNull
+    @ColumnInfo(name = "table_name")
+    private final String tableName;
+
+    // Bereich innerhalb der Tabelle (user_id, group_id oder plan_id)
+    @NonNull
+    private final String scope;
+
+    // Größtes bekanntes updated_at (ISO-8601) oder null vor dem ersten Abgleich
+    private final String watermark;
+
+    public SyncState(@NonNull String tableName, @NonNull String scope, String watermark) {
+        this.tableName = tableName;
+        this.scope = scope;
+        this.watermark = watermark;
+    }
+
+    @NonNull
+    public String getTableName() {
+        return tableName;
+    }
+
+    @NonNull
+    public String getScope() {
+        return scope;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+
+/**
+ * Datenzugriff auf die Hochwassermarken des Delta-Syncs (Tabelle "sync_state").
+ */
+@Dao
+public interface SyncStateDao {
+
+    @Query("SELECT watermark FROM sync_state WHERE table_name = :tableName AND scope = :scope")
+    String getWatermark(String tableName, String scope);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(SyncState state);
+
+    @Query("DELETE FROM sync_state")
+    void clear();
+}
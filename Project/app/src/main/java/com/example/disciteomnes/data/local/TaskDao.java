@@ -0,0 +1,102 @@
+package com.example.disciteomnes.data.local;
+
+import androidx.paging.PagingSource;
+import androidx.room.Dao;
+import androidx.room.Insert;
+import androidx.room.OnConflictStrategy;
+import androidx.room.Query;
+import androidx.room.Transaction;
+
+import com.example.disciteomnes.data.models.Task;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Datenzugriff auf die lokale Tabelle "tasks".
+ */
+@Dao
+public interface TaskDao {
+
+    /**
+     * Liefert die Aufgaben eines Benutzers seitenweise (sortiert nach Fälligkeit).
+     * Room lädt nur die sichtbaren Seiten und lädt sie bei Änderungen an "tasks" neu.
+     */
+    @Query("SELECT * FROM tasks WHERE user_id = :userId ORDER BY due_date, id")
+    PagingSource<Integer, Task> pageByUser(String userId);
+
+    @Query("SELECT * FROM tasks WHERE id = :id")
+    Task getById(int id);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsert(Task task);
+
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    void upsertAll(List<Task> tasks);
+
+    @Query("UPDATE tasks SET completed = :completed WHERE id = :id")
+    void setCompleted(int id, boolean completed);
+
+    @Query("DELETE FROM tasks WHERE id = :id")
+    void deleteById(int id);
+
+    // Mehrfachauswahl – Aufrufer teilen lange ID-Listen mit SqlChunks (SQLite-Grenze für Parameter)
+    @Query("UPDATE tasks SET completed = :completed WHERE id IN (:ids)")
+    void setCompletedAll(List<Integer> ids, boolean completed);
+
+    @Query("DELETE FROM tasks WHERE id IN (:ids)")
+    void deleteByIds(List<Integer> ids);
+
+    @Query("DELETE FROM tasks WHERE user_id = :userId AND id > :afterId AND id <= :upToId"
+            + " AND id NOT IN (:keepIds)")
+    void deleteMissingInRange(String userId, int afterId, int upToId, List<Integer> keepIds);
+
+    /**
+     * Übernimmt eine Seite des ersten Abgleichs (Keyset-Paging nach id, in einer Transaktion).
+     *
+     * Alle lokalen Aufgaben im id-Bereich (afterId, upToId], die der Server nicht mehr liefert,
+     * werden gelöscht. Temporäre Zeilen (negative ID) liegen nie in diesem Bereich; Zeilen mit
+     * ausstehenden Outbox-Änderungen werden nicht überschrieben.
+     *
+     * @param afterId    größte id der vorherigen Seite (erste Seite: 0)
+     * @param upToId     größte id dieser Seite (letzte Seite: Integer.MAX_VALUE)
+     * @param pendingIds IDs mit ausstehenden lokalen Änderungen
+     */
+    @Transaction
+    default void applyPage(String userId, List<Task> page, int afterId, int upToId, Set<Integer> pendingIds) {
+        List<Integer> ids = new ArrayList<>();
+        List<Task> fresh = new ArrayList<>();
+        for (Task task : page) {
+            task.setUser_id(userId);
+            ids.add(task.getId());
+            if (!pendingIds.contains(task.getId())) {
+                fresh.add(task);
+            }
+        }
+        deleteMissingInRange(userId, afterId, upToId, ids);
+        upsertAll(fresh);
+    }
+
+    /**
+     * Übernimmt geänderte Zeilen aus dem Delta-Sync: Tombstones werden lokal gelöscht,
+     * alle anderen Zeilen eingefügt bzw. überschrieben. Zeilen mit ausstehenden
+     * Outbox-Änderungen werden übersprungen – der lokale Stand ist neuer.
+     */
+    @Transaction
+    default void applyDelta(String userId, List<Task> changed, Set<Integer> pendingIds) {
+        List<Task> live = new ArrayList<>();
+        for (Task task : changed) {
+            if (pendingIds.contains(task.getId())) {
+                continue;
+            }
+            if (task.isDeleted()) {
+                deleteById(task.getId());
+            } else {
+                task.setUser_id(userId);
+                live.add(task);
+            }
+        }
+        upsertAll(live);
+    }
+}
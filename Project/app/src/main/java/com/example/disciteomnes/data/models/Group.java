@@ -1,5 +1,10 @@
 package com.example.disciteomnes.data.models;
 
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
 import com.google.gson.annotations.SerializedName;
 
 /**
@@ -8,11 +13,16 @@ import com.google.gson.annotations.SerializedName;
  *
  * Sie enthält Basisinformationen über eine Lerngruppe wie ID, Name, Beschreibung
  * und den Ersteller der Gruppe.
+ *
+ * Als Room-Entity "user_groups" speichert sie lokal die Gruppen des eingeloggten Benutzers.
  */
+@Entity(tableName = "user_groups")
 public class Group {
 
     // Die eindeutige ID der Gruppe (UUID)
-    private String id;
+    @PrimaryKey
+    @NonNull
+    private String id = "";
 
     // Der Name der Gruppe
     private String name;
@@ -23,6 +33,7 @@ public class Group {
 
     // Die Benutzer-ID des Erstellers der Gruppe
     @SerializedName("created_by")
+    @ColumnInfo(name = "created_by")
     private String createdBy;
 
     // Leerer Konstruktor (wird z. B. von Gson für die Deserialisierung benötigt)
@@ -33,10 +44,20 @@ public class Group {
      *
      * @return die ID der Gruppe (UUID)
      */
+    @NonNull
     public String getId() {
         return id;
     }
 
+    /**
+     * Setzt die Gruppen-ID.
+     *
+     * @param id die ID der Gruppe (UUID)
+     */
+    public void setId(@NonNull String id) {
+        this.id = id;
+    }
+
     /**
      * Gibt den Namen der Gruppe zurück.
      *
@@ -46,6 +67,15 @@ public class Group {
         return name;
     }
 
+    /**
+     * Setzt den Namen der Gruppe.
+     *
+     * @param name der Gruppenname
+     */
+    public void setName(String name) {
+        this.name = name;
+    }
+
     /**
      * Gibt die Beschreibung der Gruppe zurück.
      *
@@ -55,6 +85,15 @@ public class Group {
         return description;
     }
 
+    /**
+     * Setzt die Beschreibung der Gruppe.
+     *
+     * @param description die Gruppenbeschreibung
+     */
+    public void setDescription(String description) {
+        this.description = description;
+    }
+
     /**
      * Gibt die ID des Erstellers der Gruppe zurück.
      *
@@ -63,4 +102,13 @@ public class Group {
     public String getCreatedBy() {
         return createdBy;
     }
+
+    /**
+     * Setzt die ID des Erstellers der Gruppe.
+     *
+     * @param createdBy die Benutzer-ID des Gruppenerstellers
+     */
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
 }
@@ -1,5 +1,9 @@
 package com.example.disciteomnes.data.models;
 
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.PrimaryKey;
+
 import com.google.gson.annotations.SerializedName;
 
 /**
@@ -7,10 +11,15 @@ import com.google.gson.annotations.SerializedName;
  *
  * Sie enthält grundlegende Informationen wie die Benutzer-ID und den angezeigten Namen.
  * Wird z. B. verwendet, um Benutzerinformationen in Gruppen oder Aufgaben darzustellen.
+ *
+ * Als Room-Entity "profiles" speichert sie lokal das Profil des eingeloggten Benutzers.
  */
+@Entity(tableName = "profiles")
 public class Profile {
 
     // Die eindeutige ID des Benutzers (UUID)
+    @PrimaryKey
+    @NonNull
     @SerializedName("id")
     private String id;
 
@@ -24,7 +33,7 @@ public class Profile {
      * @param id   die eindeutige Benutzer-ID
      * @param name der Anzeigename des Benutzers
      */
-    public Profile(String id, String name) {
+    public Profile(@NonNull String id, String name) {
         this.id = id;
         this.name = name;
     }
@@ -36,6 +45,7 @@ public class Profile {
      *
      * @return die ID des Benutzers
      */
+    @NonNull
     public String getId() {
         return id;
     }
@@ -45,7 +55,7 @@ public class Profile {
      *
      * @param id die neue Benutzer-ID
      */
-    public void setId(String id) {
+    public void setId(@NonNull String id) {
         this.id = id;
     }
 
@@ -1,32 +1,61 @@
 package com.example.disciteomnes.data.models;
 
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.annotations.SerializedName;
+
+import java.util.List;
+
 /**
  * Diese Klasse repräsentiert ein Modell für einen Lernplan (Study Plan),
  * wie er in der Supabase-Datenbank gespeichert ist.
  *
  * Ein StudyPlan ist einer bestimmten Gruppe zugeordnet und enthält einen Titel.
+ * Lokal wird er als Room-Entity in der Tabelle "study_plans" gespeichert.
  */
-public class StudyPlan {
+@Entity(tableName = "study_plans", indices = @Index("group_id"))
+public class StudyPlan implements SyncedRow {
 
     // Die eindeutige ID des Lernplans (automatisch von der Datenbank vergeben)
+    @PrimaryKey
     private int id;
 
     // Die Gruppen-ID, zu der dieser Lernplan gehört
-    private String group_id;
+    @SerializedName("group_id")
+    @ColumnInfo(name = "group_id")
+    private String groupId;
 
     // Der Titel des Lernplans (z. B. "Mathe-Wiederholung Juli")
     private String title;
 
+    // Zeitpunkt der letzten Änderung (vom Server gesetzt, Grundlage für den Delta-Sync)
+    @SerializedName("updated_at")
+    @ColumnInfo(name = "updated_at")
+    private String updatedAt;
+
+    // Tombstone: true, wenn die Zeile auf dem Server gelöscht wurde
+    @ColumnInfo(defaultValue = "0")
+    private boolean deleted;
+
+    // Eingebettete Lernschritte, nur bei select=...,study_steps(...) gefüllt (nicht in Room gespeichert)
+    @Ignore
+    @SerializedName("study_steps")
+    private List<StudyStep> steps;
+
     /**
      * Konstruktor zum Erstellen eines neuen StudyPlan-Objekts.
      *
      * @param id        die eindeutige ID des Lernplans
-     * @param group_id  die ID der Gruppe, zu der dieser Lernplan gehört
+     * @param groupId   die ID der Gruppe, zu der dieser Lernplan gehört
      * @param title     der Titel des Lernplans
      */
-    public StudyPlan(int id, String group_id, String title) {
+    public StudyPlan(int id, String groupId, String title) {
         this.id = id;
-        this.group_id = group_id;
+        this.groupId = groupId;
         this.title = title;
     }
 
@@ -35,6 +64,7 @@ public class StudyPlan {
      *
      * @return die ID des Lernplans
      */
+    @Override
     public int getId() {
         return id;
     }
@@ -45,7 +75,7 @@ public class StudyPlan {
      * @return die Gruppen-ID
      */
     public String getGroupId() {
-        return group_id;
+        return groupId;
     }
 
     /**
@@ -56,4 +86,31 @@ public class StudyPlan {
     public String getTitle() {
         return title;
     }
+
+    @Override
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
+
+    /**
+     * Gibt die mitgelieferten Lernschritte zurück.
+     *
+     * @return die eingebetteten Schritte oder null, wenn sie nicht abgefragt wurden
+     */
+    public List<StudyStep> getSteps() {
+        return steps;
+    }
 }
@@ -1,5 +1,11 @@
 package com.example.disciteomnes.data.models;
 
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Ignore;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
 import com.google.gson.annotations.SerializedName;
 import java.util.List;
 
@@ -9,15 +15,19 @@ import java.util.List;
  *
  * Ein StudyStep gehört zu einem bestimmten Lernplan (plan_id) und enthält Informationen
  * wie Titel, Fälligkeitsdatum und eine Liste von Benutzer-IDs, die diesen Schritt bereits abgeschlossen haben.
+ * Lokal wird er als Room-Entity in der Tabelle "study_steps" gespeichert.
  */
-public class StudyStep {
+@Entity(tableName = "study_steps", indices = @Index("plan_id"))
+public class StudyStep implements SyncedRow {
 
     // Eindeutige ID des Lernschritts
     @SerializedName("id")
+    @PrimaryKey
     private int id;
 
     // ID des zugehörigen Lernplans
     @SerializedName("plan_id")
+    @ColumnInfo(name = "plan_id")
     private int planId;
 
     // Titel des Lernschritts (z. B. "Kapitel 1 lesen")
@@ -26,17 +36,29 @@ public class StudyStep {
 
     // Fälligkeitsdatum im Format "YYYY-MM-DD"
     @SerializedName("due_date")
+    @ColumnInfo(name = "due_date")
     private String dueDate;
 
     // Liste von Benutzer-IDs, die diesen Schritt als abgeschlossen markiert haben
     @SerializedName("completed_by")
+    @ColumnInfo(name = "completed_by")
     private List<String> completedBy;
 
+    // Zeitpunkt der letzten Änderung (vom Server gesetzt, Grundlage für den Delta-Sync)
+    @SerializedName("updated_at")
+    @ColumnInfo(name = "updated_at")
+    private String updatedAt;
+
+    // Tombstone: true, wenn die Zeile auf dem Server gelöscht wurde
+    @ColumnInfo(defaultValue = "0")
+    private boolean deleted;
+
     // optional: wenn Du das Erstell‐Datum brauchst, kannst Du es so hinzufügen:
     // @SerializedName("created_at")
     // private String createdAt;
 
     /** Leerer Standardkonstruktor – notwendig für die Deserialisierung durch Gson */
+    @Ignore
     public StudyStep() { }
 
     /**
@@ -65,6 +87,7 @@ public class StudyStep {
      *
      * @return die eindeutige Schritt-ID
      */
+    @Override
     public int getId() {
         return id;
     }
@@ -113,4 +136,22 @@ public class StudyStep {
     public void setCompletedBy(List<String> completedBy) {
         this.completedBy = completedBy;
     }
+
+    @Override
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
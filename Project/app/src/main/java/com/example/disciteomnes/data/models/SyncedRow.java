@@ -0,0 +1,26 @@
+package com.example.disciteomnes.data.models;
+
+/**
+ * Gemeinsame Eigenschaften aller Zeilen, die per Delta-Sync abgeglichen werden
+ * (Tasks, StudyPlans, StudySteps).
+ *
+ * Supabase setzt {@code updated_at} bei jeder Änderung neu; gelöschte Zeilen bleiben
+ * als Tombstone mit {@code deleted = true} erhalten.
+ */
+public interface SyncedRow {
+
+    /**
+     * @return die numerische ID der Zeile
+     */
+    int getId();
+
+    /**
+     * @return Zeitpunkt der letzten Änderung (ISO-8601, vom Server gesetzt)
+     */
+    String getUpdatedAt();
+
+    /**
+     * @return true, wenn die Zeile auf dem Server gelöscht wurde
+     */
+    boolean isDeleted();
+}
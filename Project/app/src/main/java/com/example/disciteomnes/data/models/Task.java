@@ -1,15 +1,26 @@
 package com.example.disciteomnes.data.models;
 
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import com.google.gson.annotations.SerializedName;
+
 /**
  * Diese Klasse repräsentiert ein Aufgabenmodell (Task),
  * wie es in der Supabase-Datenbank gespeichert ist.
  *
  * Eine Aufgabe enthält einen Titel, ein Fälligkeitsdatum,
  * einen Bearbeitungsstatus (completed) und eine eindeutige ID.
+ *
+ * Dieselbe Klasse dient auch als Room-Entity der lokalen Tabelle "tasks".
  */
-public class Task {
+@Entity(tableName = "tasks", indices = @Index("user_id"))
+public class Task implements SyncedRow {
 
     // Eindeutige ID der Aufgabe (wird von der Datenbank vergeben)
+    @PrimaryKey
     private int id;
 
     // Titel der Aufgabe (z. B. "Hausaufgabe abschließen")
@@ -21,6 +32,18 @@ public class Task {
     // Gibt an, ob die Aufgabe bereits erledigt wurde
     private boolean completed;
 
+    // ID des Benutzers, dem die Aufgabe gehört
+    private String user_id;
+
+    // Zeitpunkt der letzten Änderung (vom Server gesetzt, Grundlage für den Delta-Sync)
+    @SerializedName("updated_at")
+    @ColumnInfo(name = "updated_at")
+    private String updatedAt;
+
+    // Tombstone: true, wenn die Zeile auf dem Server gelöscht wurde
+    @ColumnInfo(defaultValue = "0")
+    private boolean deleted;
+
     /**
      * Konstruktor zum Erstellen eines Task-Objekts.
      *
@@ -41,6 +64,7 @@ public class Task {
      *
      * @return die Aufgaben-ID
      */
+    @Override
     public int getId() {
         return id;
     }
@@ -80,4 +104,40 @@ public class Task {
     public void setCompleted(boolean completed) {
         this.completed = completed;
     }
+
+    /**
+     * Gibt die ID des Benutzers zurück, dem die Aufgabe gehört.
+     *
+     * @return die Benutzer-ID
+     */
+    public String getUser_id() {
+        return user_id;
+    }
+
+    /**
+     * Setzt die ID des Benutzers, dem die Aufgabe gehört.
+     *
+     * @param user_id die Benutzer-ID
+     */
+    public void setUser_id(String user_id) {
+        this.user_id = user_id;
+    }
+
+    @Override
+    public String getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(String updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @Override
+    public boolean isDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(boolean deleted) {
+        this.deleted = deleted;
+    }
 }
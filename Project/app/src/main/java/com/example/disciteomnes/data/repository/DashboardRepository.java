@@ -0,0 +1,128 @@
+package com.example.disciteomnes.data.repository;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.disciteomnes.data.dto.DashboardSummary;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.GroupDao;
+import com.example.disciteomnes.data.models.Group;
+import com.example.disciteomnes.network.DatabaseClient;
+import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.error;
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+
+/**
+ * Repository für die Dashboard-Übersicht.
+ *
+ * Ein einziger Aufruf der Datenbankfunktion {@code dashboard_summary} liefert Gruppen,
+ * offene Aufgaben und nächste Fälligkeiten. Die Gruppen kommen mit allen Spalten und werden
+ * wie bei {@link GroupRepository#refresh} in die lokale Tabelle übernommen, damit alle anderen
+ * Gruppenlisten denselben Stand sehen; die Übersicht selbst bleibt im Speicher und ist beim
+ * nächsten Öffnen des Dashboards sofort da.
+ */
+public class DashboardRepository {
+
+    // So viele nächste Aufgaben zeigt das Dashboard
+    public static final int NEXT_TASKS = 5;
+
+    private static volatile DashboardRepository instance;
+
+    private final GroupDao groupDao;
+    private final Executor diskIO;
+    private final MutableLiveData<DashboardSummary> summary = new MutableLiveData<>();
+
+    private DashboardRepository(Context context) {
+        this.groupDao = AppDatabase.getInstance(context).groupDao();
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return das DashboardRepository
+     */
+    public static DashboardRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (DashboardRepository.class) {
+                if (instance == null) {
+                    instance = new DashboardRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private DisciteOmnesApi api() {
+        return DatabaseClient.getApi();
+    }
+
+    /**
+     * Beobachtet die zuletzt geladene Übersicht (null, bis der erste Abruf fertig ist).
+     *
+     * @return LiveData mit der Übersicht
+     */
+    public LiveData<DashboardSummary> observeSummary() {
+        return summary;
+    }
+
+    /**
+     * Lädt die Übersicht in einem Aufruf und übernimmt die Gruppen in die lokale Datenbank.
+     *
+     * @param callback Rückmeldung mit der geladenen Übersicht (optional)
+     */
+    public void refresh(RepositoryCallback<DashboardSummary> callback) {
+        SingleFlight.getInstance().enqueue(api().getDashboardSummary(NEXT_TASKS), new Callback<DashboardSummary>() {
+            @Override
+            public void onResponse(Call<DashboardSummary> call, Response<DashboardSummary> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    DashboardSummary result = response.body();
+                    List<Group> groups = toGroups(result);
+                    diskIO.execute(() -> groupDao.replaceAll(groups));
+                    summary.setValue(result);
+                    success(callback, result);
+                } else {
+                    error(callback, "Laden der Übersicht fehlgeschlagen: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<DashboardSummary> call, Throwable t) {
+                error(callback, "Netzwerkfehler: " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Verwirft die Übersicht im Speicher (z. B. beim Logout).
+     */
+    public void clear() {
+        summary.setValue(null);
+    }
+
+    static List<Group> toGroups(DashboardSummary summary) {
+        List<Group> groups = new ArrayList<>();
+        for (DashboardSummary.GroupSummary g : summary.getGroups()) {
+            Group group = new Group();
+            group.setId(g.getId());
+            group.setName(g.getName());
+            group.setDescription(g.getDescription());
+            group.setCreatedBy(g.getCreatedBy());
+            groups.add(group);
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.disciteomnes.data.repository;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.disciteomnes.data.dto.CreateGroupRequest;
+import com.example.disciteomnes.data.dto.GroupMemberRequest;
+import com.example.disciteomnes.data.dto.GroupMemberResponse;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.GroupDao;
+import com.example.disciteomnes.data.local.OutboxEntry;
+import com.example.disciteomnes.data.models.Group;
+import com.example.disciteomnes.data.sync.Outbox;
+import com.example.disciteomnes.network.DatabaseClient;
+import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.PostgrestQuery;
+import com.example.disciteomnes.network.SingleFlight;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.error;
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+
+/**
+ * Repository für die Gruppen des eingeloggten Benutzers.
+ *
+ * Alle Bildschirme mit Gruppenliste (Dashboard, Gruppen, Gruppe erstellen, Lernpläne)
+ * lesen aus derselben lokalen Tabelle und teilen sich damit einen Stand.
+ */
+public class GroupRepository {
+
+    private static volatile GroupRepository instance;
+
+    private final Context appContext;
+    private final GroupDao dao;
+    private final Executor diskIO;
+
+    private GroupRepository(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.dao = AppDatabase.getInstance(context).groupDao();
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return das GroupRepository
+     */
+    public static GroupRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (GroupRepository.class) {
+                if (instance == null) {
+                    instance = new GroupRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private DisciteOmnesApi api() {
+        return DatabaseClient.getApi();
+    }
+
+    /**
+     * Beobachtet die lokal gespeicherten Gruppen (alphabetisch sortiert).
+     *
+     * @return LiveData mit der aktuellen Gruppenliste
+     */
+    public LiveData<List<Group>> observeGroups() {
+        return dao.observeAll();
+    }
+
+    /**
+     * Lädt alle Gruppen des Benutzers (JOIN über group_members → groups) und
+     * übernimmt sie in die lokale Datenbank.
+     *
+     * @param userId   ID des Benutzers
+     * @param callback Rückmeldung mit der geladenen Liste (optional)
+     */
+    public void refresh(String userId, RepositoryCallback<List<Group>> callback) {
+        PostgrestQuery query = PostgrestQuery.from("group_members")
+                // Alle Spalten von groups – replaceAll ersetzt die lokalen Zeilen vollständig
+                .select(PostgrestQuery.embed("group", "groups", "id", "name", "description", "created_by"))
+                .eq("user_id", userId);
+
+        // Mehrere Bildschirme laden diese Liste oft gleichzeitig – nur ein Aufruf geht ins Netz
+        SingleFlight.getInstance().enqueue(api().getGroupMembers(query.toQueryMap()), new Callback<List<GroupMemberResponse>>() {
+            @Override
+            public void onResponse(Call<List<GroupMemberResponse>> call,
+                                   Response<List<GroupMemberResponse>> response) {
+                if (response.isSuccessful() && response.body() != null) {
+                    List<Group> groups = toGroups(response.body());
+                    diskIO.execute(() -> dao.replaceAll(groups));
+                    success(callback, groups);
+                } else {
+                    error(callback, "Laden der Gruppen fehlgeschlagen: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<GroupMemberResponse>> call, Throwable t) {
+                error(callback, "Netzwerkfehler: " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Erstellt eine neue Gruppe und tritt ihr bei – serverseitig in einer Transaktion, daher
+     * bleibt keine Gruppe ohne Mitglieder zurück. Die gelieferte Mitgliedschaft wird direkt
+     * lokal übernommen, ohne die Liste neu zu laden.
+     *
+     * @param name     Name der neuen Gruppe
+     * @param callback Rückmeldung mit der neuen Gruppe (optional)
+     */
+    public void createGroup(String name, RepositoryCallback<Group> callback) {
+        api().createGroupAndJoin(new CreateGroupRequest(name)).enqueue(new Callback<GroupMemberResponse>() {
+            @Override
+            public void onResponse(Call<GroupMemberResponse> call, Response<GroupMemberResponse> response) {
+                Group created = response.isSuccessful() && response.body() != null
+                        ? response.body().getGroup() : null;
+                if (created == null) {
+                    error(callback, "Erstellen fehlgeschlagen: " + response.code());
+                    return;
+                }
+                diskIO.execute(() -> dao.upsert(created));
+                success(callback, created);
+            }
+
+            @Override
+            public void onFailure(Call<GroupMemberResponse> call, Throwable t) {
+                error(callback, "Netzwerkfehler beim Erstellen");
+            }
+        });
+    }
+
+    /**
+     * Merkt den Beitritt zu einer bestehenden Gruppe in der Outbox vor. Sobald er übertragen
+     * wurde, wird die Gruppenliste nachgeladen (Name der Gruppe ist vorher nicht bekannt).
+     * Funktioniert auch offline.
+     *
+     * @param userId   ID des Benutzers
+     * @param groupId  UUID der Gruppe
+     * @param callback Rückmeldung (optional)
+     */
+    public void joinGroup(String userId, String groupId, RepositoryCallback<Void> callback) {
+        Outbox outbox = Outbox.getInstance(appContext);
+        outbox.submit(() -> outbox.entry(Outbox.TABLE_GROUP_MEMBERS, OutboxEntry.OP_INSERT,
+                userId + ":" + groupId, new GroupMemberRequest(userId, groupId)));
+        success(callback, null);
+    }
+
+    private static List<Group> toGroups(List<GroupMemberResponse> memberships) {
+        List<Group> groups = new ArrayList<>();
+        for (GroupMemberResponse gmr : memberships) {
+            if (gmr.getGroup() != null) {
+                groups.add(gmr.getGroup());
+            }
+        }
+        return groups;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.disciteomnes.data.repository;
+
+import androidx.paging.PagingConfig;
+
+/**
+ * Gemeinsame Einstellungen für seitenweise geladene Listen aus der lokalen Datenbank.
+ *
+ * Die erste Anzeige lädt nur {@link #PAGE_SIZE} Zeilen – unabhängig davon, wie viele
+ * Aufgaben oder Lernschritte insgesamt gespeichert sind. Weitere Seiten werden geladen,
+ * sobald beim Scrollen weniger als {@link #PREFETCH_DISTANCE} Einträge übrig sind.
+ */
+final class ListPaging {
+
+    // Zeilen pro Seite (etwa drei Bildschirmhöhen)
+    static final int PAGE_SIZE = 30;
+
+    // Nachladen, wenn nur noch so viele Einträge bis zum Listenende fehlen
+    static final int PREFETCH_DISTANCE = 15;
+
+    private ListPaging() { }
+
+    /**
+     * @return die PagingConfig für Listenbildschirme (ohne Platzhalter)
+     */
+    static PagingConfig config() {
+        return new PagingConfig(PAGE_SIZE, PREFETCH_DISTANCE, false);
+    }
+}
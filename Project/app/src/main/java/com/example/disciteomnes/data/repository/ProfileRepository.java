@@ -0,0 +1,76 @@
+package com.example.disciteomnes.data.repository;
+
+import android.content.Context;
+
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.ProfileDao;
+import com.example.disciteomnes.data.models.Profile;
+import com.example.disciteomnes.network.DatabaseClient;
+
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.error;
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+
+/**
+ * Repository für Benutzerprofile (Tabelle "profiles").
+ */
+public class ProfileRepository {
+
+    private static volatile ProfileRepository instance;
+
+    private final ProfileDao dao;
+    private final Executor diskIO;
+
+    private ProfileRepository(Context context) {
+        this.dao = AppDatabase.getInstance(context).profileDao();
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return das ProfileRepository
+     */
+    public static ProfileRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (ProfileRepository.class) {
+                if (instance == null) {
+                    instance = new ProfileRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Legt ein Profil auf dem Server an (oder überschreibt ein vorhandenes, z. B. das vom
+     * Signup-Trigger angelegte) und speichert es lokal.
+     *
+     * @param profile  das neue Profil
+     * @param callback Rückmeldung (optional)
+     */
+    public void createProfile(Profile profile, RepositoryCallback<Profile> callback) {
+        DatabaseClient.getApi().createProfile(profile).enqueue(new Callback<Profile>() {
+            @Override
+            public void onResponse(Call<Profile> call, Response<Profile> response) {
+                if (response.isSuccessful()) {
+                    diskIO.execute(() -> dao.upsert(profile));
+                    success(callback, profile);
+                } else {
+                    error(callback, "Profil konnte nicht gespeichert werden: " + response.code());
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Profile> call, Throwable t) {
+                error(callback, "Netzwerkfehler: " + t.getMessage());
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.disciteomnes.data.repository;
+
+/**
+ * Rückmeldung eines Repository-Aufrufs an die Oberfläche.
+ *
+ * Die eigentlichen Daten kommen über die beobachteten LiveData-Listen der lokalen
+ * Datenbank; dieser Callback meldet nur Erfolg (mit optionalem Ergebnis) oder einen Fehlertext.
+ * Beide Methoden werden auf dem Main-Thread aufgerufen.
+ *
+ * @param <T> Typ des Ergebnisses (z. B. die vom Server gelieferte Liste)
+ */
+public interface RepositoryCallback<T> {
+
+    /**
+     * Der Aufruf war erfolgreich.
+     *
+     * @param result das Ergebnis (kann null sein)
+     */
+    void onSuccess(T result);
+
+    /**
+     * Der Aufruf ist fehlgeschlagen.
+     *
+     * @param message eine anzeigbare Fehlermeldung
+     */
+    void onError(String message);
+
+    /**
+     * Meldet Erfolg, falls ein Callback übergeben wurde.
+     */
+    static <T> void success(RepositoryCallback<T> callback, T result) {
+        if (callback != null) callback.onSuccess(result);
+    }
+
+    /**
+     * Meldet einen Fehler, falls ein Callback übergeben wurde.
+     */
+    static void error(RepositoryCallback<?> callback, String message) {
+        if (callback != null) callback.onError(message);
+    }
+}
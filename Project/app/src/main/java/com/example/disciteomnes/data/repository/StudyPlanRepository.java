@@ -0,0 +1,185 @@
+package com.example.disciteomnes.data.repository;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.disciteomnes.data.dto.StudyPlanRequest;
+import com.example.disciteomnes.data.dto.StudyStepRequest;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.OutboxEntry;
+import com.example.disciteomnes.data.local.StudyPlanDao;
+import com.example.disciteomnes.data.local.StudyStepDao;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.models.StudyStep;
+import com.example.disciteomnes.data.sync.Outbox;
+import com.example.disciteomnes.data.sync.SyncEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+
+/**
+ * Repository für Lernpläne (Study Plans) und deren Lernschritte (Study Steps).
+ *
+ * Wie bei den Aufgaben liest die Oberfläche aus der lokalen Datenbank; neue Pläne und
+ * Schritte erscheinen sofort und werden über die {@link Outbox} hochgeladen.
+ */
+public class StudyPlanRepository {
+
+    private static volatile StudyPlanRepository instance;
+
+    private final StudyPlanDao planDao;
+    private final StudyStepDao stepDao;
+    private final SyncEngine syncEngine;
+    private final Outbox outbox;
+
+    private StudyPlanRepository(Context context) {
+        AppDatabase db = AppDatabase.getInstance(context);
+        this.planDao = db.studyPlanDao();
+        this.stepDao = db.studyStepDao();
+        this.syncEngine = SyncEngine.getInstance(context);
+        this.outbox = Outbox.getInstance(context);
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return das StudyPlanRepository
+     */
+    public static StudyPlanRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (StudyPlanRepository.class) {
+                if (instance == null) {
+                    instance = new StudyPlanRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ───────────── Lernpläne ─────────────
+
+    /**
+     * Beobachtet die lokal gespeicherten Lernpläne einer Gruppe.
+     *
+     * @param groupId ID der Gruppe
+     * @return LiveData mit der aktuellen Planliste
+     */
+    public LiveData<List<StudyPlan>> observePlans(String groupId) {
+        return planDao.observeByGroup(groupId);
+    }
+
+    /**
+     * Gleicht die Lernpläne einer Gruppe per Delta-Sync mit Supabase ab.
+     *
+     * @param groupId  ID der Gruppe
+     * @param callback Rückmeldung (optional)
+     */
+    public void refreshPlans(String groupId, RepositoryCallback<Void> callback) {
+        syncEngine.syncStudyPlans(groupId, callback);
+    }
+
+    /**
+     * Beobachtet die lokal gespeicherten Lernpläne mehrerer Gruppen.
+     *
+     * @param groupIds IDs der Gruppen
+     * @return LiveData mit allen Plänen dieser Gruppen (aufsteigend nach ID)
+     */
+    public LiveData<List<StudyPlan>> observePlans(List<String> groupIds) {
+        return planDao.observeByGroups(groupIds);
+    }
+
+    /**
+     * Gleicht die Lernpläne mehrerer Gruppen mit einer gemeinsamen Abfrage
+     * ({@code group_id=in.(...)}) ab.
+     *
+     * @param groupIds IDs der Gruppen
+     * @param callback Rückmeldung (optional)
+     */
+    public void refreshPlans(List<String> groupIds, RepositoryCallback<Void> callback) {
+        syncEngine.syncStudyPlans(groupIds, callback);
+    }
+
+    /**
+     * Legt einen neuen Lernplan sofort lokal an (mit temporärer ID) und merkt ihn in der
+     * Outbox zum Hochladen vor. Schritte können dem Plan auch vor dem Hochladen hinzugefügt werden.
+     *
+     * @param request  der neue Plan
+     * @param callback Rückmeldung (optional)
+     */
+    public void addPlan(StudyPlanRequest request, RepositoryCallback<Void> callback) {
+        outbox.submit(() -> {
+            int tempId = outbox.nextTempId();
+            planDao.upsert(new StudyPlan(tempId, request.getGroup_id(), request.getTitle()));
+            return outbox.entry(SyncEngine.TABLE_STUDY_PLANS, OutboxEntry.OP_INSERT, tempId, request);
+        });
+        success(callback, null);
+    }
+
+    // ───────────── Lernschritte ─────────────
+
+    /**
+     * Beobachtet die lokal gespeicherten Lernschritte eines Plans seitenweise.
+     * Jede Änderung an der Tabelle liefert neue PagingData; geladen wird nur der sichtbare Teil.
+     *
+     * @param planId ID des Lernplans
+     * @return LiveData mit den Seiten der Schrittliste
+     */
+    public LiveData<PagingData<StudyStep>> pageSteps(int planId) {
+        return PagingLiveData.getLiveData(new Pager<>(ListPaging.config(), () -> stepDao.pageByPlan(planId)));
+    }
+
+    /**
+     * Gleicht die Lernschritte eines Plans per Delta-Sync mit Supabase ab.
+     *
+     * @param planId   ID des Lernplans
+     * @param callback Rückmeldung (optional)
+     */
+    public void refreshSteps(int planId, RepositoryCallback<Void> callback) {
+        syncEngine.syncStudySteps(planId, callback);
+    }
+
+    /**
+     * Legt einen neuen Lernschritt sofort lokal an (mit temporärer ID) und merkt ihn in der
+     * Outbox zum Hochladen vor.
+     *
+     * @param request  der neue Schritt
+     * @param callback Rückmeldung (optional)
+     */
+    public void addStep(StudyStepRequest request, RepositoryCallback<Void> callback) {
+        outbox.submit(() -> {
+            int tempId = outbox.nextTempId();
+            stepDao.upsert(new StudyStep(tempId, request.getPlan_id(), request.getTitle(),
+                    request.getDue_date(), new ArrayList<>()));
+            return outbox.entry(SyncEngine.TABLE_STUDY_STEPS, OutboxEntry.OP_INSERT, tempId, request);
+        });
+        success(callback, null);
+    }
+
+    /**
+     * Legt mehrere Lernschritte auf einmal an (z. B. die Schritte einer ganzen Woche).
+     * Alle Schritte erscheinen sofort lokal und gehen als ein einziger Bulk-Insert an den Server.
+     *
+     * @param requests die neuen Schritte in Eingabereihenfolge
+     * @param callback Rückmeldung (optional)
+     */
+    public void addSteps(List<StudyStepRequest> requests, RepositoryCallback<Void> callback) {
+        outbox.submitAll(() -> {
+            List<OutboxEntry> entries = new ArrayList<>();
+            for (StudyStepRequest request : requests) {
+                int tempId = outbox.nextTempId();
+                stepDao.upsert(new StudyStep(tempId, request.getPlan_id(), request.getTitle(),
+                        request.getDue_date(), new ArrayList<>()));
+                entries.add(outbox.entry(SyncEngine.TABLE_STUDY_STEPS, OutboxEntry.OP_INSERT, tempId, request));
+            }
+            return entries;
+        });
+        success(callback, null);
+    }
+}
@@ -0,0 +1,210 @@
+package com.example.disciteomnes.data.repository;
+
+import android.content.Context;
+
+import androidx.lifecycle.LiveData;
+import androidx.paging.Pager;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.disciteomnes.data.dto.TaskRequest;
+import com.example.disciteomnes.data.dto.TaskUpdateRequest;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.OutboxEntry;
+import com.example.disciteomnes.data.local.SqlChunks;
+import com.example.disciteomnes.data.local.TaskDao;
+import com.example.disciteomnes.data.models.Task;
+import com.example.disciteomnes.data.sync.Outbox;
+import com.example.disciteomnes.data.sync.SyncEngine;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+
+/**
+ * Repository für Aufgaben (Tasks).
+ *
+ * Lesen: die Oberfläche beobachtet die lokale Tabelle "tasks" und bekommt sofort den
+ * zuletzt bekannten Stand; {@link #refresh} holt per Delta-Sync nur geänderte Zeilen.
+ * Schreiben: die Änderung wird sofort lokal übernommen und über die {@link Outbox}
+ * an Supabase übertragen – auch wenn gerade kein Netz verfügbar ist.
+ */
+public class TaskRepository {
+
+    // Ruhezeit nach dem letzten Umschalten, bevor der Endstand gesendet wird
+    static final long TOGGLE_QUIET_MS = 400;
+
+    private static volatile TaskRepository instance;
+
+    private final TaskDao dao;
+    private final SyncEngine syncEngine;
+    private final Outbox outbox;
+
+    private TaskRepository(Context context) {
+        this.dao = AppDatabase.getInstance(context).taskDao();
+        this.syncEngine = SyncEngine.getInstance(context);
+        this.outbox = Outbox.getInstance(context);
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return das TaskRepository
+     */
+    public static TaskRepository getInstance(Context context) {
+        if (instance == null) {
+            synchronized (TaskRepository.class) {
+                if (instance == null) {
+                    instance = new TaskRepository(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Beobachtet die lokal gespeicherten Aufgaben eines Benutzers seitenweise.
+     * Geladen wird nur der sichtbare Teil; weitere Seiten folgen beim Scrollen.
+     *
+     * @param userId ID des Benutzers
+     * @return LiveData mit den Seiten der Aufgabenliste
+     */
+    public LiveData<PagingData<Task>> pageTasks(String userId) {
+        return PagingLiveData.getLiveData(new Pager<>(ListPaging.config(), () -> dao.pageByUser(userId)));
+    }
+
+    /**
+     * Gleicht die Aufgaben des Benutzers mit Supabase ab. Nach dem ersten Abgleich werden
+     * nur noch seit dem letzten Mal geänderte oder gelöschte Aufgaben übertragen.
+     *
+     * @param userId   ID des Benutzers
+     * @param callback Rückmeldung (optional)
+     */
+    public void refresh(String userId, RepositoryCallback<Void> callback) {
+        syncEngine.syncTasks(userId, callback);
+    }
+
+    /**
+     * Legt eine neue Aufgabe sofort lokal an (mit temporärer ID) und merkt sie in der
+     * Outbox zum Hochladen vor. Funktioniert auch offline.
+     *
+     * @param request  die neue Aufgabe
+     * @param callback Rückmeldung (optional)
+     */
+    public void addTask(TaskRequest request, RepositoryCallback<Void> callback) {
+        outbox.submit(() -> insertLocal(request));
+        success(callback, null);
+    }
+
+    /**
+     * Legt mehrere Aufgaben auf einmal an. Alle erscheinen sofort lokal und gehen als
+     * ein einziger Bulk-Insert an den Server.
+     *
+     * @param requests die neuen Aufgaben in Eingabereihenfolge
+     * @param callback Rückmeldung (optional)
+     */
+    public void addTasks(List<TaskRequest> requests, RepositoryCallback<Void> callback) {
+        outbox.submitAll(() -> {
+            List<OutboxEntry> entries = new ArrayList<>();
+            for (TaskRequest request : requests) {
+                entries.add(insertLocal(request));
+            }
+            return entries;
+        });
+        success(callback, null);
+    }
+
+    /**
+     * Speichert eine neue Aufgabe mit temporärer ID lokal und erstellt ihren Outbox-Eintrag.
+     */
+    private OutboxEntry insertLocal(TaskRequest request) {
+        int tempId = outbox.nextTempId();
+        Task task = new Task(tempId, request.getTitle(), request.getDue_date(), request.isCompleted());
+        task.setUser_id(request.getUser_id());
+        dao.upsert(task);
+        return outbox.entry(SyncEngine.TABLE_TASKS, OutboxEntry.OP_INSERT, tempId, request);
+    }
+
+    /**
+     * Setzt den Erledigt-Status einer Aufgabe sofort lokal; die Änderung wird über die
+     * Outbox übertragen. Gesendet wird erst nach {@link #TOGGLE_QUIET_MS} ohne weiteres
+     * Umschalten – schnelles Hin- und Herschalten ergibt so ein einziges PATCH mit dem Endstand.
+     * Lehnt der Server die Änderung ab, setzt die Outbox die Zeile auf den Serverstand zurück.
+     *
+     * @param taskId    ID der Aufgabe
+     * @param completed neuer Status
+     * @param callback  Rückmeldung (optional)
+     */
+    public void setCompleted(int taskId, boolean completed, RepositoryCallback<Void> callback) {
+        outbox.submitDebounced(() -> {
+            dao.setCompleted(taskId, completed);
+            return outbox.entry(SyncEngine.TABLE_TASKS, OutboxEntry.OP_UPDATE, taskId,
+                    new TaskUpdateRequest(completed));
+        }, TOGGLE_QUIET_MS);
+        success(callback, null);
+    }
+
+    /**
+     * Setzt den Erledigt-Status mehrerer Aufgaben auf einmal (Mehrfachauswahl).
+     *
+     * Die lokale Änderung läuft in einer Transaktion, sodass die Liste genau einmal neu
+     * berechnet wird. Die Outbox sendet die gleichartigen Änderungen gesammelt als
+     * ein PATCH mit {@code id=in.(...)}.
+     *
+     * @param taskIds   IDs der Aufgaben
+     * @param completed neuer Status
+     * @param callback  Rückmeldung (optional)
+     */
+    public void setCompleted(List<Integer> taskIds, boolean completed, RepositoryCallback<Void> callback) {
+        outbox.submitAll(() -> {
+            List<OutboxEntry> entries = new ArrayList<>();
+            for (List<Integer> chunk : SqlChunks.chunks(taskIds)) {
+                dao.setCompletedAll(chunk, completed);
+            }
+            for (int taskId : taskIds) {
+                entries.add(outbox.entry(SyncEngine.TABLE_TASKS, OutboxEntry.OP_UPDATE, taskId,
+                        new TaskUpdateRequest(completed)));
+            }
+            return entries;
+        });
+        success(callback, null);
+    }
+
+    /**
+     * Löscht eine Aufgabe sofort lokal. Auf dem Server wird sie über die Outbox als gelöscht
+     * markiert (Tombstone), damit andere Geräte die Löschung beim Delta-Sync sehen.
+     *
+     * @param taskId   ID der Aufgabe
+     * @param callback Rückmeldung (optional)
+     */
+    public void deleteTask(int taskId, RepositoryCallback<Void> callback) {
+        outbox.submit(() -> {
+            dao.deleteById(taskId);
+            return outbox.entry(SyncEngine.TABLE_TASKS, OutboxEntry.OP_DELETE, taskId, null);
+        });
+        success(callback, null);
+    }
+
+    /**
+     * Löscht mehrere Aufgaben auf einmal (Mehrfachauswahl). Lokal in einer Transaktion,
+     * auf dem Server als ein gesammeltes Tombstone-PATCH mit {@code id=in.(...)}.
+     *
+     * @param taskIds  IDs der Aufgaben
+     * @param callback Rückmeldung (optional)
+     */
+    public void deleteTasks(List<Integer> taskIds, RepositoryCallback<Void> callback) {
+        outbox.submitAll(() -> {
+            List<OutboxEntry> entries = new ArrayList<>();
+            for (List<Integer> chunk : SqlChunks.chunks(taskIds)) {
+                dao.deleteByIds(chunk);
+            }
+            for (int taskId : taskIds) {
+                entries.add(outbox.entry(SyncEngine.TABLE_TASKS, OutboxEntry.OP_DELETE, taskId, null));
+            }
+            return entries;
+        });
+        success(callback, null);
+    }
+}
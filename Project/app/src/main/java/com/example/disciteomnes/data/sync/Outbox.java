@@ -0,0 +1,876 @@
+package com.example.disciteomnes.data.sync;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.example.disciteomnes.data.dto.SoftDeleteRequest;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.OutboxDao;
+import com.example.disciteomnes.data.local.OutboxEntry;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.models.StudyStep;
+import com.example.disciteomnes.data.models.SyncedRow;
+import com.example.disciteomnes.data.models.Task;
+import com.example.disciteomnes.data.repository.GroupRepository;
+import com.example.disciteomnes.network.DatabaseClient;
+import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.HttpClientProvider;
+import com.example.disciteomnes.network.PostgrestQuery;
+import com.example.disciteomnes.network.SessionManager;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+
+import retrofit2.Response;
+
+import static com.example.disciteomnes.network.DisciteOmnesApi.STUDY_PLAN_LIST_COLUMNS;
+import static com.example.disciteomnes.network.DisciteOmnesApi.STUDY_STEP_LIST_COLUMNS;
+import static com.example.disciteomnes.network.DisciteOmnesApi.TASK_LIST_COLUMNS;
+
+/**
+ * Dauerhafte Outbox für Schreiboperationen.
+ *
+ * Repositories schreiben eine Änderung sofort in die lokale Datenbank und legen in derselben
+ * Transaktion einen {@link OutboxEntry} an. Die Oberfläche sieht die Änderung also sofort –
+ * auch ohne Netz. Die Outbox spielt die Einträge danach der Reihe nach gegen Supabase ab:
+ * direkt nach dem Anlegen, beim Abgleich eines Bildschirms und sobald das Netz zurückkommt.
+ *
+ * Beim Anlegen werden Einträge für dieselbe Zeile zusammengefasst:
+ * - INSERT + UPDATE → INSERT mit geänderten Feldern
+ * - INSERT + DELETE → beide entfallen
+ * - UPDATE + UPDATE → ein UPDATE mit allen Feldern (spätere gewinnen)
+ * - UPDATE + DELETE → DELETE
+ *
+ * Beim Abspielen werden aufeinanderfolgende INSERTs derselben Tabelle als ein
+ * PostgREST-Bulk-Insert gesendet. Aufeinanderfolgende gleiche UPDATEs bzw. DELETEs
+ * (z. B. aus einer Mehrfachauswahl) gehen als ein PATCH mit {@code id=in.(...)} hinaus. Neu angelegte Zeilen tragen bis dahin eine temporäre,
+ * negative ID, die nach dem Hochladen durch die Server-ID ersetzt wird.
+ *
+ * Entprellte Einträge ({@link #submitDebounced}) tragen einen frühesten Sendezeitpunkt. Bis
+ * dahin überspringt jedes Abspielen sie (und spätere Einträge derselben Zeile), egal wer es
+ * anstößt – so fassen sich schnelle Umschaltungen auch dann zu einem PATCH zusammen, wenn
+ * zwischendurch ein Abgleich oder ein anderes {@link #submit} die Outbox abspielt.
+ *
+ * Fehlerbehandlung: Netzwerkfehler, 401, 408, 429 und 5xx → später erneut versuchen;
+ * alle anderen 4xx → Eintrag verwerfen. Scheitert ein Stapel so, werden seine Einträge einzeln
+ * nachgesendet, damit nur die tatsächlich abgelehnten Zeilen verloren gehen. Wird ein UPDATE oder DELETE verworfen, holt die
+ * Outbox die betroffenen Zeilen per ID neu vom Server und macht die lokale Änderung damit
+ * rückgängig (z. B. springt ein abgehakter Task wieder zurück).
+ */
+public class Outbox {
+
+    private static final String TAG = "Outbox";
+
+    public static final String TABLE_GROUP_MEMBERS = "group_members";
+
+    private static final String PREFS_NAME = "outbox";
+    private static final String KEY_NEXT_TEMP_ID = "next_temp_id";
+
+    // Nach so vielen Serverfehlern wird ein Eintrag aufgegeben
+    private static final int MAX_ATTEMPTS = 10;
+
+    // Höchstzahl an IDs in einem id=in.(...)-Filter, damit die URL kurz genug bleibt
+    private static final int MAX_IDS_PER_PATCH = 100;
+
+    private static volatile Outbox instance;
+
+    private final Context appContext;
+    private final AppDatabase db;
+    private final OutboxDao dao;
+    private final Executor diskIO;
+    private final Gson gson = HttpClientProvider.getGson();
+    private final SharedPreferences prefs;
+
+    // Abspielen läuft nacheinander auf einem eigenen Hintergrund-Thread (blockierende Aufrufe)
+    private final ScheduledExecutorService replayExecutor = Executors.newSingleThreadScheduledExecutor();
+    private final AtomicBoolean replayScheduled = new AtomicBoolean();
+    private ScheduledFuture<?> delayedReplay;
+
+    // Einträge, die gerade gesendet werden – in sie wird nicht mehr hineingefasst
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    private int nextTempId;
+    private boolean networkCallbackRegistered;
+
+    /**
+     * Lokale Änderung, die zusammen mit ihrem Outbox-Eintrag in einer Transaktion läuft.
+     */
+    public interface LocalWrite {
+        /**
+         * Schreibt die Änderung in die lokale Datenbank.
+         *
+         * @return der Eintrag für den Server oder null, wenn nichts gesendet werden muss
+         */
+        OutboxEntry apply();
+    }
+
+    /**
+     * Mehrere lokale Änderungen (z. B. viele neue Zeilen auf einmal), die gemeinsam mit ihren
+     * Outbox-Einträgen in einer Transaktion laufen.
+     */
+    public interface LocalBatchWrite {
+        /**
+         * Schreibt die Änderungen in die lokale Datenbank.
+         *
+         * @return die Einträge für den Server in Sendereihenfolge (leer, wenn nichts zu senden ist)
+         */
+        List<OutboxEntry> apply();
+    }
+
+    private Outbox(Context context) {
+        this.appContext = context.getApplicationContext();
+        this.db = AppDatabase.getInstance(context);
+        this.dao = db.outboxDao();
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+        this.prefs = appContext.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.nextTempId = prefs.getInt(KEY_NEXT_TEMP_ID, -1);
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return die Outbox
+     */
+    public static Outbox getInstance(Context context) {
+        if (instance == null) {
+            synchronized (Outbox.class) {
+                if (instance == null) {
+                    instance = new Outbox(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Beobachtet die Netzwerkverbindung und spielt ausstehende Einträge ab,
+     * sobald wieder ein Netz verfügbar ist. Wird einmalig beim App-Start aufgerufen.
+     */
+    public synchronized void start() {
+        if (!networkCallbackRegistered) {
+            ConnectivityManager cm = appContext.getSystemService(ConnectivityManager.class);
+            if (cm != null) {
+                cm.registerDefaultNetworkCallback(new ConnectivityManager.NetworkCallback() {
+                    @Override
+                    public void onAvailable(@NonNull Network network) {
+                        Log.d(TAG, "Netzwerk verfügbar – Outbox wird abgespielt");
+                        replay();
+                    }
+                });
+                networkCallbackRegistered = true;
+            }
+        }
+        replay();
+    }
+
+    /**
+     * Vergibt eine neue temporäre (negative) ID für eine offline angelegte Zeile.
+     * Der Zähler wird gespeichert, damit IDs auch nach einem Neustart eindeutig bleiben.
+     *
+     * @return eine noch nicht verwendete negative ID
+     */
+    public synchronized int nextTempId() {
+        int id = nextTempId--;
+        prefs.edit().putInt(KEY_NEXT_TEMP_ID, nextTempId).apply();
+        return id;
+    }
+
+    /**
+     * Führt eine lokale Änderung aus und legt den zugehörigen Outbox-Eintrag in derselben
+     * Transaktion an. Danach wird das Abspielen angestoßen.
+     *
+     * @param write die lokale Änderung
+     */
+    public void submit(LocalWrite write) {
+        diskIO.execute(() -> {
+            db.runInTransaction(() -> {
+                OutboxEntry entry = write.apply();
+                if (entry != null) {
+                    enqueue(entry);
+                }
+            });
+            replay();
+        });
+    }
+
+    /**
+     * Wie {@link #submit(LocalWrite)}, aber der Eintrag wird frühestens gesendet, wenn
+     * {@code quietMs} lang keine weitere Änderung derselben Zeile kam.
+     *
+     * Für schnell wiederholte Eingaben wie das Umschalten eines Tasks: die lokale Änderung ist
+     * sofort sichtbar, die UPDATEs derselben Zeile werden in der Zwischenzeit zusammengefasst
+     * und nur der Endstand geht als ein PATCH hinaus. Die Ruhezeit gilt für jedes Abspielen,
+     * nicht nur für das hier geplante.
+     *
+     * @param write   die lokale Änderung
+     * @param quietMs Ruhezeit in Millisekunden
+     */
+    public void submitDebounced(LocalWrite write, long quietMs) {
+        diskIO.execute(() -> {
+            db.runInTransaction(() -> {
+                OutboxEntry entry = write.apply();
+                if (entry != null) {
+                    entry.setNotBefore(System.currentTimeMillis() + quietMs);
+                    enqueue(entry);
+                }
+            });
+            // Findet drain() nur zurückgestellte Einträge, plant es sich selbst für deren Zeitpunkt
+            replay();
+        });
+    }
+
+    /**
+     * Wie {@link #submit(LocalWrite)}, aber für viele Einträge in einer Transaktion.
+     *
+     * Das Abspielen startet erst, wenn alle Einträge angelegt sind. Gleichartige INSERTs
+     * gehen dadurch zusammen als ein Bulk-Insert hinaus, statt dass der erste allein vorausläuft.
+     *
+     * @param write die lokalen Änderungen
+     */
+    public void submitAll(LocalBatchWrite write) {
+        diskIO.execute(() -> {
+            db.runInTransaction(() -> {
+                for (OutboxEntry entry : write.apply()) {
+                    enqueue(entry);
+                }
+            });
+            replay();
+        });
+    }
+
+    /**
+     * Erstellt einen Eintrag mit JSON-Body aus dem übergebenen Objekt.
+     */
+    public OutboxEntry entry(String table, String op, Object entityId, Object payload) {
+        return new OutboxEntry(table, op, String.valueOf(entityId),
+                payload == null ? null : gson.toJson(payload));
+    }
+
+    /**
+     * Stößt das Abspielen an. Mehrfache Aufrufe während eines Durchlaufs führen zu genau
+     * einem weiteren Durchlauf.
+     */
+    public void replay() {
+        if (replayScheduled.compareAndSet(false, true)) {
+            replayExecutor.execute(() -> {
+                replayScheduled.set(false);
+                drain();
+            });
+        }
+    }
+
+    /**
+     * Plant einen Durchlauf nach einer Wartezeit; ein erneuter Aufruf ersetzt ihn.
+     */
+    private synchronized void replayAfter(long quietMs) {
+        if (delayedReplay != null) {
+            delayedReplay.cancel(false);
+        }
+        delayedReplay = replayExecutor.schedule(this::replay, quietMs, TimeUnit.MILLISECONDS);
+    }
+
+    // ───────────── Zusammenfassen beim Anlegen ─────────────
+
+    /**
+     * Legt einen Eintrag an und fasst ihn mit ausstehenden Einträgen derselben Zeile zusammen.
+     * Läuft innerhalb der Transaktion von {@link #submit}.
+     */
+    private void enqueue(OutboxEntry incoming) {
+        enqueue(dao, inFlight, incoming);
+    }
+
+    /**
+     * Die Regeln zum Zusammenfassen, unabhängig von der Outbox-Instanz:
+     * - INSERT → neuer Eintrag
+     * - UPDATE → in ein ausstehendes INSERT oder UPDATE derselben Zeile übernehmen
+     * - DELETE einer nie hochgeladenen Zeile → alle ihre Einträge entfallen
+     * - DELETE nach einem UPDATE → das UPDATE entfällt
+     * Einträge, die gerade gesendet werden ({@code inFlight}), bleiben unangetastet.
+     */
+    static void enqueue(OutboxDao dao, Set<Long> inFlight, OutboxEntry incoming) {
+        if (OutboxEntry.OP_INSERT.equals(incoming.getOp())) {
+            dao.insert(incoming);
+            return;
+        }
+
+        List<OutboxEntry> pending = new ArrayList<>();
+        for (OutboxEntry e : dao.getForEntity(incoming.getTableName(), incoming.getEntityId())) {
+            if (!inFlight.contains(e.getId())) {
+                pending.add(e);
+            }
+        }
+
+        OutboxEntry insert = find(pending, OutboxEntry.OP_INSERT);
+        OutboxEntry update = find(pending, OutboxEntry.OP_UPDATE);
+
+        if (OutboxEntry.OP_UPDATE.equals(incoming.getOp())) {
+            OutboxEntry target = insert != null ? insert : update;
+            if (target != null) {
+                target.setPayload(merge(target.getPayload(), incoming.getPayload()));
+                if (target == update) {
+                    // Die letzte Änderung bestimmt die Ruhezeit; INSERTs werden nie zurückgestellt,
+                    // weil spätere Einträge (z. B. Schritte eines neuen Plans) auf sie warten
+                    target.setNotBefore(incoming.getNotBefore());
+                }
+                dao.update(target);
+                return;
+            }
+        } else if (OutboxEntry.OP_DELETE.equals(incoming.getOp())) {
+            if (insert != null) {
+                // Die Zeile hat den Server nie erreicht – nichts zu senden
+                dao.deleteAll(pending);
+                return;
+            }
+            if (update != null) {
+                dao.delete(update);
+            }
+        }
+        dao.insert(incoming);
+    }
+
+    private static OutboxEntry find(List<OutboxEntry> entries, String op) {
+        for (OutboxEntry e : entries) {
+            if (op.equals(e.getOp())) {
+                return e;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Führt zwei JSON-Objekte zusammen; Felder aus {@code later} überschreiben {@code earlier}.
+     */
+    private static String merge(String earlier, String later) {
+        JsonObject merged = earlier == null ? new JsonObject() : JsonParser.parseString(earlier).getAsJsonObject();
+        if (later != null) {
+            for (Map.Entry<String, JsonElement> field : JsonParser.parseString(later).getAsJsonObject().entrySet()) {
+                merged.add(field.getKey(), field.getValue());
+            }
+        }
+        return merged.toString();
+    }
+
+    // ───────────── Abspielen ─────────────
+
+    private enum Result { DONE, RETRY_LATER, SEND_EACH }
+
+    /**
+     * Spielt alle ausstehenden Einträge der Reihe nach ab, bis die Outbox leer ist
+     * oder ein Eintrag später erneut versucht werden muss.
+     */
+    private void drain() {
+        // Ohne Token würde jede Anfrage mit 401 scheitern
+        if (SessionManager.getInstance().getAccessToken() == null) {
+            return;
+        }
+
+        while (true) {
+            long now = System.currentTimeMillis();
+            long[] wakeUpAt = {0};
+            // Auswahl und Markierung in einer Transaktion – so kann enqueue() nicht gleichzeitig
+            // in einen Eintrag hineinfassen, der gerade gelesen wird
+            List<OutboxEntry> batch = db.runInTransaction(() -> {
+                List<OutboxEntry> all = dao.getAll();
+                List<OutboxEntry> ready = ready(all, now);
+                if (ready.isEmpty()) {
+                    wakeUpAt[0] = nextNotBefore(all, now);
+                    return ready;
+                }
+                List<OutboxEntry> next = nextBatch(ready);
+                for (OutboxEntry e : next) {
+                    inFlight.add(e.getId());
+                }
+                return next;
+            });
+            if (batch.isEmpty()) {
+                if (wakeUpAt[0] > 0) {
+                    // Nur noch zurückgestellte Einträge – wiederkommen, wenn der erste fällig ist
+                    replayAfter(wakeUpAt[0] - now);
+                }
+                return;
+            }
+
+            Result result;
+            try {
+                result = send(batch);
+                if (result == Result.SEND_EACH) {
+                    result = sendEach(batch);
+                }
+            } finally {
+                for (OutboxEntry e : batch) {
+                    inFlight.remove(e.getId());
+                }
+            }
+            if (result == Result.RETRY_LATER) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Die jetzt sendbaren Einträge in Abspielreihenfolge: ohne zurückgestellte Einträge
+     * ({@code notBefore > now}) und ohne spätere Einträge derselben Zeile, damit sich die
+     * Reihenfolge je Zeile nicht ändert.
+     */
+    static List<OutboxEntry> ready(List<OutboxEntry> all, long now) {
+        List<OutboxEntry> ready = new ArrayList<>();
+        Set<String> deferred = new HashSet<>();
+        for (OutboxEntry e : all) {
+            String row = e.getTableName() + "/" + e.getEntityId();
+            if (e.getNotBefore() > now || deferred.contains(row)) {
+                deferred.add(row);
+            } else {
+                ready.add(e);
+            }
+        }
+        return ready;
+    }
+
+    /**
+     * Frühester Sendezeitpunkt der zurückgestellten Einträge (0, wenn es keine gibt).
+     */
+    static long nextNotBefore(List<OutboxEntry> all, long now) {
+        long next = 0;
+        for (OutboxEntry e : all) {
+            if (e.getNotBefore() > now && (next == 0 || e.getNotBefore() < next)) {
+                next = e.getNotBefore();
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Bildet den nächsten Stapel:
+     * - aufeinanderfolgende INSERTs derselben Tabelle mit denselben Feldern (PostgREST verlangt
+     *   bei Bulk-Inserts identische Schlüssel)
+     * - aufeinanderfolgende UPDATEs bzw. DELETEs derselben Tabelle mit identischer Änderung
+     * - sonst ein einzelner Eintrag
+     */
+    static List<OutboxEntry> nextBatch(List<OutboxEntry> all) {
+        List<OutboxEntry> batch = new ArrayList<>();
+        OutboxEntry first = all.get(0);
+        batch.add(first);
+        if (!OutboxEntry.OP_INSERT.equals(first.getOp())) {
+            if (isBatchablePatch(first)) {
+                JsonElement change = patchOf(first);
+                for (int i = 1; i < all.size() && batch.size() < MAX_IDS_PER_PATCH; i++) {
+                    OutboxEntry next = all.get(i);
+                    if (!first.getOp().equals(next.getOp())
+                            || !first.getTableName().equals(next.getTableName())
+                            || !isBatchablePatch(next)
+                            || !change.equals(patchOf(next))) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            }
+            return batch;
+        }
+
+        Set<String> keys = keysOf(first.getPayload());
+        for (int i = 1; i < all.size(); i++) {
+            OutboxEntry next = all.get(i);
+            if (!OutboxEntry.OP_INSERT.equals(next.getOp())
+                    || !first.getTableName().equals(next.getTableName())
+                    || !keys.equals(keysOf(next.getPayload()))) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    /**
+     * UPDATE/DELETE auf eine bereits hochgeladene Zeile einer ID-Tabelle
+     * (group_members hat zusammengesetzte Schlüssel und wird nicht gesammelt).
+     */
+    private static boolean isBatchablePatch(OutboxEntry entry) {
+        return (OutboxEntry.OP_UPDATE.equals(entry.getOp()) || OutboxEntry.OP_DELETE.equals(entry.getOp()))
+                && !TABLE_GROUP_MEMBERS.equals(entry.getTableName())
+                && !isTempId(entry.getEntityId());
+    }
+
+    private static JsonElement patchOf(OutboxEntry entry) {
+        return entry.getPayload() == null ? JsonNull.INSTANCE : JsonParser.parseString(entry.getPayload());
+    }
+
+    private static Set<String> keysOf(String payload) {
+        return JsonParser.parseString(payload).getAsJsonObject().keySet();
+    }
+
+    private DisciteOmnesApi api() {
+        return DatabaseClient.getApi();
+    }
+
+    /**
+     * Sendet einen Stapel und übernimmt das Ergebnis lokal.
+     */
+    private Result send(List<OutboxEntry> batch) {
+        OutboxEntry first = batch.get(0);
+        String table = first.getTableName();
+
+        try {
+            switch (first.getOp()) {
+                case OutboxEntry.OP_INSERT: {
+                    JsonArray rows = new JsonArray();
+                    for (OutboxEntry e : batch) {
+                        rows.add(JsonParser.parseString(e.getPayload()));
+                    }
+                    if (TABLE_GROUP_MEMBERS.equals(table)) {
+                        Response<Void> response = api().insertRowsMinimal(table, rows).execute();
+                        return handle(batch, response, () -> onMembershipsInserted(batch));
+                    }
+                    Response<JsonArray> response = api().insertRows(table, rows).execute();
+                    return handle(batch, response, () -> onRowsInserted(batch, response.body()));
+                }
+                case OutboxEntry.OP_UPDATE:
+                case OutboxEntry.OP_DELETE: {
+                    if (isTempId(first.getEntityId())) {
+                        // Das zugehörige INSERT wurde verworfen – die Zeile existiert auf dem Server nicht
+                        Log.w(TAG, "Verwerfe " + first.getOp() + " für nie angelegte Zeile " + table + "/" + first.getEntityId());
+                        dao.delete(first);
+                        return Result.DONE;
+                    }
+                    JsonObject patch;
+                    if (OutboxEntry.OP_DELETE.equals(first.getOp())) {
+                        patch = gson.toJsonTree(new SoftDeleteRequest()).getAsJsonObject();
+                    } else {
+                        patch = JsonParser.parseString(first.getPayload()).getAsJsonObject();
+                    }
+                    PostgrestQuery filter = PostgrestQuery.from(table);
+                    if (batch.size() == 1) {
+                        filter.eq("id", first.getEntityId());
+                    } else {
+                        List<String> ids = new ArrayList<>();
+                        for (OutboxEntry e : batch) {
+                            ids.add(e.getEntityId());
+                        }
+                        filter.in("id", ids);
+                    }
+                    Response<Void> response = api().updateRows(table, filter.toQueryMap(), patch).execute();
+                    return handle(batch, response, () -> dao.deleteAll(batch));
+                }
+                default:
+                    Log.w(TAG, "Unbekannte Operation " + first.getOp());
+                    dao.delete(first);
+                    return Result.DONE;
+            }
+        } catch (IOException e) {
+            Log.d(TAG, "Offline – Outbox wird später abgespielt: " + e.getMessage());
+            return Result.RETRY_LATER;
+        }
+    }
+
+    /**
+     * Sendet die Einträge eines abgelehnten Stapels einzeln, bis einer später erneut versucht
+     * werden muss.
+     */
+    private Result sendEach(List<OutboxEntry> batch) {
+        for (OutboxEntry e : batch) {
+            if (send(Collections.singletonList(e)) == Result.RETRY_LATER) {
+                return Result.RETRY_LATER;
+            }
+        }
+        return Result.DONE;
+    }
+
+    /**
+     * Wertet die Antwort aus: bei Erfolg wird {@code onSuccess} in einer Transaktion ausgeführt.
+     * Lehnt der Server einen Stapel aus mehreren Einträgen dauerhaft ab, liefert sie
+     * {@link Result#SEND_EACH}, ohne etwas zu verwerfen.
+     */
+    private Result handle(List<OutboxEntry> batch, Response<?> response, Runnable onSuccess) {
+        int code = response.code();
+        if (response.isSuccessful()) {
+            db.runInTransaction(onSuccess);
+            Log.d(TAG, batch.size() + "x " + batch.get(0).getOp() + " " + batch.get(0).getTableName() + " übertragen");
+            return Result.DONE;
+        }
+
+        if (code == 401 || code == 408 || code == 429 || code >= 500) {
+            List<OutboxEntry> givenUp = new ArrayList<>();
+            db.runInTransaction(() -> {
+                Iterator<OutboxEntry> it = batch.iterator();
+                while (it.hasNext()) {
+                    OutboxEntry e = it.next();
+                    e.setAttempts(e.getAttempts() + 1);
+                    if (e.getAttempts() >= MAX_ATTEMPTS) {
+                        Log.e(TAG, "Gebe Eintrag nach " + MAX_ATTEMPTS + " Versuchen auf: " + e.getTableName() + "/" + e.getEntityId());
+                        dao.delete(e);
+                        givenUp.add(e);
+                    } else {
+                        dao.update(e);
+                    }
+                }
+            });
+            rollBack(givenUp);
+            Log.w(TAG, "HTTP " + code + " – Outbox wird später erneut abgespielt");
+            return Result.RETRY_LATER;
+        }
+
+        if (batch.size() > 1) {
+            // Ein Bulk-Insert oder PATCH scheitert als Ganzes, auch wenn nur eine Zeile ungültig ist
+            Log.w(TAG, "HTTP " + code + " für " + batch.size() + "x " + batch.get(0).getOp() + " "
+                    + batch.get(0).getTableName() + " – sende einzeln");
+            return Result.SEND_EACH;
+        }
+
+        // Dauerhafter Fehler (z. B. 400, 403, 409): Eintrag verwerfen, sonst blockiert er die Outbox
+        Log.e(TAG, "HTTP " + code + " – verwerfe " + batch.size() + "x " + batch.get(0).getOp() + " " + batch.get(0).getTableName());
+        db.runInTransaction(() -> {
+            if (OutboxEntry.OP_INSERT.equals(batch.get(0).getOp())) {
+                for (OutboxEntry e : batch) {
+                    discardTempRow(e.getTableName(), e.getEntityId());
+                }
+            }
+            dao.deleteAll(batch);
+        });
+        rollBack(batch);
+        return Result.DONE;
+    }
+
+    /**
+     * Macht verworfene UPDATEs/DELETEs lokal rückgängig: die betroffenen Zeilen werden per
+     * {@code id=in.(...)} vom Server gelesen und über die Delta-Logik übernommen. Zeilen, die
+     * der Server nicht (mehr) kennt, werden lokal entfernt. Zeilen mit weiteren ausstehenden
+     * Einträgen bleiben unangetastet – ihr neuerer lokaler Stand wird noch gesendet.
+     *
+     * Läuft auf dem Outbox-Thread; schlägt das Lesen fehl, stellt der nächste Abgleich den
+     * Serverstand her.
+     */
+    private void rollBack(List<OutboxEntry> discarded) {
+        if (discarded.isEmpty() || OutboxEntry.OP_INSERT.equals(discarded.get(0).getOp())) {
+            return;
+        }
+        String table = discarded.get(0).getTableName();
+        List<Integer> ids = new ArrayList<>();
+        for (OutboxEntry e : discarded) {
+            if (!isTempId(e.getEntityId()) && !TABLE_GROUP_MEMBERS.equals(table)) {
+                ids.add(Integer.parseInt(e.getEntityId()));
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        try {
+            switch (table) {
+                case SyncEngine.TABLE_TASKS: {
+                    PostgrestQuery query = PostgrestQuery.from(table).select(TASK_LIST_COLUMNS).in("id", ids);
+                    Response<List<Task>> response = api().getTasks(query.toQueryMap(), query.headers()).execute();
+                    if (response.isSuccessful() && response.body() != null) {
+                        String userId = SessionManager.getInstance().getUserId();
+                        db.runInTransaction(() -> {
+                            Set<Integer> pending = pendingIds(table);
+                            removeMissing(ids, response.body(), pending, db.taskDao()::deleteById);
+                            db.taskDao().applyDelta(userId, response.body(), pending);
+                        });
+                    }
+                    break;
+                }
+                case SyncEngine.TABLE_STUDY_PLANS: {
+                    PostgrestQuery query = PostgrestQuery.from(table).select(STUDY_PLAN_LIST_COLUMNS).in("id", ids);
+                    Response<List<StudyPlan>> response = api().getStudyPlans(query.toQueryMap()).execute();
+                    if (response.isSuccessful() && response.body() != null) {
+                        db.runInTransaction(() -> {
+                            Set<Integer> pending = pendingIds(table);
+                            removeMissing(ids, response.body(), pending, db.studyPlanDao()::deleteById);
+                            db.studyPlanDao().applyDelta(response.body(), pending);
+                        });
+                    }
+                    break;
+                }
+                case SyncEngine.TABLE_STUDY_STEPS: {
+                    PostgrestQuery query = PostgrestQuery.from(table).select(STUDY_STEP_LIST_COLUMNS).in("id", ids);
+                    Response<List<StudyStep>> response = api().getStudySteps(query.toQueryMap(), query.headers()).execute();
+                    if (response.isSuccessful() && response.body() != null) {
+                        db.runInTransaction(() -> {
+                            Set<Integer> pending = pendingIds(table);
+                            removeMissing(ids, response.body(), pending, db.studyStepDao()::deleteById);
+                            db.studyStepDao().applyDelta(response.body(), pending);
+                        });
+                    }
+                    break;
+                }
+                default:
+                    return;
+            }
+            Log.d(TAG, "Lokale Änderung zurückgenommen: " + table + " " + ids);
+        } catch (IOException e) {
+            Log.w(TAG, "Zurücknehmen fehlgeschlagen, der nächste Abgleich korrigiert: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Löscht lokal alle angefragten Zeilen, die der Server nicht zurückgeliefert hat.
+     */
+    private static void removeMissing(List<Integer> requested, List<? extends SyncedRow> returned,
+                                      Set<Integer> pending, IntConsumer delete) {
+        Set<Integer> found = new HashSet<>();
+        for (SyncedRow row : returned) {
+            found.add(row.getId());
+        }
+        for (int id : requested) {
+            if (!found.contains(id) && !pending.contains(id)) {
+                delete.accept(id);
+            }
+        }
+    }
+
+    /**
+     * IDs einer Tabelle, für die noch Einträge ausstehen.
+     */
+    private Set<Integer> pendingIds(String table) {
+        Set<Integer> ids = new HashSet<>();
+        for (String entityId : dao.getPendingEntityIds(table)) {
+            if (!isTempId(entityId) && !TABLE_GROUP_MEMBERS.equals(table)) {
+                ids.add(Integer.parseInt(entityId));
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Entfernt eine nie hochgeladene temporäre Zeile wieder aus der lokalen Datenbank.
+     */
+    private void discardTempRow(String table, String entityId) {
+        if (!isTempId(entityId)) {
+            return;
+        }
+        int tempId = Integer.parseInt(entityId);
+        switch (table) {
+            case SyncEngine.TABLE_TASKS:
+                db.taskDao().deleteById(tempId);
+                break;
+            case SyncEngine.TABLE_STUDY_PLANS:
+                db.studyPlanDao().deleteById(tempId);
+                break;
+            case SyncEngine.TABLE_STUDY_STEPS:
+                db.studyStepDao().deleteById(tempId);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static boolean isTempId(String entityId) {
+        return entityId.startsWith("-");
+    }
+
+    /**
+     * Ersetzt die temporären Zeilen durch die vom Server gelieferten (gleiche Reihenfolge)
+     * und hängt ausstehende Einträge auf die neuen IDs um.
+     */
+    private void onRowsInserted(List<OutboxEntry> batch, JsonArray saved) {
+        String table = batch.get(0).getTableName();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxEntry entry = batch.get(i);
+            int tempId = Integer.parseInt(entry.getEntityId());
+            JsonElement row = saved != null && i < saved.size() ? saved.get(i) : null;
+
+            if (row != null) {
+                int realId = replaceTempRow(table, tempId, row);
+                dao.remapEntityId(table, String.valueOf(tempId), String.valueOf(realId));
+                if (SyncEngine.TABLE_STUDY_PLANS.equals(table)) {
+                    remapPlanId(tempId, realId);
+                }
+            }
+            dao.delete(entry);
+        }
+    }
+
+    /**
+     * Tauscht eine temporäre lokale Zeile gegen die Serverzeile. Wurde die Zeile inzwischen
+     * lokal gelöscht, wird sie nicht wiederhergestellt (das DELETE folgt in der Outbox).
+     *
+     * @return die Server-ID
+     */
+    private int replaceTempRow(String table, int tempId, JsonElement row) {
+        switch (table) {
+            case SyncEngine.TABLE_TASKS: {
+                Task saved = gson.fromJson(row, Task.class);
+                Task local = db.taskDao().getById(tempId);
+                if (local != null) {
+                    // Lokal inzwischen geänderten Status behalten – das UPDATE folgt
+                    saved.setCompleted(local.isCompleted());
+                    saved.setUser_id(local.getUser_id());
+                    db.taskDao().deleteById(tempId);
+                    db.taskDao().upsert(saved);
+                }
+                return saved.getId();
+            }
+            case SyncEngine.TABLE_STUDY_PLANS: {
+                StudyPlan saved = gson.fromJson(row, StudyPlan.class);
+                if (db.studyPlanDao().getById(tempId) != null) {
+                    db.studyPlanDao().deleteById(tempId);
+                    db.studyPlanDao().upsert(saved);
+                }
+                return saved.getId();
+            }
+            case SyncEngine.TABLE_STUDY_STEPS: {
+                StudyStep saved = gson.fromJson(row, StudyStep.class);
+                if (db.studyStepDao().getById(tempId) != null) {
+                    db.studyStepDao().deleteById(tempId);
+                    db.studyStepDao().upsert(saved);
+                }
+                return saved.getId();
+            }
+            default:
+                return row.getAsJsonObject().get("id").getAsInt();
+        }
+    }
+
+    /**
+     * Hängt Schritte eines offline angelegten Plans (lokal und in der Outbox) an die Server-ID um.
+     */
+    private void remapPlanId(int tempPlanId, int realPlanId) {
+        db.studyStepDao().remapPlanId(tempPlanId, realPlanId);
+        for (OutboxEntry e : dao.getAll()) {
+            if (!SyncEngine.TABLE_STUDY_STEPS.equals(e.getTableName()) || e.getPayload() == null) {
+                continue;
+            }
+            JsonObject payload = JsonParser.parseString(e.getPayload()).getAsJsonObject();
+            if (payload.has("plan_id") && payload.get("plan_id").getAsInt() == tempPlanId) {
+                payload.addProperty("plan_id", realPlanId);
+                e.setPayload(payload.toString());
+                dao.update(e);
+            }
+        }
+    }
+
+    /**
+     * Nach einem Gruppenbeitritt die Gruppenliste nachladen (Name und ID der Gruppe).
+     */
+    private void onMembershipsInserted(List<OutboxEntry> batch) {
+        dao.deleteAll(batch);
+        String userId = JsonParser.parseString(batch.get(0).getPayload())
+                .getAsJsonObject().get("user_id").getAsString();
+        GroupRepository.getInstance(appContext).refresh(userId, null);
+    }
+}
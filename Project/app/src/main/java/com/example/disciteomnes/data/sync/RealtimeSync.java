@@ -0,0 +1,207 @@
+package com.example.disciteomnes.data.sync;
+
+import android.content.Context;
+
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.OutboxDao;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.models.StudyStep;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.HttpClientProvider;
+import com.example.disciteomnes.network.LatestWins;
+import com.example.disciteomnes.network.RealtimeClient;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Überträgt Realtime-Ereignisse von Supabase in die lokale Datenbank.
+ *
+ * Bildschirme abonnieren die Lernpläne einer Gruppe bzw. die Schritte eines Plans, solange
+ * sie sichtbar sind. Änderungen anderer Gruppenmitglieder landen so ohne Neuladen in Room
+ * und erscheinen über die beobachteten LiveData-Listen. Nach jedem (Wieder-)Beitritt holt
+ * ein Delta-Sync nach, was während einer Unterbrechung verpasst wurde.
+ */
+public class RealtimeSync {
+
+    private static volatile RealtimeSync instance;
+
+    private final AppDatabase db;
+    private final OutboxDao outboxDao;
+    private final Executor diskIO;
+    private final SyncEngine syncEngine;
+    private final RealtimeClient realtime;
+    private final Gson gson = HttpClientProvider.getGson();
+
+    private RealtimeSync(Context context) {
+        this.db = AppDatabase.getInstance(context);
+        this.outboxDao = db.outboxDao();
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+        this.syncEngine = SyncEngine.getInstance(context);
+        this.realtime = RealtimeClient.getInstance();
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return die RealtimeSync
+     */
+    public static RealtimeSync getInstance(Context context) {
+        if (instance == null) {
+            synchronized (RealtimeSync.class) {
+                if (instance == null) {
+                    instance = new RealtimeSync(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Abonniert alle Änderungen an den Lernplänen einer Gruppe.
+     *
+     * @param groupId ID der Gruppe
+     * @return Handle zum Beenden (z. B. in onStop)
+     */
+    public RealtimeClient.Subscription watchStudyPlans(String groupId) {
+        return realtime.subscribe(SyncEngine.TABLE_STUDY_PLANS, "group_id=eq." + groupId,
+                new RealtimeClient.Listener() {
+                    @Override
+                    public void onSubscribed() {
+                        syncEngine.syncStudyPlans(groupId, null);
+                    }
+
+                    @Override
+                    public void onChange(String type, JsonObject record, JsonObject oldRecord) {
+                        applyPlanChange(type, record, oldRecord);
+                    }
+                });
+    }
+
+    /**
+     * Abonniert die Lernpläne mehrerer Gruppen mit einem einzigen Channel
+     * ({@code group_id=in.(...)}), z. B. aller Gruppen des Benutzers. Ein Wechsel der
+     * angezeigten Gruppe braucht so weder ein neues Abo noch einen neuen Abgleich.
+     *
+     * Nach dem (Wieder-)Beitritt holt {@link SyncEngine#catchUpStudyPlans(List, LatestWins)}
+     * das Verpasste nach – über die Spur des Aufrufers und ohne Gruppen, die gerade erst
+     * abgeglichen wurden.
+     *
+     * @param groupIds IDs der Gruppen (mindestens eine)
+     * @param catchUp  Spur für das Nachholen (z. B. {@link CallRegistry#lane()})
+     * @return Handle zum Beenden (z. B. in onStop)
+     */
+    public RealtimeClient.Subscription watchStudyPlans(List<String> groupIds, LatestWins catchUp) {
+        List<String> groups = new ArrayList<>(groupIds);
+        return realtime.subscribe(SyncEngine.TABLE_STUDY_PLANS, "group_id=in.(" + String.join(",", groups) + ")",
+                new RealtimeClient.Listener() {
+                    @Override
+                    public void onSubscribed() {
+                        syncEngine.catchUpStudyPlans(groups, catchUp);
+                    }
+
+                    @Override
+                    public void onChange(String type, JsonObject record, JsonObject oldRecord) {
+                        applyPlanChange(type, record, oldRecord);
+                    }
+                });
+    }
+
+    /**
+     * Übernimmt ein Realtime-Ereignis der Tabelle study_plans in die lokale Datenbank.
+     */
+    private void applyPlanChange(String type, JsonObject record, JsonObject oldRecord) {
+        applyChange(type, record, oldRecord, SyncEngine.TABLE_STUDY_PLANS, StudyPlan.class,
+                StudyPlan::getId, StudyPlan::isDeleted,
+                db.studyPlanDao()::deleteById, db.studyPlanDao()::upsert);
+    }
+
+    /**
+     * Übernimmt ein Realtime-Ereignis der Tabelle study_steps in die lokale Datenbank.
+     */
+    private void applyStepChange(String type, JsonObject record, JsonObject oldRecord) {
+        applyChange(type, record, oldRecord, SyncEngine.TABLE_STUDY_STEPS, StudyStep.class,
+                StudyStep::getId, StudyStep::isDeleted,
+                db.studyStepDao()::deleteById, db.studyStepDao()::upsert);
+    }
+
+    /**
+     * Übernimmt ein Realtime-Ereignis in eine lokale Tabelle (in einer Transaktion auf dem
+     * Disk-Executor): DELETE und Tombstones löschen die Zeile, alle anderen Ereignisse fügen
+     * sie ein bzw. überschreiben sie. Zeilen mit ausstehenden Outbox-Änderungen bleiben unberührt.
+     *
+     * @param table      Tabellenname, wie er in der Outbox steht
+     * @param entity     Modellklasse der Zeile
+     * @param deleteById Löschen der lokalen Zeile per ID
+     * @param upsert     Einfügen bzw. Überschreiben der lokalen Zeile
+     */
+    private <T> void applyChange(String type, JsonObject record, JsonObject oldRecord,
+                                 String table, Class<T> entity,
+                                 ToIntFunction<T> getId, Predicate<T> isDeleted,
+                                 IntConsumer deleteById, Consumer<T> upsert) {
+        diskIO.execute(() -> db.runInTransaction(() -> {
+            if ("DELETE".equals(type)) {
+                Integer id = idOf(oldRecord);
+                if (id != null && !isPending(table, id)) {
+                    deleteById.accept(id);
+                }
+                return;
+            }
+            T row = gson.fromJson(record, entity);
+            int id = getId.applyAsInt(row);
+            if (isPending(table, id)) {
+                return;
+            }
+            if (isDeleted.test(row)) {
+                deleteById.accept(id);
+            } else {
+                upsert.accept(row);
+            }
+        }));
+    }
+
+    /**
+     * Abonniert alle Änderungen an den Lernschritten eines Plans.
+     *
+     * @param planId ID des Lernplans
+     * @return Handle zum Beenden (z. B. in onStop) oder null für noch nicht hochgeladene Pläne
+     */
+    public RealtimeClient.Subscription watchStudySteps(int planId) {
+        if (planId < 0) {
+            return null;
+        }
+        return realtime.subscribe(SyncEngine.TABLE_STUDY_STEPS, "plan_id=eq." + planId,
+                new RealtimeClient.Listener() {
+                    @Override
+                    public void onSubscribed() {
+                        syncEngine.syncStudySteps(planId, null);
+                    }
+
+                    @Override
+                    public void onChange(String type, JsonObject record, JsonObject oldRecord) {
+                        applyStepChange(type, record, oldRecord);
+                    }
+                });
+    }
+
+    /**
+     * Lokale, noch nicht hochgeladene Änderungen haben Vorrang vor Serverereignissen.
+     */
+    private boolean isPending(String table, int id) {
+        return !outboxDao.getForEntity(table, String.valueOf(id)).isEmpty();
+    }
+
+    private static Integer idOf(JsonObject record) {
+        JsonElement id = record.get("id");
+        return id == null || id.isJsonNull() ? null : id.getAsInt();
+    }
+}
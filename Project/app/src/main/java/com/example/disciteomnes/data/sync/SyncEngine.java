@@ -0,0 +1,702 @@
+package com.example.disciteomnes.data.sync;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.local.OutboxDao;
+import com.example.disciteomnes.data.local.SyncState;
+import com.example.disciteomnes.data.local.SyncStateDao;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.models.StudyStep;
+import com.example.disciteomnes.data.models.SyncedRow;
+import com.example.disciteomnes.data.models.Task;
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+import com.example.disciteomnes.network.DatabaseClient;
+import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.LatestWins;
+import com.example.disciteomnes.network.PostgrestQuery;
+import com.example.disciteomnes.network.SingleFlight;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static com.example.disciteomnes.data.repository.RepositoryCallback.error;
+import static com.example.disciteomnes.data.repository.RepositoryCallback.success;
+import static com.example.disciteomnes.network.DisciteOmnesApi.STUDY_PLAN_LIST_COLUMNS;
+import static com.example.disciteomnes.network.DisciteOmnesApi.STUDY_PLAN_WITH_STEPS_COLUMNS;
+import static com.example.disciteomnes.network.DisciteOmnesApi.STUDY_STEP_LIST_COLUMNS;
+import static com.example.disciteomnes.network.DisciteOmnesApi.TASK_LIST_COLUMNS;
+
+/**
+ * Inkrementeller Abgleich (Delta-Sync) zwischen Supabase und der lokalen Datenbank.
+ *
+ * Je Tabelle und Bereich (Benutzer, Gruppe oder Plan) wird das größte bekannte
+ * {@code updated_at} als Hochwassermarke gespeichert. Folgeabfragen holen nur Zeilen mit
+ * {@code updated_at >= Marke}; Tombstones ({@code deleted = true}) werden lokal gelöscht.
+ *
+ * - Ohne Marke (erster Abgleich, nach Logout oder Datenbank-Update) wird der Bereich
+ *   vollständig geladen (ohne Tombstones, die der Server nie entfernt) und lokal ersetzt.
+ *   Aufgaben und Lernschritte werden dabei in Seiten zu {@link #PAGE_SIZE} Zeilen geholt
+ *   (Keyset-Paging nach id), sodass die erste Seite sofort angezeigt wird, egal wie viele
+ *   Zeilen es insgesamt sind. Lernpläne kommen in Seiten zu {@link #PLAN_PAGE_SIZE} samt
+ *   eingebetteter Schritte, damit ein geöffneter Plan sofort aus der lokalen Datenbank
+ *   angezeigt wird.
+ * - Mit Marke werden die geänderten Zeilen nur zusammengeführt.
+ *
+ * Zeilen mit noch nicht hochgeladenen Änderungen in der {@link Outbox} werden nicht mit
+ * dem (älteren) Serverstand überschrieben.
+ *
+ * Der Vergleich ist bewusst "größer gleich": Zeilen mit exakt demselben Zeitstempel wie die
+ * Marke werden erneut geliefert, statt bei gleichzeitigen Änderungen verloren zu gehen.
+ */
+public class SyncEngine {
+
+    private static final String TAG = "SyncEngine";
+
+    public static final String TABLE_TASKS       = "tasks";
+    public static final String TABLE_STUDY_PLANS = "study_plans";
+    public static final String TABLE_STUDY_STEPS = "study_steps";
+
+    // Seitengröße beim ersten Abgleich großer Bereiche (Aufgaben, Lernschritte)
+    static final int PAGE_SIZE = 200;
+
+    // Pläne bringen ihre Schritte mit – kleinere Seiten, damit die erste schnell ankommt
+    static final int PLAN_PAGE_SIZE = 50;
+
+    // So lange nach einem gemeinsamen Planabgleich überspringt das Realtime-Nachholen die Gruppen
+    static final long CATCH_UP_SKIP_MS = 10_000;
+
+    private static volatile SyncEngine instance;
+
+    private final AppDatabase db;
+    private final SyncStateDao syncStateDao;
+    private final OutboxDao outboxDao;
+    private final Outbox outbox;
+    private final Executor diskIO;
+
+    // Gruppe → Start (elapsedRealtime) des letzten gemeinsamen Planabgleichs
+    private final Map<String, Long> plansSyncStartedAt = new ConcurrentHashMap<>();
+
+    /**
+     * Erzeugt die Delta-Abfrage für einen Bereich.
+     */
+    interface DeltaCall<T> {
+        /**
+         * @param watermark bisherige Hochwassermarke oder null für einen vollständigen Abgleich
+         */
+        Call<List<T>> create(String watermark);
+    }
+
+    /**
+     * Schreibt das Ergebnis einer Delta-Abfrage in die lokale Datenbank.
+     */
+    interface Merger<T> {
+        /**
+         * @param fullSync true beim ersten Abgleich (Bereich komplett ersetzen, ohne Tombstones)
+         * @param rows     die empfangenen Zeilen
+         * @param pending  IDs mit ausstehenden Outbox-Änderungen
+         */
+        void merge(boolean fullSync, List<T> rows, Set<Integer> pending);
+    }
+
+    /**
+     * Erster Abgleich eines großen Bereichs in Seiten (Keyset-Paging nach id).
+     * Jede Seite wird sofort lokal übernommen, damit die Liste nicht auf den Rest warten muss.
+     */
+    interface PagedFetch<T> {
+        /**
+         * @param afterId    größte id der vorherigen Seite (erste Seite: 0)
+         * @param countTotal true, wenn der Server die geschätzte Gesamtzahl mitliefern soll
+         */
+        Call<List<T>> create(int afterId, boolean countTotal);
+
+        /**
+         * Übernimmt eine Seite und entfernt lokale Zeilen im id-Bereich (afterId, upToId],
+         * die auf dem Server fehlen.
+         */
+        void apply(List<T> page, int afterId, int upToId, Set<Integer> pending);
+
+        /**
+         * @return Zeilen je Seite; eine kürzere Seite ist die letzte
+         */
+        default int pageSize() {
+            return PAGE_SIZE;
+        }
+    }
+
+    private SyncEngine(Context context) {
+        this.db = AppDatabase.getInstance(context);
+        this.syncStateDao = db.syncStateDao();
+        this.outboxDao = db.outboxDao();
+        this.outbox = Outbox.getInstance(context);
+        this.diskIO = AppDatabase.databaseWriteExecutor;
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @param context beliebiger Context
+     * @return die SyncEngine
+     */
+    public static SyncEngine getInstance(Context context) {
+        if (instance == null) {
+            synchronized (SyncEngine.class) {
+                if (instance == null) {
+                    instance = new SyncEngine(context);
+                }
+            }
+        }
+        return instance;
+    }
+
+    private DisciteOmnesApi api() {
+        return DatabaseClient.getApi();
+    }
+
+    /**
+     * Gleicht die Aufgaben eines Benutzers ab.
+     *
+     * @param userId   ID des Benutzers
+     * @param callback Rückmeldung (optional)
+     */
+    public void syncTasks(String userId, RepositoryCallback<Void> callback) {
+        sync(TABLE_TASKS, userId,
+                watermark -> {
+                    PostgrestQuery query = delta(TABLE_TASKS, "user_id", userId, TASK_LIST_COLUMNS, watermark);
+                    return api().getTasks(query.toQueryMap(), query.headers());
+                },
+                (full, rows, pending) -> db.taskDao().applyDelta(userId, rows, pending),
+                new PagedFetch<Task>() {
+                    @Override
+                    public Call<List<Task>> create(int afterId, boolean countTotal) {
+                        PostgrestQuery query = page(TABLE_TASKS, "user_id", userId, TASK_LIST_COLUMNS, afterId, countTotal);
+                        return api().getTasks(query.toQueryMap(), query.headers());
+                    }
+
+                    @Override
+                    public void apply(List<Task> page, int afterId, int upToId, Set<Integer> pending) {
+                        db.taskDao().applyPage(userId, page, afterId, upToId, pending);
+                    }
+                },
+                callback);
+    }
+
+    /**
+     * Gleicht die Lernpläne einer Gruppe ab.
+     *
+     * Beim ersten Abgleich werden die Pläne seitenweise mit ihren Lernschritten geladen
+     * ({@code select=...,study_steps(...)}); die Schritte jedes Plans werden lokal ersetzt und
+     * erhalten ihre eigene Hochwassermarke. Später holt {@link #syncStudySteps(int, RepositoryCallback)}
+     * je Plan nur noch das Delta.
+     *
+     * @param groupId  ID der Gruppe
+     * @param callback Rückmeldung (optional)
+     */
+    public void syncStudyPlans(String groupId, RepositoryCallback<Void> callback) {
+        sync(TABLE_STUDY_PLANS, groupId,
+                watermark -> api().getStudyPlans(
+                        delta(TABLE_STUDY_PLANS, "group_id", groupId, STUDY_PLAN_LIST_COLUMNS, watermark).toQueryMap()),
+                (full, rows, pending) -> {
+                    if (full) {
+                        db.studyPlanDao().replaceForGroup(groupId, rows, pending);
+                    } else {
+                        db.studyPlanDao().applyDelta(rows, pending);
+                    }
+                },
+                plansWithSteps(Collections.singletonList(groupId)),
+                callback);
+    }
+
+    /**
+     * Gleicht die Lernpläne mehrerer Gruppen (z. B. aller Gruppen des Benutzers) mit
+     * {@code group_id=in.(...)} ab, statt eine Abfrage je Gruppe zu stellen.
+     *
+     * Gruppen ohne Marke werden gemeinsam seitenweise samt Lernschritten geladen, alle übrigen
+     * mit einem gemeinsamen Delta ab der kleinsten Marke – zusammen höchstens zwei Abfragen.
+     * Die Hochwassermarken bleiben je Gruppe gespeichert, sodass der Abgleich einer einzelnen
+     * Gruppe (z. B. nach einem Realtime-Beitritt) weiterhin nur ihr Delta holt.
+     *
+     * @param groupIds IDs der Gruppen
+     * @param callback Rückmeldung (optional)
+     */
+    public void syncStudyPlans(List<String> groupIds, RepositoryCallback<Void> callback) {
+        syncStudyPlans(groupIds, null, callback);
+    }
+
+    /**
+     * Holt nach einem Realtime-Beitritt nach, was seit dem letzten Abgleich verpasst wurde.
+     *
+     * Gruppen, deren gemeinsamer Abgleich ({@link #syncStudyPlans(List, RepositoryCallback)})
+     * vor weniger als {@link #CATCH_UP_SKIP_MS} gestartet wurde, werden übersprungen – der
+     * Bildschirm hat sie beim Öffnen gerade erst geladen. Der Rest läuft über die Spur des
+     * Aufrufers: Ein neuer Beitritt bricht ein noch laufendes Nachholen ab.
+     *
+     * @param groupIds IDs der abonnierten Gruppen
+     * @param lane     Spur des Aufrufers (z. B. eines Bildschirms)
+     */
+    public void catchUpStudyPlans(List<String> groupIds, LatestWins lane) {
+        long now = SystemClock.elapsedRealtime();
+        List<String> stale = new ArrayList<>();
+        for (String groupId : groupIds) {
+            Long startedAt = plansSyncStartedAt.get(groupId);
+            if (startedAt == null || now - startedAt > CATCH_UP_SKIP_MS) {
+                stale.add(groupId);
+            }
+        }
+        Log.d(TAG, TABLE_STUDY_PLANS + " catch-up: " + stale.size() + "/" + groupIds.size() + " groups");
+        syncStudyPlans(stale, lane, null);
+    }
+
+    /**
+     * Gemeinsamer Abgleich mehrerer Gruppen; alle Abfragen laufen über {@code lane}, falls gesetzt.
+     */
+    private void syncStudyPlans(List<String> groupIds, LatestWins lane, RepositoryCallback<Void> callback) {
+        if (groupIds.isEmpty()) {
+            success(callback, null);
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        for (String groupId : groupIds) {
+            plansSyncStartedAt.put(groupId, now);
+        }
+        RepositoryCallback<Void> done = new RepositoryCallback<Void>() {
+            @Override
+            public void onSuccess(Void result) {
+                success(callback, null);
+            }
+
+            @Override
+            public void onError(String message) {
+                // Nicht abgedeckt – das nächste Nachholen darf diese Gruppen nicht überspringen
+                for (String groupId : groupIds) {
+                    plansSyncStartedAt.remove(groupId, now);
+                }
+                error(callback, message);
+            }
+        };
+        outbox.replay();
+
+        diskIO.execute(() -> {
+            List<String> cold = new ArrayList<>();
+            // Sortiert, damit die in.()-Liste und damit der SingleFlight-Schlüssel stabil sind
+            Map<String, String> watermarks = new TreeMap<>();
+            for (String groupId : groupIds) {
+                String watermark = syncStateDao.getWatermark(TABLE_STUDY_PLANS, groupId);
+                if (watermark == null) {
+                    cold.add(groupId);
+                } else {
+                    watermarks.put(groupId, watermark);
+                }
+            }
+
+            if (cold.isEmpty()) {
+                syncPlanDeltas(watermarks, lane, done);
+                return;
+            }
+
+            // Erst die Gruppen ohne Marke vollständig, danach das Delta der übrigen
+            RepositoryCallback<Void> next = watermarks.isEmpty() ? done : new RepositoryCallback<Void>() {
+                @Override
+                public void onSuccess(Void result) {
+                    syncPlanDeltas(watermarks, lane, done);
+                }
+
+                @Override
+                public void onError(String message) {
+                    done.onError(message);
+                }
+            };
+            Collections.sort(cold);
+            syncPage(TABLE_STUDY_PLANS, cold, plansWithSteps(cold), 0, null, null, lane, next);
+        });
+    }
+
+    /**
+     * Erster Abgleich der Lernpläne einer oder mehrerer Gruppen: Seiten zu {@link #PLAN_PAGE_SIZE}
+     * Plänen samt eingebetteter Lernschritte.
+     */
+    private PagedFetch<StudyPlan> plansWithSteps(List<String> groupIds) {
+        return new PagedFetch<StudyPlan>() {
+            @Override
+            public Call<List<StudyPlan>> create(int afterId, boolean countTotal) {
+                PostgrestQuery query = PostgrestQuery.from(TABLE_STUDY_PLANS)
+                        .select(STUDY_PLAN_WITH_STEPS_COLUMNS)
+                        .eq("deleted", false)
+                        // Filter auf die eingebetteten Schritte (PostgREST: tabelle.spalte)
+                        .eq("study_steps.deleted", false)
+                        .gt("id", afterId)
+                        .order("id", true)
+                        .limit(PLAN_PAGE_SIZE);
+                if (groupIds.size() == 1) {
+                    query.eq("group_id", groupIds.get(0));
+                } else {
+                    query.in("group_id", groupIds);
+                }
+                if (countTotal) {
+                    query.countEstimated();
+                }
+                return api().getStudyPlansWithSteps(query.toQueryMap(), query.headers());
+            }
+
+            @Override
+            public void apply(List<StudyPlan> page, int afterId, int upToId, Set<Integer> pending) {
+                db.studyPlanDao().applyPage(groupIds, page, afterId, upToId, pending);
+                applyEmbeddedSteps(page);
+            }
+
+            @Override
+            public int pageSize() {
+                return PLAN_PAGE_SIZE;
+            }
+        };
+    }
+
+    /**
+     * Ein gemeinsames Delta der Lernpläne mehrerer Gruppen ab der kleinsten Marke.
+     * Die Abfrage deckt danach jede dieser Gruppen bis zum größten gelieferten updated_at ab;
+     * auf diesen Wert wird die Marke jeder Gruppe angehoben.
+     *
+     * @param watermarks Gruppe → bisherige Hochwassermarke
+     */
+    private void syncPlanDeltas(Map<String, String> watermarks, LatestWins lane, RepositoryCallback<Void> callback) {
+        String since = Collections.min(watermarks.values());
+        PostgrestQuery query = PostgrestQuery.from(TABLE_STUDY_PLANS)
+                .select(STUDY_PLAN_LIST_COLUMNS)
+                .in("group_id", watermarks.keySet())
+                .order("updated_at", true)
+                .gte("updated_at", since);
+
+        enqueue(lane, api().getStudyPlans(query.toQueryMap()), new Callback<List<StudyPlan>>() {
+            @Override
+            public void onResponse(Call<List<StudyPlan>> call, Response<List<StudyPlan>> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    error(callback, "Abgleich fehlgeschlagen: HTTP " + response.code());
+                    return;
+                }
+                List<StudyPlan> rows = response.body();
+                Log.d(TAG, TABLE_STUDY_PLANS + "/" + watermarks.keySet() + " delta: " + rows.size() + " rows");
+
+                diskIO.execute(() -> db.runInTransaction(() -> {
+                    db.studyPlanDao().applyDelta(rows, pendingIds(TABLE_STUDY_PLANS));
+
+                    String newest = maxUpdatedAt(rows, since);
+                    for (Map.Entry<String, String> entry : watermarks.entrySet()) {
+                        if (newest.compareTo(entry.getValue()) > 0) {
+                            syncStateDao.upsert(new SyncState(TABLE_STUDY_PLANS, entry.getKey(), newest));
+                        }
+                    }
+                }));
+                success(callback, null);
+            }
+
+            @Override
+            public void onFailure(Call<List<StudyPlan>> call, Throwable t) {
+                error(callback, "Netzwerkfehler: " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Übernimmt die mit einer Planseite eingebetteten Lernschritte (innerhalb der Transaktion
+     * der Seite): Schritte je Plan ersetzen und dessen Marke setzen.
+     */
+    private void applyEmbeddedSteps(List<StudyPlan> plans) {
+        Set<Integer> pending = pendingIds(TABLE_STUDY_STEPS);
+        for (StudyPlan plan : plans) {
+            List<StudyStep> steps = plan.getSteps();
+            if (steps == null) {
+                continue;
+            }
+            db.studyStepDao().replaceForPlan(plan.getId(), withoutTombstones(steps), pending);
+
+            String watermark = maxUpdatedAt(steps, null);
+            if (watermark != null) {
+                syncStateDao.upsert(new SyncState(TABLE_STUDY_STEPS, String.valueOf(plan.getId()), watermark));
+            }
+        }
+    }
+
+    /**
+     * Gleicht die Lernschritte eines Plans ab.
+     *
+     * @param planId   ID des Lernplans
+     * @param callback Rückmeldung (optional)
+     */
+    public void syncStudySteps(int planId, RepositoryCallback<Void> callback) {
+        if (planId < 0) {
+            // Offline angelegter Plan – auf dem Server gibt es noch keine Schritte
+            success(callback, null);
+            return;
+        }
+        sync(TABLE_STUDY_STEPS, String.valueOf(planId),
+                watermark -> {
+                    PostgrestQuery query = delta(TABLE_STUDY_STEPS, "plan_id", planId, STUDY_STEP_LIST_COLUMNS, watermark);
+                    return api().getStudySteps(query.toQueryMap(), query.headers());
+                },
+                (full, rows, pending) -> db.studyStepDao().applyDelta(rows, pending),
+                new PagedFetch<StudyStep>() {
+                    @Override
+                    public Call<List<StudyStep>> create(int afterId, boolean countTotal) {
+                        PostgrestQuery query = page(TABLE_STUDY_STEPS, "plan_id", planId, STUDY_STEP_LIST_COLUMNS, afterId, countTotal);
+                        return api().getStudySteps(query.toQueryMap(), query.headers());
+                    }
+
+                    @Override
+                    public void apply(List<StudyStep> page, int afterId, int upToId, Set<Integer> pending) {
+                        db.studyStepDao().applyPage(planId, page, afterId, upToId, pending);
+                    }
+                },
+                callback);
+    }
+
+    /**
+     * Delta-Abfrage eines Bereichs: geänderte Zeilen seit der Marke, aufsteigend nach updated_at.
+     *
+     * @param watermark Hochwassermarke oder null für alle Zeilen des Bereichs
+     */
+    private static PostgrestQuery delta(String table, String scopeColumn, Object scope,
+                                        String columns, String watermark) {
+        PostgrestQuery query = PostgrestQuery.from(table)
+                .select(columns)
+                .eq(scopeColumn, scope)
+                .order("updated_at", true);
+        // Nur das Delta braucht Tombstones; ein vollständiges Laden ersetzt den Bereich ohnehin
+        return watermark == null ? query.eq("deleted", false) : query.gte("updated_at", watermark);
+    }
+
+    /**
+     * Eine Seite des ersten Abgleichs: die nächsten {@link #PAGE_SIZE} nicht gelöschten Zeilen
+     * hinter afterId. Tombstones fehlen in der Seite und werden beim Ersetzen lokal entfernt.
+     */
+    private static PostgrestQuery page(String table, String scopeColumn, Object scope,
+                                       String columns, int afterId, boolean countTotal) {
+        PostgrestQuery query = PostgrestQuery.from(table)
+                .select(columns)
+                .eq(scopeColumn, scope)
+                .eq("deleted", false)
+                .gt("id", afterId)
+                .order("id", true)
+                .limit(PAGE_SIZE);
+        return countTotal ? query.countEstimated() : query;
+    }
+
+    /**
+     * Gemeinsamer Ablauf: Marke lesen → Delta abfragen → zusammenführen und neue Marke
+     * in derselben Transaktion speichern.
+     *
+     * @param paged seitenweiser erster Abgleich (null = Bereich in einer Abfrage laden)
+     */
+    private <T extends SyncedRow> void sync(String table,
+                                            String scope,
+                                            DeltaCall<T> deltaCall,
+                                            Merger<T> merger,
+                                            PagedFetch<T> paged,
+                                            RepositoryCallback<Void> callback) {
+        // Ausstehende Schreiboperationen zuerst auf den Weg bringen
+        outbox.replay();
+
+        // Room erlaubt keine Zugriffe auf dem Main-Thread – Marke im Hintergrund lesen
+        diskIO.execute(() -> {
+            String watermark = syncStateDao.getWatermark(table, scope);
+            boolean fullSync = watermark == null;
+
+            if (fullSync && paged != null) {
+                syncPage(table, Collections.singletonList(scope), paged, 0, null, null, null, callback);
+                return;
+            }
+
+            // Identische Abfragen (z. B. Bildschirm + Realtime-Beitritt) teilen sich einen Aufruf
+            Call<List<T>> call = deltaCall.create(watermark);
+            SingleFlight.getInstance().enqueue(call, new Callback<List<T>>() {
+                @Override
+                public void onResponse(Call<List<T>> call, Response<List<T>> response) {
+                    if (!response.isSuccessful() || response.body() == null) {
+                        error(callback, "Abgleich fehlgeschlagen: HTTP " + response.code());
+                        return;
+                    }
+                    List<T> rows = response.body();
+                    Log.d(TAG, table + "/" + scope + (fullSync ? " full: " : " delta: ") + rows.size() + " rows");
+
+                    diskIO.execute(() -> db.runInTransaction(() -> {
+                        merger.merge(fullSync, fullSync ? withoutTombstones(rows) : rows, pendingIds(table));
+
+                        String newWatermark = maxUpdatedAt(rows, watermark);
+                        if (newWatermark != null) {
+                            syncStateDao.upsert(new SyncState(table, scope, newWatermark));
+                        }
+                    }));
+                    success(callback, null);
+                }
+
+                @Override
+                public void onFailure(Call<List<T>> call, Throwable t) {
+                    error(callback, "Netzwerkfehler: " + t.getMessage());
+                }
+            });
+        });
+    }
+
+    /**
+     * Lädt eine Seite des ersten Abgleichs, übernimmt sie und fordert die nächste an.
+     *
+     * Nach der letzten Seite wird die Hochwassermarke gesetzt – höchstens auf die Serverzeit
+     * der ersten Seite: Während des Blätterns geänderte Zeilen können hinter dem Cursor liegen
+     * und werden so beim nächsten Delta-Abgleich sicher nachgeholt.
+     *
+     * @param scopes    Bereiche, die die Abfrage abdeckt (jeder erhält die Marke)
+     * @param afterId   größte id der vorherigen Seite (erste Seite: 0)
+     * @param maxSeen   größtes bisher gesehenes updated_at
+     * @param startedAt Serverzeit der ersten Seite (ISO-8601) oder null
+     * @param lane      Spur des Aufrufers oder null (dann über {@link SingleFlight})
+     */
+    private <T extends SyncedRow> void syncPage(String table,
+                                                List<String> scopes,
+                                                PagedFetch<T> paged,
+                                                int afterId,
+                                                String maxSeen,
+                                                String startedAt,
+                                                LatestWins lane,
+                                                RepositoryCallback<Void> callback) {
+        boolean firstPage = afterId == 0;
+
+        enqueue(lane, paged.create(afterId, firstPage), new Callback<List<T>>() {
+            @Override
+            public void onResponse(Call<List<T>> call, Response<List<T>> response) {
+                if (!response.isSuccessful() || response.body() == null) {
+                    error(callback, "Abgleich fehlgeschlagen: HTTP " + response.code());
+                    return;
+                }
+                List<T> rows = response.body();
+                boolean lastPage = rows.size() < paged.pageSize();
+                int upToId = lastPage ? Integer.MAX_VALUE : rows.get(rows.size() - 1).getId();
+                String newMax = maxUpdatedAt(rows, maxSeen);
+                String start = firstPage ? serverTime(response) : startedAt;
+
+                String scope = String.join(",", scopes);
+                if (firstPage) {
+                    // Content-Range: "0-199/4711" (geschätzt) – nur fürs Protokoll
+                    Log.d(TAG, table + "/" + scope + " full: ~" + response.headers().get("Content-Range"));
+                }
+                Log.d(TAG, table + "/" + scope + " page after id " + afterId + ": " + rows.size() + " rows");
+
+                diskIO.execute(() -> db.runInTransaction(() -> {
+                    paged.apply(withoutTombstones(rows), afterId, upToId, pendingIds(table));
+
+                    if (lastPage) {
+                        String newWatermark = earlier(newMax, start);
+                        if (newWatermark != null) {
+                            for (String covered : scopes) {
+                                syncStateDao.upsert(new SyncState(table, covered, newWatermark));
+                            }
+                        }
+                    }
+                }));
+
+                if (lastPage) {
+                    success(callback, null);
+                } else {
+                    syncPage(table, scopes, paged, upToId, newMax, start, lane, callback);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<List<T>> call, Throwable t) {
+                error(callback, "Netzwerkfehler: " + t.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Führt einen Abgleichsaufruf aus: über die Spur des Aufrufers (der neueste gewinnt) oder
+     * sonst über {@link SingleFlight} (identische Abfragen teilen sich einen Aufruf).
+     */
+    private static <T> void enqueue(LatestWins lane, Call<T> call, Callback<T> callback) {
+        if (lane != null) {
+            lane.enqueue(call, callback);
+        } else {
+            SingleFlight.getInstance().enqueue(call, callback);
+        }
+    }
+
+    /**
+     * Liest den Date-Header einer Antwort als ISO-8601-Zeitstempel (UTC, eine Sekunde früher
+     * wegen der Sekundengenauigkeit des Headers).
+     *
+     * @return z. B. "2026-10-18T12:00:00+00:00" oder null ohne Date-Header
+     */
+    private static String serverTime(Response<?> response) {
+        Date date = response.headers().getDate("Date");
+        if (date == null) {
+            return null;
+        }
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'+00:00'", Locale.ROOT);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.format(new Date(date.getTime() - 1000));
+    }
+
+    /**
+     * Gibt den früheren zweier Zeitstempel zurück (null zählt als "unbekannt").
+     */
+    private static String earlier(String a, String b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    /**
+     * IDs aller Zeilen einer Tabelle, für die noch Outbox-Einträge ausstehen.
+     */
+    private Set<Integer> pendingIds(String table) {
+        Set<Integer> ids = new HashSet<>();
+        for (String entityId : outboxDao.getPendingEntityIds(table)) {
+            try {
+                ids.add(Integer.parseInt(entityId));
+            } catch (NumberFormatException ignored) {
+                // Verknüpfungsschlüssel (z. B. group_members) betreffen diese Tabellen nicht
+            }
+        }
+        return ids;
+    }
+
+    private static <T extends SyncedRow> List<T> withoutTombstones(List<T> rows) {
+        List<T> live = new ArrayList<>();
+        for (T row : rows) {
+            if (!row.isDeleted()) {
+                live.add(row);
+            }
+        }
+        return live;
+    }
+
+    /**
+     * Ermittelt das größte updated_at der Zeilen. PostgREST liefert alle Zeitstempel im
+     * selben ISO-8601-Format, daher genügt ein String-Vergleich.
+     */
+    private static String maxUpdatedAt(List<? extends SyncedRow> rows, String current) {
+        String max = current;
+        for (SyncedRow row : rows) {
+            String updatedAt = row.getUpdatedAt();
+            if (updatedAt != null && (max == null || updatedAt.compareTo(max) > 0)) {
+                max = updatedAt;
+            }
+        }
+        return max;
+    }
+}
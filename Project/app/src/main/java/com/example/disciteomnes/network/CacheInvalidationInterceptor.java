@@ -0,0 +1,86 @@
+package com.example.disciteomnes.network;
+
+import android.util.Log;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Cache;
+import okhttp3.HttpUrl;
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application-Interceptor, der nach erfolgreichen Schreibzugriffen den HTTP-Disk-Cache und die
+ * gemerkten Antworten von {@link SingleFlight} für die geänderten Pfade verwirft.
+ *
+ * Schreibzugriffe auf eine Tabelle (POST/PATCH/DELETE auf /rest/v1/tasks) invalidieren genau
+ * diesen Pfad. Schreibende Datenbankfunktionen (rpc/...) ändern andere Tabellen als ihren
+ * eigenen Pfad; welche das sind, steht in {@link #RPC_WRITES}.
+ */
+public class CacheInvalidationInterceptor implements Interceptor {
+
+    private static final String TAG = "HttpCache";
+
+    // Datenbankfunktionen, die schreiben: welche gelesenen Pfade danach veraltet sind
+    private static final Map<String, List<String>> RPC_WRITES = new HashMap<>();
+
+    static {
+        RPC_WRITES.put("/rest/v1/rpc/create_group_and_join", Arrays.asList(
+                "/rest/v1/groups", "/rest/v1/group_members", "/rest/v1/rpc/dashboard_summary"));
+    }
+
+    private final Cache cache;
+
+    /**
+     * @param cache der zu invalidierende Cache (kann null sein, dann nur {@link SingleFlight})
+     */
+    public CacheInvalidationInterceptor(Cache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        // Nach erfolgreichem Schreiben alle gecachten Lesezugriffe der geänderten Pfade verwerfen
+        if (!"GET".equals(request.method()) && response.isSuccessful()) {
+            String path = request.url().encodedPath();
+            List<String> affected = RPC_WRITES.get(path);
+            for (String written : affected != null ? affected : Collections.singletonList(path)) {
+                invalidate(written);
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Entfernt alle Cache-Einträge, deren Pfad dem geschriebenen Pfad entspricht
+     * (z. B. alle gecachten GETs auf /rest/v1/tasks nach einem PATCH auf /rest/v1/tasks).
+     */
+    private void invalidate(String path) {
+        // Auch kurzzeitig gemerkte Antworten zusammengefasster Anfragen verwerfen
+        SingleFlight.getInstance().invalidate(path);
+        if (cache == null) {
+            return;
+        }
+        try {
+            Iterator<String> urls = cache.urls();
+            while (urls.hasNext()) {
+                HttpUrl url = HttpUrl.parse(urls.next());
+                if (url != null && url.encodedPath().equals(path)) {
+                    urls.remove();
+                }
+            }
+        } catch (Exception e) {
+            Log.w(TAG, "Cache-Invalidierung fehlgeschlagen", e);
+        }
+    }
+}
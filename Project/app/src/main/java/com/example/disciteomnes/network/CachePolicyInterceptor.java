@@ -0,0 +1,82 @@
+package com.example.disciteomnes.network;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Network-Interceptor, der PostgREST-Leseantworten für den HTTP-Disk-Cache markiert.
+ *
+ * PostgREST liefert ohne eigene Konfiguration keinen Cache-Control-Header und auch keine
+ * Validatoren (ETag / Last-Modified) – ein Conditional GET mit 304 ist also nicht möglich.
+ * Dieser Interceptor setzt deshalb nur für Tabellen, deren Inhalt sich selten ändert, eine
+ * Frische-Dauer; innerhalb dieser Zeit kommt die Antwort ohne Netzwerk aus dem Cache.
+ *
+ * Alles andere wird gar nicht gespeichert ({@code no-store}): Tabellen ohne Frische-Dauer
+ * (z. B. tasks) und Datenbankfunktionen (rpc/...) müssten ohne Validatoren ohnehin jedes Mal
+ * komplett geladen werden, ebenso Delta-Abfragen (Filter auf updated_at) und Seiten des ersten
+ * Abgleichs (limit), die nur einmal gelesen werden und in der lokalen Datenbank landen.
+ */
+public class CachePolicyInterceptor implements Interceptor {
+
+    // Frische-Dauer je Tabelle in Sekunden; Tabellen ohne Eintrag werden nicht gespeichert
+    private static final Map<String, Integer> MAX_AGE_SECONDS = new HashMap<>();
+
+    static {
+        MAX_AGE_SECONDS.put("study_plans", 30);
+        MAX_AGE_SECONDS.put("study_steps", 30);
+        MAX_AGE_SECONDS.put("group_members", 60);
+        MAX_AGE_SECONDS.put("groups", 60);
+        MAX_AGE_SECONDS.put("profiles", 300);
+    }
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        String table = tableOf(request);
+        if (!"GET".equals(request.method()) || table == null || !response.isSuccessful()) {
+            return response;
+        }
+
+        // Vom Server explizit gesetzte Regeln nicht überschreiben
+        if (response.header("Cache-Control") != null) {
+            return response;
+        }
+
+        Integer maxAge = MAX_AGE_SECONDS.get(table);
+        String cacheControl;
+        if (maxAge == null
+                || request.url().queryParameter("updated_at") != null
+                || request.url().queryParameter("limit") != null) {
+            cacheControl = "no-store";
+        } else {
+            cacheControl = "private, max-age=" + maxAge;
+        }
+
+        return response.newBuilder()
+                .removeHeader("Pragma")
+                .header("Cache-Control", cacheControl)
+                .build();
+    }
+
+    /**
+     * Ermittelt die PostgREST-Tabelle einer Anfrage (z. B. "tasks" für /rest/v1/tasks).
+     *
+     * @param request die HTTP-Anfrage
+     * @return der Tabellenname oder null, wenn es keine REST-Anfrage ist
+     */
+    static String tableOf(Request request) {
+        List<String> segments = request.url().pathSegments();
+        if (segments.size() < 3 || !"rest".equals(segments.get(0)) || !"v1".equals(segments.get(1))) {
+            return null;
+        }
+        return segments.get(2);
+    }
+}
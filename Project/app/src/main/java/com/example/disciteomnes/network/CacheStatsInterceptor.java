@@ -0,0 +1,68 @@
+package com.example.disciteomnes.network;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.Interceptor;
+import okhttp3.Request;
+import okhttp3.Response;
+
+/**
+ * Application-Interceptor, der die Wirkung des HTTP-Disk-Caches misst.
+ * Die Zähler lassen sich über {@link #snapshot()} und die Getter abfragen.
+ *
+ * Gezählt werden:
+ * - Treffer: Antwort kam komplett aus dem Cache (kein Netzwerk)
+ * - Fehlschläge: vollständige Antwort vom Server
+ * - gesparte Bytes: Body-Größe aller Antworten, die nicht übertragen werden mussten
+ */
+public class CacheStatsInterceptor implements Interceptor {
+
+    private static final AtomicLong hits = new AtomicLong();
+    private static final AtomicLong misses = new AtomicLong();
+    private static final AtomicLong savedBytes = new AtomicLong();
+
+    @Override
+    public Response intercept(Chain chain) throws IOException {
+        Request request = chain.request();
+        Response response = chain.proceed(request);
+
+        if (!"GET".equals(request.method())) {
+            return response;
+        }
+
+        if (response.cacheResponse() != null && response.networkResponse() == null) {
+            hits.incrementAndGet();
+            savedBytes.addAndGet(bodySize(response));
+        } else {
+            misses.incrementAndGet();
+        }
+        return response;
+    }
+
+    /**
+     * Liefert die Body-Größe einer Antwort, ohne den Body zu konsumieren.
+     */
+    private static long bodySize(Response response) throws IOException {
+        if (response.body() == null) {
+            return 0;
+        }
+        long length = response.body().contentLength();
+        return length >= 0 ? length : response.peekBody(Long.MAX_VALUE).contentLength();
+    }
+
+    /**
+     * Gibt den aktuellen Stand aller Zähler als lesbaren Text zurück.
+     *
+     * @return z. B. "hits=3 misses=2 savedBytes=48213"
+     */
+    public static String snapshot() {
+        return String.format(Locale.ROOT, "hits=%d misses=%d savedBytes=%d",
+                hits.get(), misses.get(), savedBytes.get());
+    }
+
+    public static long getHits()        { return hits.get(); }
+    public static long getMisses()      { return misses.get(); }
+    public static long getSavedBytes()  { return savedBytes.get(); }
+}
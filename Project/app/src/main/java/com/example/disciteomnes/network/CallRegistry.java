@@ -0,0 +1,252 @@
+package com.example.disciteomnes.network;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleOwner;
+
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import okhttp3.ResponseBody;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Bindet laufende Anfragen an den Lebenszyklus eines Bildschirms.
+ *
+ * Anonyme Callbacks halten ihre Activity fest, bis die Antwort eintrifft – auch wenn der
+ * Benutzer den Bildschirm längst verlassen hat. Beim Zerstören des Besitzers (ON_DESTROY)
+ * gilt deshalb:
+ * - {@link #enqueue(Call, Callback)}: Aufrufe, deren Ergebnis nur dieser Bildschirm braucht
+ *   (z. B. Login), werden abgebrochen – Download und Parsen entfallen.
+ * - {@link #keep(RepositoryCallback)}: Aufrufe eines Repositorys laufen weiter, weil ihr
+ *   Ergebnis in der lokalen Datenbank landet und beim nächsten Öffnen sofort da ist. Nur der
+ *   Callback des Bildschirms wird losgelassen, damit er die Activity nicht mehr festhält.
+ * - {@link #lane()}: der laufende Aufruf einer {@link LatestWins}-Spur wird abgebrochen,
+ *   weitere werden nicht mehr gestartet.
+ *
+ * Gezählt werden (prozessweit):
+ * - abgebrochen: beim Zerstören abgebrochene Aufrufe
+ * - losgelassen: Callbacks, die sonst die zerstörte Activity bis zur Antwort festgehalten hätten
+ * - verspätet / verschwendete Bytes: Antworten, die trotzdem noch für einen zerstörten
+ *   Bildschirm ankamen (z. B. schon übertragen, als abgebrochen wurde) und verworfen wurden
+ *
+ * Alle Methoden werden auf dem Main-Thread aufgerufen.
+ */
+public final class CallRegistry implements DefaultLifecycleObserver {
+
+    private static final String TAG = "CallRegistry";
+
+    private static final AtomicLong cancelled = new AtomicLong();
+    private static final AtomicLong released = new AtomicLong();
+    private static final AtomicLong late = new AtomicLong();
+    private static final AtomicLong wastedBytes = new AtomicLong();
+
+    private final Set<Call<?>> calls = new HashSet<>();
+    private final Set<Holder<?>> holders = new HashSet<>();
+    private final List<LatestWins> lanes = new ArrayList<>();
+    private boolean destroyed;
+
+    /**
+     * Hält den Callback eines Bildschirms, bis die Antwort kommt oder der Bildschirm endet.
+     */
+    private final class Holder<T> implements RepositoryCallback<T> {
+        private RepositoryCallback<T> target;
+
+        Holder(RepositoryCallback<T> target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onSuccess(T result) {
+            RepositoryCallback<T> callback = take();
+            if (callback != null) {
+                callback.onSuccess(result);
+            }
+        }
+
+        @Override
+        public void onError(String message) {
+            RepositoryCallback<T> callback = take();
+            if (callback != null) {
+                callback.onError(message);
+            }
+        }
+
+        private RepositoryCallback<T> take() {
+            holders.remove(this);
+            RepositoryCallback<T> callback = target;
+            target = null;
+            return callback;
+        }
+    }
+
+    private CallRegistry() { }
+
+    /**
+     * Erstellt eine Registry für einen Bildschirm. Kann schon im Feld-Initialisierer einer
+     * Activity aufgerufen werden: {@code private final CallRegistry calls = CallRegistry.bind(this);}
+     *
+     * @param owner Activity (oder anderer Besitzer mit Lebenszyklus)
+     * @return die an {@code owner} gebundene Registry
+     */
+    public static CallRegistry bind(LifecycleOwner owner) {
+        CallRegistry registry = new CallRegistry();
+        Lifecycle lifecycle = owner.getLifecycle();
+        if (lifecycle.getCurrentState() == Lifecycle.State.DESTROYED) {
+            registry.destroyed = true;
+        } else {
+            lifecycle.addObserver(registry);
+        }
+        return registry;
+    }
+
+    /**
+     * Führt einen Aufruf aus, dessen Ergebnis nur dieser Bildschirm braucht.
+     * Endet der Bildschirm vorher, wird der Aufruf abgebrochen und der Callback nie aufgerufen.
+     *
+     * @param call     der (noch nicht ausgeführte) Retrofit-Aufruf
+     * @param callback Empfänger der Antwort
+     * @param <T>      Typ des Antwort-Bodys
+     */
+    public <T> void enqueue(Call<T> call, Callback<T> callback) {
+        if (destroyed) {
+            cancelled.incrementAndGet();
+            return;
+        }
+        calls.add(call);
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                calls.remove(call);
+                if (destroyed) {
+                    late.incrementAndGet();
+                    wastedBytes.addAndGet(bodySize(response));
+                    return;
+                }
+                callback.onResponse(c, response);
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable t) {
+                calls.remove(call);
+                if (destroyed || c.isCanceled()) {
+                    return;
+                }
+                callback.onFailure(c, t);
+            }
+        });
+    }
+
+    /**
+     * Bindet den Callback eines Repository-Aufrufs an diesen Bildschirm. Der Aufruf selbst
+     * läuft weiter (sein Ergebnis wird lokal gespeichert); endet der Bildschirm vorher, wird
+     * der Callback losgelassen und nicht mehr aufgerufen.
+     *
+     * @param callback Callback des Bildschirms (z. B. ein {@code ToastCallback})
+     * @param <T>      Typ des Ergebnisses
+     * @return der an {@code callback} weiterleitende Callback für das Repository
+     */
+    public <T> RepositoryCallback<T> keep(RepositoryCallback<T> callback) {
+        Holder<T> holder = new Holder<>(callback);
+        if (destroyed) {
+            holder.target = null;
+            released.incrementAndGet();
+        } else {
+            holders.add(holder);
+        }
+        return holder;
+    }
+
+    /**
+     * Erstellt eine {@link LatestWins}-Spur, deren laufender Aufruf beim Zerstören dieses
+     * Bildschirms abgebrochen wird (z. B. das Nachholen nach einem Realtime-Beitritt).
+     *
+     * @return die an diesen Bildschirm gebundene Spur
+     */
+    public LatestWins lane() {
+        LatestWins lane = new LatestWins();
+        if (destroyed) {
+            lane.close();
+        } else {
+            lanes.add(lane);
+        }
+        return lane;
+    }
+
+    @Override
+    public void onDestroy(@NonNull LifecycleOwner owner) {
+        destroyed = true;
+        owner.getLifecycle().removeObserver(this);
+
+        List<Call<?>> running = new ArrayList<>(calls);
+        calls.clear();
+        for (Call<?> call : running) {
+            if (!call.isCanceled()) {
+                call.cancel();
+                cancelled.incrementAndGet();
+            }
+        }
+
+        for (LatestWins lane : lanes) {
+            if (lane.close()) {
+                cancelled.incrementAndGet();
+            }
+        }
+        lanes.clear();
+
+        int detached = holders.size();
+        for (Holder<?> holder : holders) {
+            holder.target = null;
+            released.incrementAndGet();
+        }
+        holders.clear();
+
+        if (!running.isEmpty() || detached > 0) {
+            Log.d(TAG, snapshot());
+        }
+    }
+
+    /**
+     * Größe der verworfenen Antwort laut Content-Length (0, wenn unbekannt).
+     * Retrofit hat den Body zu diesem Zeitpunkt bereits gelesen; die Länge bleibt erhalten.
+     */
+    private static long bodySize(Response<?> response) {
+        ResponseBody body = response.raw().body();
+        long length = body != null ? body.contentLength() : -1;
+        if (length < 0) {
+            String header = response.headers().get("Content-Length");
+            try {
+                length = header != null ? Long.parseLong(header) : 0;
+            } catch (NumberFormatException e) {
+                length = 0;
+            }
+        }
+        return Math.max(0, length);
+    }
+
+    /**
+     * Gibt den aktuellen Stand aller Zähler als lesbaren Text zurück.
+     *
+     * @return z. B. "cancelled=4 released=2 late=1 wastedBytes=5120"
+     */
+    public static String snapshot() {
+        return String.format(Locale.ROOT, "cancelled=%d released=%d late=%d wastedBytes=%d",
+                cancelled.get(), released.get(), late.get(), wastedBytes.get());
+    }
+
+    public static long getCancelled()   { return cancelled.get(); }
+    public static long getReleased()    { return released.get(); }
+    public static long getLate()        { return late.get(); }
+    public static long getWastedBytes() { return wastedBytes.get(); }
+}
@@ -3,9 +3,12 @@ package com.example.disciteomnes.network;
 import com.example.disciteomnes.data.dto.*;
 import com.example.disciteomnes.data.models.*;
 
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
 import java.util.List;
+import java.util.Map;
 
-import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.http.*;
 
@@ -16,13 +19,31 @@ import retrofit2.http.*;
  */
 public interface DisciteOmnesApi {
 
+    // ───────────── [PROJEKTIONEN] ─────────────
+    // Jede Leseabfrage nennt die Spalten, die ihr Bildschirm braucht (PostgREST "select"),
+    // statt mit select=* alle Spalten zu laden.
+
+    /** Aufgabenliste: alles, was TasksActivity und der Abgleich brauchen. */
+    String TASK_LIST_COLUMNS = "id,title,due_date,completed,user_id,updated_at,deleted";
+
+    /** Lernplanliste: nur Titel und Zuordnung zur Gruppe. */
+    String STUDY_PLAN_LIST_COLUMNS = "id,group_id,title,updated_at,deleted";
+
+    /** Lernschrittliste: ohne completed_by, das mit der Gruppengröße wächst. */
+    String STUDY_STEP_LIST_COLUMNS = "id,plan_id,title,due_date,updated_at,deleted";
+
+    /** Lernpläne mit ihren Schritten in einer Abfrage (PostgREST-Einbettung über plan_id). */
+    String STUDY_PLAN_WITH_STEPS_COLUMNS = STUDY_PLAN_LIST_COLUMNS + ",study_steps(" + STUDY_STEP_LIST_COLUMNS + ")";
+
     // ───────────── [AUTHENTIFIZIERUNG] ─────────────
 
     /**
      * Registrierung eines neuen Benutzers bei Supabase Auth.
+     * Ist die E-Mail-Bestätigung abgeschaltet, enthält die Antwort bereits eine Sitzung
+     * (Access- und Refresh-Token); sonst nur den Benutzer und das Access-Token ist null.
      */
     @POST("auth/v1/signup")
-    Call<Void> register(@Body RegisterRequest request);
+    Call<LoginResponse> register(@Body RegisterRequest request);
 
     /**
      * Login eines Benutzers über E-Mail und Passwort.
@@ -32,21 +53,24 @@ public interface DisciteOmnesApi {
     Call<LoginResponse> login(@Body LoginRequest request);
 
     /**
-     * Abrufen der aktuellen Benutzerinformationen basierend auf dem Access-Token.
+     * Erneuert die Sitzung mit dem Refresh-Token.
+     * Gibt ein neues Access- und Refresh-Token zurück (das alte Refresh-Token wird ungültig).
      */
-    @GET("auth/v1/user")
-    Call<ResponseBody> getUser();
+    @POST("auth/v1/token?grant_type=refresh_token")
+    Call<LoginResponse> refreshToken(@Body RefreshTokenRequest request);
 
 
     // ───────────── [BENUTZERPROFIL / PROFILES] ─────────────
 
     /**
-     * Erstellt ein neues Profil in der `profiles`-Tabelle (z. B. nach Registrierung).
-     * Gibt das gespeicherte Profile-Objekt zurück.
+     * Erstellt ein Profil in der `profiles`-Tabelle oder aktualisiert ein vorhandenes (Upsert),
+     * z. B. wenn der Signup-Trigger es bereits angelegt hat.
+     * Gibt das gespeicherte Profile-Objekt zurück (als einzelnes Objekt statt Array).
      */
     @Headers({
             "Content-Type: application/json",
-            "Prefer: return=representation"
+            "Accept: application/vnd.pgrst.object+json",
+            "Prefer: return=representation,resolution=merge-duplicates"
     })
     @POST("rest/v1/profiles")
     Call<Profile> createProfile(@Body Profile profile);
@@ -55,117 +79,127 @@ public interface DisciteOmnesApi {
     // ───────────── [AUFGABEN / TASKS] ─────────────
 
     /**
-     * Holt alle Aufgaben eines bestimmten Benutzers.
-     * @param userIdEq z. B. "eq.<user-id>"
-     * @param select z. B. "*"
+     * Liest Aufgaben (z. B. eine Seite des ersten Abgleichs oder ein Delta seit der Hochwassermarke).
+     * @param query   Filter, Spalten, Sortierung und Umfang, siehe {@link PostgrestQuery#toQueryMap()}
+     * @param headers z. B. "Prefer: count=estimated", siehe {@link PostgrestQuery#headers()}
      */
     @GET("rest/v1/tasks")
-    Call<List<Task>> getTasksByUserId(
-            @Query(value = "user_id", encoded = true) String userIdEq,
-            @Query(value = "select", encoded = true) String select
+    Call<List<Task>> getTasks(
+            @QueryMap(encoded = true) Map<String, String> query,
+            @HeaderMap Map<String, String> headers
     );
 
-    /**
-     * Fügt eine neue Aufgabe für einen Benutzer hinzu.
-     */
-    @Headers({
-            "Content-Type: application/json",
-            "Prefer: return=representation"
-    })
-    @POST("rest/v1/tasks")
-    Call<List<Task>> addTask(@Body TaskRequest request);
+
+    // ───────────── [GRUPPEN / GROUPS] ─────────────
 
     /**
-     * Aktualisiert den Status (z. B. "completed") einer bestimmten Aufgabe.
-     * @param idFilter z. B. "eq.3"
+     * Erstellt eine Gruppe und trägt den Benutzer als Mitglied ein – in einem Aufruf und einer
+     * Transaktion (Datenbankfunktion create_group_and_join). Liefert die neue Mitgliedschaft
+     * mit eingebetteter Gruppe, wie {@link #getGroupMembers}.
      */
-    @Headers({
-            "Content-Type: application/json",
-            "Prefer: return=representation"
-    })
-    @PATCH("rest/v1/tasks")
-    Call<List<Task>> updateTask(
-            @Query(value = "id", encoded = true) String idFilter,
-            @Body TaskUpdateRequest request
-    );
+    @Headers("Content-Type: application/json")
+    @POST("rest/v1/rpc/create_group_and_join")
+    Call<GroupMemberResponse> createGroupAndJoin(@Body CreateGroupRequest request);
 
     /**
-     * Löscht eine Aufgabe anhand ihrer ID.
-     * @param idFilter z. B. "eq.5"
+     * Liest Mitgliedschaften aus der group_members-Tabelle, z. B. mit eingebetteter Gruppe
+     * ({@code select=group:groups(id,name)}) für alle Gruppen eines Benutzers.
+     * @param query siehe {@link PostgrestQuery#toQueryMap()}
      */
-    @DELETE("rest/v1/tasks")
-    Call<Void> deleteTask(@Query(value = "id", encoded = true) String idFilter);
+    @GET("rest/v1/group_members")
+    Call<List<GroupMemberResponse>> getGroupMembers(@QueryMap(encoded = true) Map<String, String> query);
 
 
-    // ───────────── [GRUPPEN / GROUPS] ─────────────
+    // ───────────── [STUDIENPLÄNE / STUDY PLANS] ─────────────
 
     /**
-     * Erstellt eine neue Lerngruppe.
+     * Liest Lernpläne (z. B. alle Pläne einer Gruppe oder ein Delta seit der Hochwassermarke).
+     * @param query siehe {@link PostgrestQuery#toQueryMap()}
      */
-    @Headers("Prefer: return=representation")
-    @POST("rest/v1/groups")
-    Call<List<Group>> addGroup(@Body GroupRequest request);
+    @GET("rest/v1/study_plans")
+    Call<List<StudyPlan>> getStudyPlans(@QueryMap(encoded = true) Map<String, String> query);
 
     /**
-     * Fügt einen Benutzer einer Gruppe hinzu.
+     * Liest Lernpläne samt eingebetteter Lernschritte ({@link #STUDY_PLAN_WITH_STEPS_COLUMNS}),
+     * z. B. eine Seite der Pläne einer Gruppe. Die Schritte stehen in {@link StudyPlan#getSteps()}.
+     * @param query   siehe {@link PostgrestQuery#toQueryMap()}
+     * @param headers siehe {@link PostgrestQuery#headers()} (z. B. Prefer: count=estimated)
      */
-    @Headers({
-            "Content-Type: " + "application/json",
-            "Prefer: return=minimal"
-    })
-    @POST("rest/v1/group_members")
-    Call<Void> joinGroup(@Body GroupMemberRequest request);
+    @GET("rest/v1/study_plans")
+    Call<List<StudyPlan>> getStudyPlansWithSteps(
+            @QueryMap(encoded = true) Map<String, String> query,
+            @HeaderMap Map<String, String> headers
+    );
+
+
+    // ───────────── [LERNABSCHNITTE / STUDY STEPS] ─────────────
 
     /**
-     * Holt alle Gruppen, denen ein Benutzer zugeordnet ist (über die group_members-Tabelle).
-     * @param fullUrl sollte z. B. sein:
-     * "rest/v1/group_members?select=group:groups(id,name)&user_id=eq.<userId>"
+     * Liest Lernschritte (z. B. eine Seite des ersten Abgleichs oder ein Delta seit der Hochwassermarke).
+     * @param query   siehe {@link PostgrestQuery#toQueryMap()}
+     * @param headers siehe {@link PostgrestQuery#headers()}
      */
-    @GET
-    Call<List<GroupMemberResponse>> getGroupsByUser(@Url String fullUrl);
+    @GET("rest/v1/study_steps")
+    Call<List<StudyStep>> getStudySteps(
+            @QueryMap(encoded = true) Map<String, String> query,
+            @HeaderMap Map<String, String> headers
+    );
 
 
-    // ───────────── [STUDIENPLÄNE / STUDY PLANS] ─────────────
+    // ───────────── [DASHBOARD] ─────────────
 
     /**
-     * Holt alle Lernpläne für eine bestimmte Gruppe.
-     * @param groupFilter z. B. "eq.<group-id>"
+     * Liest die Dashboard-Übersicht in einem Aufruf (Datenbankfunktion dashboard_summary):
+     * Gruppen mit nächstem fälligen Lernschritt, offene Aufgaben und die nächsten Fälligkeiten.
+     * Die Funktion ist "stable" und wird daher per GET aufgerufen. Die Antwort wird nicht im
+     * HTTP-Cache gespeichert (siehe {@link CachePolicyInterceptor}); gleichzeitige Aufrufe fasst
+     * {@link SingleFlight} zusammen.
+     * @param taskLimit Anzahl der gelieferten nächsten Aufgaben
      */
-    @GET("rest/v1/study_plans")
-    Call<List<StudyPlan>> getStudyPlans(
-            @Query(value = "group_id", encoded = true) String groupFilter
-    );
+    @GET("rest/v1/rpc/dashboard_summary")
+    Call<DashboardSummary> getDashboardSummary(@Query("task_limit") int taskLimit);
+
+
+    // ───────────── [OUTBOX / SAMMELANFRAGEN] ─────────────
 
     /**
-     * Fügt einen neuen Lernplan zu einer Gruppe hinzu.
+     * Fügt mehrere Zeilen in einer Anfrage ein (PostgREST-Bulk-Insert).
+     * Alle Objekte im Array müssen dieselben Schlüssel haben.
+     * Die Antwort enthält die gespeicherten Zeilen in derselben Reihenfolge.
+     * @param table z. B. "tasks"
      */
     @Headers({
             "Content-Type: application/json",
-            "Prefer: return=minimal"
+            "Prefer: return=representation"
     })
-    @POST("rest/v1/study_plans")
-    Call<Void> addStudyPlan(@Body StudyPlanRequest request);
-
-
-    // ───────────── [LERNABSCHNITTE / STUDY STEPS] ─────────────
+    @POST("rest/v1/{table}")
+    Call<JsonArray> insertRows(@Path("table") String table, @Body JsonArray rows);
 
     /**
-     * Holt alle Lernschritte, die zu einem bestimmten Lernplan gehören.
-     * @param planFilter z. B. "eq.<plan-id>"
+     * Wie {@link #insertRows}, aber ohne Antwort-Body (z. B. für group_members).
+     * @param table z. B. "group_members"
      */
-    @GET("rest/v1/study_steps")
-    Call<List<StudyStep>> getStudyStepsByPlanId(
-            @Query(value = "plan_id", encoded = true) String planFilter
-    );
+    @Headers({
+            "Content-Type: application/json",
+            "Prefer: return=minimal"
+    })
+    @POST("rest/v1/{table}")
+    Call<Void> insertRowsMinimal(@Path("table") String table, @Body JsonArray rows);
 
     /**
-     * Fügt einen neuen Lernschritt zu einem bestehenden Lernplan hinzu.
+     * Ändert einzelne Spalten der gefilterten Zeilen.
+     * @param table  z. B. "tasks"
+     * @param filter z. B. {@code PostgrestQuery.from(table).eq("id", 3).toQueryMap()}
+     * @param patch  z. B. {"completed": true} oder {"deleted": true}
      */
     @Headers({
             "Content-Type: application/json",
             "Prefer: return=minimal"
     })
-    @POST("rest/v1/study_steps")
-    Call<Void> addStudyStep(@Body StudyStepRequest request);
-
+    @PATCH("rest/v1/{table}")
+    Call<Void> updateRows(
+            @Path("table") String table,
+            @QueryMap(encoded = true) Map<String, String> filter,
+            @Body JsonObject patch
+    );
 }
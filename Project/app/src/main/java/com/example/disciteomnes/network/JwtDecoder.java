@@ -0,0 +1,77 @@
+package com.example.disciteomnes.network;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Liest die Claims eines Supabase-Access-Tokens lokal aus, ohne den Server zu fragen.
+ *
+ * Die Signatur wird dabei NICHT geprüft – das übernimmt Supabase bei jeder Anfrage.
+ * Die Werte dienen nur dazu, die Sitzung ohne zusätzlichen Aufruf von `auth/v1/user`
+ * einzurichten (Benutzer-ID, Ablaufzeit).
+ */
+public final class JwtDecoder {
+
+    /**
+     * Die für die App relevanten Claims eines Tokens.
+     */
+    public static final class Claims {
+        private final String subject;
+        private final long expiresAt;
+
+        Claims(String subject, long expiresAt) {
+            this.subject = subject;
+            this.expiresAt = expiresAt;
+        }
+
+        /**
+         * @return die Benutzer-ID (Claim "sub")
+         */
+        public String getSubject() {
+            return subject;
+        }
+
+        /**
+         * @return Ablaufzeitpunkt in Sekunden seit 1970 (Claim "exp"), 0 falls nicht vorhanden
+         */
+        public long getExpiresAt() {
+            return expiresAt;
+        }
+    }
+
+    private JwtDecoder() { }
+
+    /**
+     * Dekodiert den Payload-Teil eines JWT.
+     *
+     * @param jwt das Access-Token ("header.payload.signature")
+     * @return die Claims oder null, wenn das Token nicht lesbar ist oder keine Benutzer-ID enthält
+     */
+    public static Claims decode(String jwt) {
+        if (jwt == null) {
+            return null;
+        }
+        String[] parts = jwt.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
+        try {
+            // Payload ist Base64URL ohne Padding
+            byte[] json = Base64.getUrlDecoder().decode(parts[1]);
+            JsonObject payload = JsonParser.parseString(new String(json, StandardCharsets.UTF_8))
+                    .getAsJsonObject();
+
+            if (!payload.has("sub") || payload.get("sub").isJsonNull()) {
+                return null;
+            }
+            String subject = payload.get("sub").getAsString();
+            long expiresAt = payload.has("exp") ? payload.get("exp").getAsLong() : 0;
+            return new Claims(subject, expiresAt);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+}
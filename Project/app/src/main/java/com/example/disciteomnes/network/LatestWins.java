@@ -0,0 +1,116 @@
+package com.example.disciteomnes.network;
+
+import android.util.Log;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Führt von mehreren gleichartigen Aufrufen nur den zuletzt gestarteten zu Ende.
+ *
+ * Blättert der Benutzer z. B. schnell durch die Gruppen im Spinner, startet jede Auswahl
+ * einen Abgleich dieser Gruppe. Ein neuer Aufruf bricht den vorherigen ab; eine Antwort,
+ * die trotzdem noch für einen überholten Aufruf ankommt, wird verworfen. So kann eine
+ * verspätete Antwort nie den Stand der aktuellen Auswahl überschreiben.
+ *
+ * Aufrufe über eine Spur laufen nicht über {@link SingleFlight}: ein geteilter Aufruf
+ * darf nicht für alle Wartenden abgebrochen werden.
+ *
+ * Callbacks werden – wie bei Retrofit – auf dem Main-Thread aufgerufen.
+ */
+public final class LatestWins {
+
+    private static final String TAG = "LatestWins";
+
+    private static final AtomicLong superseded = new AtomicLong();
+
+    private Call<?> current;
+    private boolean closed;
+
+    /**
+     * Startet den Aufruf und bricht einen noch laufenden Vorgänger dieser Spur ab.
+     * Für abgebrochene oder überholte Aufrufe wird der Callback nie aufgerufen;
+     * nach {@link #close()} wird gar nichts mehr gestartet.
+     *
+     * @param call     der (noch nicht ausgeführte) Retrofit-Aufruf
+     * @param callback Empfänger der Antwort
+     * @param <T>      Typ des Antwort-Bodys
+     */
+    public <T> void enqueue(Call<T> call, Callback<T> callback) {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            // current ist nur gesetzt, solange der Aufruf noch läuft (siehe finish)
+            if (current != null) {
+                current.cancel();
+                superseded.incrementAndGet();
+                Log.d(TAG, "superseded=" + superseded.get());
+            }
+            current = call;
+        }
+        call.enqueue(new Callback<T>() {
+            @Override
+            public void onResponse(Call<T> c, Response<T> response) {
+                if (finish(call)) {
+                    callback.onResponse(c, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<T> c, Throwable t) {
+                if (finish(call) && !c.isCanceled()) {
+                    callback.onFailure(c, t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Bricht den laufenden Aufruf dieser Spur ab; spätere Aufrufe laufen normal.
+     *
+     * @return true, wenn ein Aufruf lief
+     */
+    public synchronized boolean cancel() {
+        if (current == null) {
+            return false;
+        }
+        current.cancel();
+        current = null;
+        return true;
+    }
+
+    /**
+     * Bricht den laufenden Aufruf ab und nimmt keine weiteren an (z. B. wenn der Bildschirm
+     * endet, siehe {@link CallRegistry#lane()}).
+     *
+     * @return true, wenn ein Aufruf lief
+     */
+    public synchronized boolean close() {
+        closed = true;
+        return cancel();
+    }
+
+    /**
+     * Beendet einen Aufruf.
+     *
+     * @return true, wenn er noch der aktuelle ist und seine Antwort zugestellt werden soll
+     */
+    private synchronized boolean finish(Call<?> call) {
+        if (current != call) {
+            return false;
+        }
+        current = null;
+        return true;
+    }
+
+    /**
+     * @return Zahl der prozessweit von einem neueren Aufruf überholten Aufrufe
+     */
+    public static long getSuperseded() {
+        return superseded.get();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example.disciteomnes.network;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Kleiner, typisierter Baukasten für PostgREST-Abfragen.
+ *
+ * Statt Filter per Hand zusammenzusetzen ({@code "eq." + userId}) oder ganze URLs als String
+ * zu übergeben, wird eine Abfrage beschrieben und als Query-Parameter an die API gereicht:
+ *
+ * <pre>
+ * PostgrestQuery.from("tasks")
+ *         .select(TASK_LIST_COLUMNS)
+ *         .eq("user_id", userId)
+ *         .gt("id", afterId)
+ *         .order("id", true)
+ *         .limit(200);
+ * </pre>
+ *
+ * Die Parameter werden sortiert ausgegeben. Zwei gleiche Abfragen ergeben daher immer dieselbe
+ * URL – unabhängig davon, in welcher Reihenfolge die Filter gesetzt wurden. Davon profitieren
+ * der HTTP-Cache und {@link SingleFlight}, die beide an der URL ansetzen.
+ *
+ * Werte werden hier bereits URL-kodiert; die API-Methoden nehmen die Parameter daher mit
+ * {@code @QueryMap(encoded = true)} entgegen.
+ */
+public final class PostgrestQuery {
+
+    // Zeichen, die in einem in.()-Wert eine Bedeutung haben und deshalb Anführungszeichen brauchen
+    private static final String RESERVED_IN_LIST = ",.:()\" \\";
+
+    private final String table;
+    private final TreeMap<String, String> params = new TreeMap<>();
+    private String prefer;
+
+    private PostgrestQuery(String table) {
+        this.table = table;
+    }
+
+    /**
+     * Beginnt eine Abfrage auf eine Tabelle.
+     *
+     * @param table z. B. "tasks"
+     * @return neue, leere Abfrage
+     */
+    public static PostgrestQuery from(String table) {
+        return new PostgrestQuery(table);
+    }
+
+    /**
+     * Beschreibt eine eingebettete Tabelle für {@link #select(String...)}.
+     *
+     * @param alias   Name des Felds in der Antwort (z. B. "group") oder null
+     * @param table   eingebettete Tabelle (z. B. "groups")
+     * @param columns Spalten der eingebetteten Tabelle
+     * @return z. B. "group:groups(id,name)"
+     */
+    public static String embed(String alias, String table, String... columns) {
+        String inner = table + "(" + String.join(",", columns) + ")";
+        return alias == null ? inner : alias + ":" + inner;
+    }
+
+    // ───────────── Spalten ─────────────
+
+    /**
+     * Legt die gelesenen Spalten fest. Einträge dürfen selbst Listen oder Einbettungen sein,
+     * z. B. {@code select("id,title", embed(null, "study_steps", "id", "title"))}.
+     */
+    public PostgrestQuery select(String... columns) {
+        return set("select", String.join(",", columns));
+    }
+
+    // ───────────── Filter ─────────────
+
+    public PostgrestQuery eq(String column, Object value)  { return filter(column, "eq", value); }
+    public PostgrestQuery neq(String column, Object value) { return filter(column, "neq", value); }
+    public PostgrestQuery gt(String column, Object value)  { return filter(column, "gt", value); }
+    public PostgrestQuery gte(String column, Object value) { return filter(column, "gte", value); }
+    public PostgrestQuery lt(String column, Object value)  { return filter(column, "lt", value); }
+    public PostgrestQuery lte(String column, Object value) { return filter(column, "lte", value); }
+
+    /**
+     * Filter "Spalte ist einer der Werte", z. B. {@code id=in.(1,2,3)}.
+     * Werte mit Sonderzeichen (Komma, Punkt, Klammern, …) werden in Anführungszeichen gesetzt.
+     *
+     * @param column Spaltenname
+     * @param values mindestens ein Wert
+     */
+    public PostgrestQuery in(String column, Collection<?> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("in.() braucht mindestens einen Wert: " + column);
+        }
+        StringBuilder list = new StringBuilder("in.(");
+        boolean first = true;
+        for (Object value : values) {
+            if (!first) {
+                list.append(',');
+            }
+            list.append(quoteListValue(String.valueOf(value)));
+            first = false;
+        }
+        return set(column, list.append(')').toString());
+    }
+
+    // ───────────── Sortierung und Umfang ─────────────
+
+    /**
+     * Sortiert nach einer Spalte. Mehrere Aufrufe ergeben eine mehrstufige Sortierung.
+     */
+    public PostgrestQuery order(String column, boolean ascending) {
+        String term = column + (ascending ? ".asc" : ".desc");
+        String current = params.get("order");
+        params.put("order", current == null ? term : current + "," + term);
+        return this;
+    }
+
+    public PostgrestQuery limit(int limit) {
+        params.put("limit", String.valueOf(limit));
+        return this;
+    }
+
+    /**
+     * Liest nur die Zeilen {@code from} bis einschließlich {@code to} (0-basiert).
+     */
+    public PostgrestQuery range(int from, int to) {
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("Ungültiger Bereich " + from + "-" + to);
+        }
+        params.put("offset", String.valueOf(from));
+        return limit(to - from + 1);
+    }
+
+    /**
+     * Lässt den Server die geschätzte Gesamtzahl im Header Content-Range mitliefern.
+     */
+    public PostgrestQuery countEstimated() {
+        prefer = "count=estimated";
+        return this;
+    }
+
+    // ───────────── Ausgabe ─────────────
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return die sortierten, URL-kodierten Query-Parameter für {@code @QueryMap(encoded = true)}
+     */
+    public Map<String, String> toQueryMap() {
+        Map<String, String> encoded = new TreeMap<>();
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            encoded.put(entry.getKey(), encode(entry.getValue()));
+        }
+        return encoded;
+    }
+
+    /**
+     * @return zusätzliche Header für {@code @HeaderMap} (z. B. Prefer: count=estimated)
+     */
+    public Map<String, String> headers() {
+        return prefer == null
+                ? Collections.emptyMap()
+                : Collections.singletonMap("Prefer", prefer);
+    }
+
+    /**
+     * Lesbare Form der Abfrage zum Protokollieren,
+     * z. B. "tasks?id=gt.0&limit=200&order=id.asc&user_id=eq.42".
+     */
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(table).append('?');
+        boolean first = true;
+        for (Map.Entry<String, String> entry : params.entrySet()) {
+            if (!first) {
+                text.append('&');
+            }
+            text.append(entry.getKey()).append('=').append(entry.getValue());
+            first = false;
+        }
+        if (prefer != null) {
+            text.append(" [").append(prefer).append(']');
+        }
+        return text.toString();
+    }
+
+    // ───────────── intern ─────────────
+
+    private PostgrestQuery filter(String column, String operator, Object value) {
+        return set(column, operator + "." + value);
+    }
+
+    /**
+     * PostgREST erlaubt zwar mehrere Filter auf dieselbe Spalte, eine Map aber nicht –
+     * ein zweiter Filter würde den ersten still überschreiben. Das wäre ein Programmierfehler.
+     */
+    private PostgrestQuery set(String name, String value) {
+        String previous = params.put(name, value);
+        if (previous != null) {
+            throw new IllegalStateException("Parameter " + name + " doppelt gesetzt: " + previous + " / " + value);
+        }
+        return this;
+    }
+
+    private static String quoteListValue(String value) {
+        boolean needsQuotes = value.isEmpty();
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            needsQuotes = RESERVED_IN_LIST.indexOf(value.charAt(i)) >= 0;
+        }
+        if (!needsQuotes) {
+            return value;
+        }
+        return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    /**
+     * Kodiert nur, was in einem Query-Wert wirklich stören würde (z. B. "+" in Zeitzonen,
+     * "&", "#", Leerzeichen, Nicht-ASCII). Punkte, Kommas und Klammern bleiben lesbar.
+     */
+    static String encode(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xff;
+            if (c > 0x20 && c < 0x7f && "%&#+=?\"\\^`{|}<>[]".indexOf(c) < 0) {
+                out.append((char) c);
+            } else {
+                out.append('%').append(Character.toUpperCase(Character.forDigit(c >> 4, 16)))
+                        .append(Character.toUpperCase(Character.forDigit(c & 0xf, 16)));
+            }
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,484 @@
+package com.example.disciteomnes.network;
+
+import android.util.Log;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+
+/**
+ * Client für Supabase Realtime (Phoenix-Channels über eine WebSocket-Verbindung).
+ *
+ * Statt Listen nach jeder Änderung neu zu laden, abonniert die App Zeilenänderungen
+ * ("postgres_changes") einer Tabelle, eingeschränkt durch einen Filter – z. B. alle
+ * Lernpläne einer Gruppe ({@code group_id=eq.<id>}). Alle Abos teilen sich eine Verbindung:
+ * - die Verbindung wird beim ersten Abo geöffnet und nach dem letzten geschlossen,
+ * - ein Heartbeat hält sie offen und erkennt tote Verbindungen,
+ * - nach einem Abbruch wird mit wachsendem Abstand neu verbunden und alle Channels
+ *   werden erneut beigetreten; {@link Listener#onSubscribed()} meldet jeden (Wieder-)Beitritt,
+ *   damit verpasste Änderungen per Delta-Sync nachgeholt werden können.
+ */
+public class RealtimeClient {
+
+    private static final String TAG = "Realtime";
+
+    private static final long HEARTBEAT_INTERVAL_SECONDS = 25;
+    private static final long MAX_RECONNECT_DELAY_SECONDS = 30;
+
+    private static final String PHOENIX_TOPIC = "phoenix";
+
+    private static volatile RealtimeClient instance;
+
+    /**
+     * Empfänger für Zeilenänderungen eines Abos.
+     */
+    public interface Listener {
+
+        /**
+         * Der Channel wurde (erneut) erfolgreich beigetreten.
+         */
+        void onSubscribed();
+
+        /**
+         * Eine Zeile wurde eingefügt, geändert oder gelöscht.
+         *
+         * @param type      "INSERT", "UPDATE" oder "DELETE"
+         * @param record    die neue Zeile (bei DELETE leer)
+         * @param oldRecord die alte Zeile bzw. deren Primärschlüssel (bei INSERT leer)
+         */
+        void onChange(String type, JsonObject record, JsonObject oldRecord);
+    }
+
+    /**
+     * Handle eines Abos; {@link #unsubscribe()} beendet es.
+     */
+    public interface Subscription {
+        void unsubscribe();
+    }
+
+    /**
+     * Ein Phoenix-Channel = eine Tabelle mit einem Filter.
+     */
+    private static final class Channel {
+        final String topic;
+        final String table;
+        final String filter;
+        final List<Listener> listeners = new CopyOnWriteArrayList<>();
+        String joinRef;
+        boolean joined;
+
+        Channel(String topic, String table, String filter) {
+            this.topic = topic;
+            this.table = table;
+            this.filter = filter;
+        }
+    }
+
+    private final OkHttpClient client;
+    private final String url;
+    private final Supplier<String> accessToken;
+
+    private final Map<String, Channel> channels = new HashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    private WebSocket socket;
+    private boolean open;
+    private int nextRef;
+    private String pendingHeartbeatRef;
+    private int reconnectAttempts;
+    private ScheduledFuture<?> heartbeatTask;
+    private ScheduledFuture<?> reconnectTask;
+
+    /**
+     * @param client      der OkHttpClient für die WebSocket-Verbindung
+     * @param url         WebSocket-URL inkl. apikey, z. B. "wss://<ref>.supabase.co/realtime/v1/websocket?..."
+     * @param accessToken liefert das aktuelle JWT (für die Zeilenrechte beim Beitritt)
+     */
+    public RealtimeClient(OkHttpClient client, String url, Supplier<String> accessToken) {
+        this.client = client;
+        this.url = url;
+        this.accessToken = accessToken;
+    }
+
+    /**
+     * Gibt den prozessweiten Client für die Supabase-Instanz der App zurück.
+     * Er teilt sich Connection-Pool und Dispatcher mit den REST-Clients.
+     *
+     * @return der geteilte RealtimeClient
+     */
+    public static RealtimeClient getInstance() {
+        RealtimeClient current = instance;
+        if (current == null) {
+            synchronized (RealtimeClient.class) {
+                current = instance;
+                if (current == null) {
+                    // Ohne Lese-Timeout: die Verbindung ist zwischen Ereignissen oft lange still
+                    OkHttpClient wsClient = HttpClientProvider.getBaseClient().newBuilder()
+                            .readTimeout(0, TimeUnit.MILLISECONDS)
+                            .build();
+                    String wsUrl = HttpClientProvider.BASE_URL.replaceFirst("^https", "wss")
+                            + "realtime/v1/websocket?apikey=" + HttpClientProvider.SUPABASE_ANON_KEY
+                            + "&vsn=1.0.0";
+                    RealtimeClient created = new RealtimeClient(wsClient, wsUrl,
+                            () -> SessionManager.getInstance().getAccessToken());
+                    // Erneuerte Tokens an beigetretene Channels weitergeben
+                    SessionManager.getInstance().addTokenListener(created::updateAccessToken);
+                    current = created;
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Abonniert alle Änderungen einer Tabelle, die zum Filter passen.
+     *
+     * @param table    Tabellenname im Schema "public", z. B. "study_plans"
+     * @param filter   PostgREST-Filter, z. B. "group_id=eq.<id>"
+     * @param listener Empfänger der Änderungen (Aufruf auf einem Hintergrund-Thread)
+     * @return Handle zum Beenden des Abos
+     */
+    public synchronized Subscription subscribe(String table, String filter, Listener listener) {
+        String topic = "realtime:" + table + ":" + filter;
+        Channel channel = channels.get(topic);
+        if (channel == null) {
+            channel = new Channel(topic, table, filter);
+            channels.put(topic, channel);
+            channel.listeners.add(listener);
+            if (open) {
+                join(channel);
+            } else {
+                connect();
+            }
+        } else {
+            channel.listeners.add(listener);
+            if (channel.joined) {
+                listener.onSubscribed();
+            }
+        }
+
+        Channel subscribed = channel;
+        return () -> unsubscribe(subscribed, listener);
+    }
+
+    private synchronized void unsubscribe(Channel channel, Listener listener) {
+        channel.listeners.remove(listener);
+        if (!channel.listeners.isEmpty() || channels.get(channel.topic) != channel) {
+            return;
+        }
+        channels.remove(channel.topic);
+        if (open && channel.joined) {
+            send(channel.topic, "phx_leave", new JsonObject());
+        }
+        if (channels.isEmpty()) {
+            disconnect();
+        }
+    }
+
+    /**
+     * Gibt ein neues Access-Token an alle beigetretenen Channels weiter
+     * (z. B. nach einer Token-Erneuerung), damit die Zeilenrechte gültig bleiben.
+     *
+     * @param token das neue JWT
+     */
+    public synchronized void updateAccessToken(String token) {
+        if (!open || token == null) {
+            return;
+        }
+        for (Channel channel : channels.values()) {
+            if (channel.joined) {
+                JsonObject payload = new JsonObject();
+                payload.addProperty("access_token", token);
+                send(channel.topic, "access_token", payload);
+            }
+        }
+    }
+
+    /**
+     * Beendet alle Abos und schließt die Verbindung.
+     */
+    public synchronized void close() {
+        channels.clear();
+        disconnect();
+    }
+
+    // ───────────── Verbindung ─────────────
+
+    private void connect() {
+        if (socket != null) {
+            return;
+        }
+        Log.d(TAG, "Verbinde…");
+        Request request = new Request.Builder().url(url).build();
+        socket = client.newWebSocket(request, new SocketListener());
+    }
+
+    private void disconnect() {
+        cancel(heartbeatTask);
+        cancel(reconnectTask);
+        heartbeatTask = null;
+        reconnectTask = null;
+        if (socket != null) {
+            socket.close(1000, null);
+            socket = null;
+        }
+        open = false;
+        pendingHeartbeatRef = null;
+        reconnectAttempts = 0;
+    }
+
+    private synchronized void onOpen(WebSocket webSocket) {
+        if (webSocket != socket) {
+            return;
+        }
+        Log.d(TAG, "Verbunden");
+        open = true;
+        reconnectAttempts = 0;
+        pendingHeartbeatRef = null;
+        heartbeatTask = scheduler.scheduleWithFixedDelay(this::heartbeat,
+                HEARTBEAT_INTERVAL_SECONDS, HEARTBEAT_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        for (Channel channel : channels.values()) {
+            join(channel);
+        }
+    }
+
+    private synchronized void onLost(WebSocket webSocket, String reason) {
+        if (webSocket != socket) {
+            return;
+        }
+        Log.w(TAG, "Verbindung verloren: " + reason);
+        cancel(heartbeatTask);
+        heartbeatTask = null;
+        socket = null;
+        open = false;
+        pendingHeartbeatRef = null;
+        for (Channel channel : channels.values()) {
+            channel.joined = false;
+        }
+        if (!channels.isEmpty()) {
+            scheduleReconnect();
+        }
+    }
+
+    private void scheduleReconnect() {
+        long delay = Math.min(MAX_RECONNECT_DELAY_SECONDS, 1L << Math.min(reconnectAttempts, 5));
+        reconnectAttempts++;
+        Log.d(TAG, "Neuer Verbindungsversuch in " + delay + " s");
+        reconnectTask = scheduler.schedule(() -> {
+            synchronized (RealtimeClient.this) {
+                reconnectTask = null;
+                if (!channels.isEmpty()) {
+                    connect();
+                }
+            }
+        }, delay, TimeUnit.SECONDS);
+    }
+
+    private synchronized void heartbeat() {
+        if (!open || socket == null) {
+            return;
+        }
+        if (pendingHeartbeatRef != null) {
+            // Letzter Heartbeat unbeantwortet → Verbindung gilt als tot
+            WebSocket dead = socket;
+            dead.cancel();
+            onLost(dead, "Heartbeat-Timeout");
+            return;
+        }
+        pendingHeartbeatRef = send(PHOENIX_TOPIC, "heartbeat", new JsonObject());
+    }
+
+    private static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+
+    // ───────────── Channels ─────────────
+
+    private void join(Channel channel) {
+        JsonObject change = new JsonObject();
+        change.addProperty("event", "*");
+        change.addProperty("schema", "public");
+        change.addProperty("table", channel.table);
+        change.addProperty("filter", channel.filter);
+
+        JsonArray changes = new JsonArray();
+        changes.add(change);
+
+        JsonObject config = new JsonObject();
+        config.add("postgres_changes", changes);
+
+        JsonObject payload = new JsonObject();
+        payload.add("config", config);
+        String token = accessToken.get();
+        if (token != null) {
+            payload.addProperty("access_token", token);
+        }
+
+        channel.joined = false;
+        channel.joinRef = send(channel.topic, "phx_join", payload);
+    }
+
+    /**
+     * Sendet eine Phoenix-Nachricht und gibt deren Referenz zurück.
+     */
+    private String send(String topic, String event, JsonObject payload) {
+        String ref = String.valueOf(++nextRef);
+        JsonObject message = new JsonObject();
+        message.addProperty("topic", topic);
+        message.addProperty("event", event);
+        message.add("payload", payload);
+        message.addProperty("ref", ref);
+        if (socket != null) {
+            socket.send(message.toString());
+        }
+        return ref;
+    }
+
+    private void onMessage(WebSocket webSocket, String text) {
+        synchronized (this) {
+            // Nachzügler einer bereits ersetzten Verbindung verwerfen
+            if (webSocket != socket) {
+                return;
+            }
+        }
+        JsonObject message;
+        try {
+            message = JsonParser.parseString(text).getAsJsonObject();
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Unlesbare Nachricht: " + text);
+            return;
+        }
+        String topic = string(message, "topic");
+        String event = string(message, "event");
+        String ref   = string(message, "ref");
+        JsonObject payload = object(message, "payload");
+
+        if ("phx_reply".equals(event)) {
+            onReply(topic, ref, payload);
+        } else if ("postgres_changes".equals(event)) {
+            onPostgresChange(topic, object(payload, "data"));
+        } else if ("phx_error".equals(event) || "phx_close".equals(event)) {
+            onChannelClosed(topic, event);
+        }
+    }
+
+    private void onReply(String topic, String ref, JsonObject payload) {
+        List<Listener> toNotify = new ArrayList<>();
+        synchronized (this) {
+            if (PHOENIX_TOPIC.equals(topic)) {
+                if (ref != null && ref.equals(pendingHeartbeatRef)) {
+                    pendingHeartbeatRef = null;
+                }
+                return;
+            }
+            Channel channel = channels.get(topic);
+            if (channel == null || ref == null || !ref.equals(channel.joinRef)) {
+                return;
+            }
+            if ("ok".equals(string(payload, "status"))) {
+                channel.joined = true;
+                toNotify.addAll(channel.listeners);
+                Log.d(TAG, "Beigetreten: " + topic);
+            } else {
+                Log.w(TAG, "Beitritt abgelehnt: " + topic + " " + payload);
+            }
+        }
+        for (Listener listener : toNotify) {
+            listener.onSubscribed();
+        }
+    }
+
+    private void onPostgresChange(String topic, JsonObject data) {
+        Channel channel;
+        synchronized (this) {
+            channel = channels.get(topic);
+        }
+        if (channel == null) {
+            return;
+        }
+        String type = string(data, "type");
+        JsonObject record = object(data, "record");
+        JsonObject oldRecord = object(data, "old_record");
+        for (Listener listener : channel.listeners) {
+            listener.onChange(type, record, oldRecord);
+        }
+    }
+
+    private synchronized void onChannelClosed(String topic, String event) {
+        Channel channel = channels.get(topic);
+        if (channel == null || !open) {
+            return;
+        }
+        Log.w(TAG, event + " auf " + topic + " – trete erneut bei");
+        channel.joined = false;
+        scheduler.schedule(() -> {
+            synchronized (RealtimeClient.this) {
+                if (open && channels.get(topic) == channel && !channel.joined) {
+                    join(channel);
+                }
+            }
+        }, 1, TimeUnit.SECONDS);
+    }
+
+    private static String string(JsonObject object, String key) {
+        JsonElement value = object == null ? null : object.get(key);
+        return value == null || value.isJsonNull() ? null : value.getAsString();
+    }
+
+    private static JsonObject object(JsonObject object, String key) {
+        JsonElement value = object == null ? null : object.get(key);
+        return value != null && value.isJsonObject() ? value.getAsJsonObject() : new JsonObject();
+    }
+
+    /**
+     * Leitet die Ereignisse der WebSocket-Verbindung an den Client weiter.
+     */
+    private final class SocketListener extends WebSocketListener {
+
+        @Override
+        public void onOpen(WebSocket webSocket, Response response) {
+            RealtimeClient.this.onOpen(webSocket);
+        }
+
+        @Override
+        public void onMessage(WebSocket webSocket, String text) {
+            RealtimeClient.this.onMessage(webSocket, text);
+        }
+
+        @Override
+        public void onClosing(WebSocket webSocket, int code, String reason) {
+            webSocket.close(1000, null);
+        }
+
+        @Override
+        public void onClosed(WebSocket webSocket, int code, String reason) {
+            onLost(webSocket, "geschlossen (" + code + ")");
+        }
+
+        @Override
+        public void onFailure(WebSocket webSocket, Throwable t, Response response) {
+            onLost(webSocket, t.getMessage());
+        }
+    }
+}
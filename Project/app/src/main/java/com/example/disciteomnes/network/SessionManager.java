@@ -0,0 +1,360 @@
+package com.example.disciteomnes.network;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.example.disciteomnes.data.dto.LoginResponse;
+import com.example.disciteomnes.data.dto.RefreshTokenRequest;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import retrofit2.Response;
+
+/**
+ * Diese Klasse hält die aktuelle Sitzung des eingeloggten Benutzers im Speicher:
+ * Access-Token (JWT), Refresh-Token, Benutzer-ID und Ablaufzeit.
+ *
+ * Der gemeinsame HTTP-Client liest das Token bei jeder Anfrage hier aus, statt es beim
+ * Erstellen des Clients fest einzubauen. Dadurch kann das Token (z. B. nach Login, Logout
+ * oder Erneuerung) ausgetauscht werden, ohne einen neuen Client bauen zu müssen.
+ *
+ * Die Sitzung wird zusätzlich in den SharedPreferences "auth" gespeichert und beim
+ * App-Start einmal in {@link #init(Context)} geladen; Activities lesen sie nur noch hier.
+ *
+ * Erneuerung:
+ * - proaktiv im Hintergrund kurz vor Ablauf des Access-Tokens
+ * - bei einer 401-Antwort über den {@link TokenAuthenticator} (einmalig, danach wird die
+ *   Anfrage mit dem neuen Token wiederholt)
+ * Lehnt Supabase Auth das Refresh-Token ab, ist die Sitzung beendet; die Empfänger aus
+ * {@link #addSessionExpiredListener} werden benachrichtigt (die App wechselt zum Login).
+ */
+public class SessionManager {
+
+    private static final String TAG = "Session";
+
+    private static final SessionManager INSTANCE = new SessionManager();
+
+    // Name der SharedPreferences und Schlüssel der Sitzungsdaten
+    private static final String PREFS = "auth";
+    private static final String KEY_ACCESS_TOKEN  = "access_token";
+    private static final String KEY_REFRESH_TOKEN = "refresh_token";
+    private static final String KEY_USER_ID       = "user_id";
+    private static final String KEY_EXPIRES_AT    = "expires_at";
+
+    // So lange vor Ablauf wird das Token erneuert
+    private static final long REFRESH_MARGIN_SECONDS = 60;
+
+    // Wartezeit bis zum nächsten Versuch, wenn die Erneuerung am Netz scheitert
+    private static final long RETRY_DELAY_SECONDS = 30;
+
+    // Die aktuellen Sitzungsdaten – null, wenn niemand eingeloggt ist
+    private volatile String accessToken;
+    private volatile String refreshToken;
+    private volatile String userId;
+    private volatile long expiresAt;
+
+    private final List<Consumer<String>> tokenListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> sessionExpiredListeners = new CopyOnWriteArrayList<>();
+
+    // Laufende Erneuerung, auf die gleichzeitige 401-Aufrufer warten (null, wenn keine läuft)
+    private CompletableFuture<String> refreshing;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "session-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+    private ScheduledFuture<?> refreshTask;
+
+    private SharedPreferences prefs;
+
+    private SessionManager() { }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @return die einzige SessionManager-Instanz
+     */
+    public static SessionManager getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Lädt eine gespeicherte Sitzung und plant ihre Erneuerung. Wird einmal beim App-Start
+     * aufgerufen (siehe DisciteOmnesApp), bevor die erste Activity sie liest.
+     *
+     * @param context beliebiger Context (es wird der Application-Context verwendet)
+     */
+    public synchronized void init(Context context) {
+        if (prefs != null) {
+            return;
+        }
+        prefs = context.getApplicationContext().getSharedPreferences(PREFS, Context.MODE_PRIVATE);
+        accessToken  = prefs.getString(KEY_ACCESS_TOKEN, null);
+        refreshToken = prefs.getString(KEY_REFRESH_TOKEN, null);
+        userId       = prefs.getString(KEY_USER_ID, null);
+        expiresAt    = prefs.getLong(KEY_EXPIRES_AT, 0);
+        scheduleRefresh();
+    }
+
+    /**
+     * Übernimmt die Sitzung aus einer Login-Antwort.
+     *
+     * Benutzer-ID und Ablaufzeit stehen im JWT selbst und werden lokal ausgelesen.
+     *
+     * @param response die Antwort von Supabase Auth
+     * @return true, wenn das Token lesbar war und die Sitzung besteht
+     */
+    public boolean start(LoginResponse response) {
+        JwtDecoder.Claims claims = JwtDecoder.decode(response.getAccessToken());
+        if (claims == null) {
+            return false;
+        }
+        synchronized (this) {
+            apply(response, claims);
+        }
+        return true;
+    }
+
+    /**
+     * @return true, wenn eine Sitzung besteht (auch wenn das Access-Token gerade abgelaufen ist)
+     */
+    public boolean isLoggedIn() {
+        return accessToken != null && userId != null;
+    }
+
+    /**
+     * Gibt das aktuell gültige Access-Token zurück.
+     *
+     * @return das JWT oder null, wenn keine Sitzung besteht
+     */
+    public String getAccessToken() {
+        return accessToken;
+    }
+
+    /**
+     * Gibt die ID des eingeloggten Benutzers zurück.
+     *
+     * @return die Benutzer-ID (Claim "sub") oder null, wenn keine Sitzung besteht
+     */
+    public String getUserId() {
+        return userId;
+    }
+
+    /**
+     * Registriert einen Empfänger für erneuerte Access-Tokens (z. B. den Realtime-Client).
+     *
+     * @param listener wird auf dem Thread der Erneuerung mit dem neuen JWT aufgerufen
+     */
+    public void addTokenListener(Consumer<String> listener) {
+        tokenListeners.add(listener);
+    }
+
+    /**
+     * Registriert einen Empfänger für das Ende der Sitzung durch den Server (Refresh-Token
+     * widerrufen oder abgelaufen), z. B. um zum Login zu wechseln. Ein Logout über
+     * {@link #clear()} löst ihn nicht aus.
+     *
+     * @param listener wird auf dem Thread der Erneuerung aufgerufen
+     */
+    public void addSessionExpiredListener(Runnable listener) {
+        sessionExpiredListeners.add(listener);
+    }
+
+    /**
+     * Erneuert das Access-Token, nachdem eine Anfrage mit {@code failedToken} abgelehnt wurde.
+     *
+     * Laufen mehrere Anfragen gleichzeitig in eine 401, wird nur einmal erneuert: wer während
+     * einer laufenden Erneuerung kommt, wartet auf deren Ergebnis; wer danach kommt, sieht ein
+     * anderes Token als sein abgelehntes und bekommt es direkt.
+     * Blockiert während der Anfrage an Supabase Auth – nicht auf dem Main-Thread aufrufen.
+     *
+     * @param failedToken das Token der abgelehnten Anfrage
+     * @return das neue Token oder null, wenn die Sitzung nicht erneuert werden konnte
+     */
+    public String refreshAfter(String failedToken) {
+        return refresh(failedToken);
+    }
+
+    /**
+     * Beendet die aktuelle Sitzung (z. B. beim Logout) und löscht die gespeicherten Daten.
+     */
+    public synchronized void clear() {
+        accessToken = null;
+        refreshToken = null;
+        userId = null;
+        expiresAt = 0;
+        cancelRefresh();
+        if (prefs != null) {
+            prefs.edit()
+                    .remove(KEY_ACCESS_TOKEN)
+                    .remove(KEY_REFRESH_TOKEN)
+                    .remove(KEY_USER_ID)
+                    .remove(KEY_EXPIRES_AT)
+                    .apply();
+        }
+    }
+
+    // ───────────── Erneuerung ─────────────
+
+    /**
+     * Erneuert die Sitzung oder wartet auf eine bereits laufende Erneuerung.
+     *
+     * Die Sperre wird nur zum Lesen des Refresh-Tokens und zum Übernehmen des Ergebnisses
+     * gehalten, nie während der Anfrage – Login, Logout und {@link #init} auf dem Main-Thread
+     * warten so nie auf das Netz.
+     *
+     * @param failedToken abgelehntes Token (null bei der proaktiven Erneuerung)
+     * @return das neue Access-Token oder null
+     */
+    private String refresh(String failedToken) {
+        CompletableFuture<String> pending;
+        String token;
+        synchronized (this) {
+            if (failedToken != null && accessToken != null && !accessToken.equals(failedToken)) {
+                return accessToken;
+            }
+            if (refreshing != null) {
+                pending = refreshing;
+                token = null;
+            } else {
+                if (refreshToken == null) {
+                    return null;
+                }
+                pending = refreshing = new CompletableFuture<>();
+                token = refreshToken;
+            }
+        }
+        if (token == null) {
+            return pending.join();
+        }
+
+        String result = null;
+        try {
+            result = requestNewSession(token);
+        } finally {
+            synchronized (this) {
+                refreshing = null;
+            }
+            pending.complete(result);
+        }
+        return result;
+    }
+
+    /**
+     * Holt mit dem Refresh-Token eine neue Sitzung. Läuft ohne gehaltene Sperre; wurde die
+     * Sitzung inzwischen beendet oder ersetzt, wird das Ergebnis verworfen.
+     *
+     * @param token das Refresh-Token, mit dem die Erneuerung begonnen hat
+     * @return das neue Access-Token oder null
+     */
+    private String requestNewSession(String token) {
+        try {
+            Response<LoginResponse> response = AuthClient.getApi()
+                    .refreshToken(new RefreshTokenRequest(token))
+                    .execute();
+
+            if (response.isSuccessful() && response.body() != null) {
+                JwtDecoder.Claims claims = JwtDecoder.decode(response.body().getAccessToken());
+                if (claims != null) {
+                    synchronized (this) {
+                        if (!token.equals(refreshToken)) {
+                            // Logout oder neuer Login während der Anfrage
+                            return accessToken;
+                        }
+                        apply(response.body(), claims);
+                    }
+                    Log.d(TAG, "Token erneuert");
+                    return response.body().getAccessToken();
+                }
+            }
+
+            if (response.code() >= 400 && response.code() < 500) {
+                // Refresh-Token widerrufen oder abgelaufen → Sitzung ist zu Ende
+                Log.w(TAG, "Erneuerung abgelehnt: " + response.code());
+                synchronized (this) {
+                    if (!token.equals(refreshToken)) {
+                        return accessToken;
+                    }
+                    clear();
+                }
+                for (Runnable listener : sessionExpiredListeners) {
+                    listener.run();
+                }
+                return null;
+            }
+            Log.w(TAG, "Erneuerung fehlgeschlagen: " + response.code());
+        } catch (IOException e) {
+            Log.w(TAG, "Erneuerung fehlgeschlagen: " + e.getMessage());
+        }
+
+        // Vorübergehender Fehler: Sitzung behalten und später erneut versuchen
+        synchronized (this) {
+            if (token.equals(refreshToken)) {
+                schedule(RETRY_DELAY_SECONDS);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Übernimmt neue Tokens, speichert sie und plant die nächste Erneuerung.
+     */
+    private void apply(LoginResponse response, JwtDecoder.Claims claims) {
+        accessToken = response.getAccessToken();
+        if (response.getRefreshToken() != null) {
+            refreshToken = response.getRefreshToken();
+        }
+        userId = claims.getSubject();
+        expiresAt = claims.getExpiresAt() > 0
+                ? claims.getExpiresAt()
+                : System.currentTimeMillis() / 1000 + response.getExpiresIn();
+
+        if (prefs != null) {
+            prefs.edit()
+                    .putString(KEY_ACCESS_TOKEN, accessToken)
+                    .putString(KEY_REFRESH_TOKEN, refreshToken)
+                    .putString(KEY_USER_ID, userId)
+                    .putLong(KEY_EXPIRES_AT, expiresAt)
+                    .apply();
+        }
+
+        scheduleRefresh();
+        for (Consumer<String> listener : tokenListeners) {
+            listener.accept(accessToken);
+        }
+    }
+
+    /**
+     * Plant die proaktive Erneuerung kurz vor Ablauf des aktuellen Access-Tokens.
+     */
+    private synchronized void scheduleRefresh() {
+        if (refreshToken == null || expiresAt <= 0) {
+            cancelRefresh();
+            return;
+        }
+        long now = System.currentTimeMillis() / 1000;
+        schedule(Math.max(0, expiresAt - REFRESH_MARGIN_SECONDS - now));
+    }
+
+    private synchronized void schedule(long delaySeconds) {
+        cancelRefresh();
+        refreshTask = scheduler.schedule(() -> refresh(null), delaySeconds, TimeUnit.SECONDS);
+    }
+
+    private synchronized void cancelRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+            refreshTask = null;
+        }
+    }
+}
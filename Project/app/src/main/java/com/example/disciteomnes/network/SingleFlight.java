@@ -0,0 +1,232 @@
+package com.example.disciteomnes.network;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+/**
+ * Fasst gleichzeitige, identische GET-Anfragen zu einem einzigen Netzwerkaufruf zusammen.
+ *
+ * Mehrere Bildschirme fragen beim Navigieren oft direkt hintereinander dieselbe Liste ab
+ * (z. B. die Gruppen des Benutzers). Läuft für denselben Schlüssel bereits ein Aufruf, wird
+ * der neue Callback nur angehängt und erhält dieselbe, bereits geparste Antwort. Erfolgreiche
+ * Antworten bleiben zusätzlich für ein kurzes Zeitfenster ({@link #MEMO_WINDOW_MS}) gültig.
+ *
+ * Der Schlüssel besteht aus Methode, Pfad, den sortierten Query-Parametern, dem Prefer-Header
+ * und dem eingeloggten Benutzer; Abfragen aus {@link PostgrestQuery} sind bereits kanonisch.
+ * Nach einem Schreibzugriff auf eine Tabelle verwirft
+ * {@link CacheInvalidationInterceptor} die gemerkten Antworten dieses Pfads über {@link #invalidate(String)}.
+ *
+ * Alle Callbacks werden – wie bei Retrofit – auf dem Main-Thread aufgerufen.
+ * Die geteilte Antwort darf von den Empfängern nicht verändert werden.
+ */
+public final class SingleFlight {
+
+    private static final String TAG = "SingleFlight";
+
+    // So lange wird eine erfolgreiche Antwort für identische Anfragen wiederverwendet
+    static final long MEMO_WINDOW_MS = 2_000;
+
+    private static final SingleFlight INSTANCE = new SingleFlight();
+
+    /**
+     * Ein laufender Aufruf samt aller wartenden Empfänger.
+     */
+    private static final class Flight {
+        final String path;
+        final List<Callback<Object>> callbacks = new ArrayList<>();
+
+        Flight(String path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Eine gemerkte, erfolgreiche Antwort.
+     */
+    private static final class Memo {
+        final String path;
+        final Response<Object> response;
+        final long storedAt;
+
+        Memo(String path, Response<Object> response, long storedAt) {
+            this.path = path;
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final Map<String, Flight> inFlight = new HashMap<>();
+    private final Map<String, Memo> memos = new HashMap<>();
+    private final LongSupplier clock;
+    private final Executor mainThread;
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong memoHits = new AtomicLong();
+
+    private SingleFlight() {
+        this(SystemClock::elapsedRealtime, new Handler(Looper.getMainLooper())::post);
+    }
+
+    /**
+     * Für Tests: eigene Uhr (Millisekunden) und eigene Zustellung gemerkter Antworten.
+     */
+    SingleFlight(LongSupplier clock, Executor mainThread) {
+        this.clock = clock;
+        this.mainThread = mainThread;
+    }
+
+    /**
+     * Gibt die prozessweite Instanz zurück.
+     *
+     * @return die einzige SingleFlight-Instanz
+     */
+    public static SingleFlight getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Führt den Aufruf aus oder hängt sich an einen identischen, bereits laufenden an.
+     *
+     * Nur GET-Anfragen werden zusammengefasst; alle anderen werden unverändert ausgeführt.
+     *
+     * @param call     der (noch nicht ausgeführte) Retrofit-Aufruf
+     * @param callback Empfänger der Antwort
+     * @param <T>      Typ des Antwort-Bodys
+     */
+    @SuppressWarnings("unchecked")
+    public <T> void enqueue(Call<T> call, Callback<T> callback) {
+        Request request = call.request();
+        if (!"GET".equals(request.method())) {
+            call.enqueue(callback);
+            return;
+        }
+
+        String key = keyOf(request);
+        Callback<Object> waiting = (Callback<Object>) (Callback<?>) callback;
+        Call<Object> shared = (Call<Object>) (Call<?>) call;
+
+        synchronized (this) {
+            Memo memo = memos.get(key);
+            if (memo != null && clock.getAsLong() - memo.storedAt <= MEMO_WINDOW_MS) {
+                memoHits.incrementAndGet();
+                Log.d(TAG, snapshot());
+                mainThread.execute(() -> waiting.onResponse(shared, memo.response));
+                return;
+            }
+
+            Flight flight = inFlight.get(key);
+            if (flight != null) {
+                coalesced.incrementAndGet();
+                flight.callbacks.add(waiting);
+                Log.d(TAG, snapshot());
+                return;
+            }
+
+            flight = new Flight(request.url().encodedPath());
+            flight.callbacks.add(waiting);
+            inFlight.put(key, flight);
+            issued.incrementAndGet();
+        }
+
+        shared.enqueue(new Callback<Object>() {
+            @Override
+            public void onResponse(Call<Object> c, Response<Object> response) {
+                for (Callback<Object> cb : finish(key, response)) {
+                    cb.onResponse(c, response);
+                }
+            }
+
+            @Override
+            public void onFailure(Call<Object> c, Throwable t) {
+                for (Callback<Object> cb : finish(key, null)) {
+                    cb.onFailure(c, t);
+                }
+            }
+        });
+    }
+
+    /**
+     * Verwirft alle gemerkten Antworten eines Pfads (z. B. "/rest/v1/group_members"),
+     * damit nach einem Schreibzugriff frische Daten geladen werden.
+     *
+     * @param encodedPath der geschriebene Pfad
+     */
+    public synchronized void invalidate(String encodedPath) {
+        Iterator<Memo> it = memos.values().iterator();
+        while (it.hasNext()) {
+            if (it.next().path.equals(encodedPath)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Verwirft alle gemerkten Antworten (z. B. beim Logout).
+     */
+    public synchronized void clear() {
+        memos.clear();
+    }
+
+    /**
+     * Beendet einen Aufruf, merkt sich eine erfolgreiche Antwort und liefert alle Empfänger.
+     */
+    private synchronized List<Callback<Object>> finish(String key, Response<Object> response) {
+        Flight flight = inFlight.remove(key);
+        if (flight == null) {
+            return new ArrayList<>();
+        }
+        if (response != null && response.isSuccessful()) {
+            memos.put(key, new Memo(flight.path, response, clock.getAsLong()));
+        }
+        return flight.callbacks;
+    }
+
+    /**
+     * Bildet die kanonische Identität einer Anfrage: Methode, Pfad, sortierte Query-Parameter,
+     * Prefer-Header (z. B. count=estimated) und der Benutzer, in dessen Namen sie gestellt wird.
+     */
+    static String keyOf(Request request) {
+        HttpUrl url = request.url();
+        Map<String, List<String>> params = new TreeMap<>();
+        for (String name : url.queryParameterNames()) {
+            params.put(name, url.queryParameterValues(name));
+        }
+        return request.method() + " " + url.encodedPath() + "?" + params
+                + " [" + request.header("Prefer") + "]"
+                + " @" + SessionManager.getInstance().getUserId();
+    }
+
+    /**
+     * Gibt den aktuellen Stand aller Zähler als lesbaren Text zurück.
+     *
+     * @return z. B. "issued=12 coalesced=7 memoHits=3"
+     */
+    public String snapshot() {
+        return String.format(Locale.ROOT, "issued=%d coalesced=%d memoHits=%d",
+                issued.get(), coalesced.get(), memoHits.get());
+    }
+
+    public long getIssued()    { return issued.get(); }
+    public long getCoalesced() { return coalesced.get(); }
+    public long getMemoHits()  { return memoHits.get(); }
+}
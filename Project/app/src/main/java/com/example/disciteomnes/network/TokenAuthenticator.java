@@ -0,0 +1,42 @@
+package com.example.disciteomnes.network;
+
+import okhttp3.Authenticator;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.Route;
+
+/**
+ * OkHttp-Authenticator, der bei einer 401-Antwort das Access-Token einmal erneuert und
+ * die Anfrage mit dem neuen Token wiederholt.
+ *
+ * Der Aufrufer (Callback, Outbox, Abgleich) bemerkt davon nichts – er erhält direkt die
+ * Antwort der wiederholten Anfrage. Scheitert die Erneuerung, wird die 401 durchgereicht.
+ */
+public class TokenAuthenticator implements Authenticator {
+
+    private static final String BEARER = "Bearer ";
+
+    @Override
+    public Request authenticate(Route route, Response response) {
+        String header = response.request().header("Authorization");
+        if (header == null || !header.startsWith(BEARER)) {
+            // Anfrage ohne Benutzer-Token – eine Erneuerung hilft hier nicht
+            return null;
+        }
+
+        // Nur einmal pro Anfrage erneuern, sonst wäre eine Schleife möglich
+        if (response.priorResponse() != null) {
+            return null;
+        }
+
+        String failedToken = header.substring(BEARER.length());
+        String freshToken = SessionManager.getInstance().refreshAfter(failedToken);
+        if (freshToken == null) {
+            return null;
+        }
+
+        return response.request().newBuilder()
+                .header("Authorization", BEARER + freshToken)
+                .build();
+    }
+}
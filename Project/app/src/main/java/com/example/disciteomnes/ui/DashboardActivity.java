@@ -3,6 +3,7 @@ package com.example.disciteomnes.ui;
 import android.content.Intent;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.view.View;
 import android.widget.Button;
 import android.widget.TextView;
 import android.widget.Toast;
@@ -12,49 +13,58 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
-import com.example.disciteomnes.data.dto.GroupMemberResponse;
-import com.example.disciteomnes.data.models.Group;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.data.dto.DashboardSummary;
+import com.example.disciteomnes.data.local.AppDatabase;
+import com.example.disciteomnes.data.models.Task;
+import com.example.disciteomnes.data.repository.DashboardRepository;
+import com.example.disciteomnes.data.repository.GroupRepository;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.HttpClientProvider;
+import com.example.disciteomnes.network.SessionManager;
+import com.example.disciteomnes.network.SingleFlight;
 import com.example.disciteomnes.ui.GroupAdapter;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 /**
  * DashboardActivity zeigt dem eingeloggten Benutzer:
+ * - seine offenen Aufgaben und die nächsten Fälligkeiten,
+ * - je Gruppe den nächsten fälligen Lernschritt,
  * - seine Gruppen (als Vorschau),
  * - Navigation zu: Gruppen, Aufgaben, Planer und Gruppen-Erstellung.
  *
- * Beim Start werden Benutzerdaten aus SharedPreferences gelesen,
- * Gruppen geladen und ein RecyclerView initialisiert.
+ * Beim Start wird die Sitzung aus dem SessionManager gelesen und die gesamte Übersicht
+ * mit einem einzigen Aufruf ({@link DashboardRepository}) geladen.
  */
 public class DashboardActivity extends AppCompatActivity {
 
     // UI-Elemente
-    private TextView tvWelcome;
+    private TextView tvWelcome, tvOpenTasks, tvNextTasks, tvNextSteps;
     private Button btnMyGroups, btnPlanner, btnMyTasks, btnCreateGroup, btnLogout;
     private RecyclerView recyclerGroups;
 
     // Adapter + Datenquelle
     private GroupAdapter adapter;
-    private List<Group> groupList = new ArrayList<>();
 
-    // API-Instanz
-    private DisciteOmnesApi api;
+    // Lokale Gruppenliste (Room) und Übersicht (ein Aufruf von dashboard_summary)
+    private GroupRepository groupRepository;
+    private DashboardRepository dashboardRepository;
+
+    // Wurde reportFullyDrawn() für diese Instanz bereits gemeldet?
+    private boolean fullyDrawn;
+
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_dashboard);
+        LoginMetrics.dashboardCreated();
 
         // ─────────── UI initialisieren ───────────
         tvWelcome      = findViewById(R.id.tvWelcome);
+        tvOpenTasks    = findViewById(R.id.tvOpenTasks);
+        tvNextTasks    = findViewById(R.id.tvNextTasks);
+        tvNextSteps    = findViewById(R.id.tvNextSteps);
         btnMyGroups    = findViewById(R.id.btnMyGroups);
         btnPlanner     = findViewById(R.id.btnPlanner);
         btnMyTasks     = findViewById(R.id.btnMyTasks);
@@ -62,10 +72,9 @@ public class DashboardActivity extends AppCompatActivity {
         btnLogout      = findViewById(R.id.btnLogout);
         recyclerGroups = findViewById(R.id.recyclerGroups);
 
-        // ─────────── Auth-Informationen auslesen ───────────
+        // ─────────── Sitzung und Anzeigenamen auslesen ───────────
+        SessionManager session = SessionManager.getInstance();
         SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        String jwt      = prefs.getString("access_token", null);
-        String userId   = prefs.getString("user_id", null);
         String username = prefs.getString("username", null);
 
         if (username != null) {
@@ -73,23 +82,23 @@ public class DashboardActivity extends AppCompatActivity {
         }
 
         // Bei fehlender Authentifizierung zurück zum Login
-        if (jwt == null || userId == null) {
+        if (!session.isLoggedIn()) {
             Toast.makeText(this, "Nicht angemeldet", Toast.LENGTH_SHORT).show();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
             return;
         }
 
-        // Retrofit-API initialisieren mit JWT
-        api = DatabaseClient.getInstance(jwt).create(DisciteOmnesApi.class);
+        groupRepository = GroupRepository.getInstance(this);
+        dashboardRepository = DashboardRepository.getInstance(this);
 
         // ─────────── Gruppenübersicht (RecyclerView) ───────────
         recyclerGroups.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new GroupAdapter(groupList);
+        adapter = new GroupAdapter();
         recyclerGroups.setAdapter(adapter);
 
-        // Benutzer-Gruppen laden
-        loadUserGroups(userId);
+        // Gruppen und Übersicht laden
+        loadDashboard(prefs);
 
         // ─────────── Navigation Buttons ───────────
         btnMyGroups.setOnClickListener(v ->
@@ -107,6 +116,12 @@ public class DashboardActivity extends AppCompatActivity {
         btnLogout.setOnClickListener(v -> {
             // Auth-Infos löschen & zurück zum Login
             prefs.edit().clear().apply();
+            SessionManager.getInstance().clear();
+            HttpClientProvider.clearCache();
+            SingleFlight.getInstance().clear();
+            dashboardRepository.clear();
+            AppDatabase.databaseWriteExecutor.execute(() ->
+                    AppDatabase.getInstance(getApplicationContext()).clearAllTables());
             Intent intent = new Intent(DashboardActivity.this, LoginActivity.class);
             intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
             startActivity(intent);
@@ -115,40 +130,103 @@ public class DashboardActivity extends AppCompatActivity {
     }
 
     /**
-     * Lädt alle Gruppen, denen der aktuelle Benutzer zugeordnet ist.
-     * Holt Daten aus Supabase (Tabelle group_members → groups JOIN).
+     * Zeigt die lokal gespeicherten Gruppen und die zuletzt geladene Übersicht sofort an und
+     * lädt danach alles mit einem Aufruf neu: Gruppen (landen in der lokalen Datenbank),
+     * offene Aufgaben, nächste Fälligkeiten und der nächste Lernschritt je Gruppe.
      *
-     * @param userId ID des aktuellen Benutzers
+     * @param prefs Auth-Einstellungen (für die Standard-group_id)
      */
-    private void loadUserGroups(String userId) {
-        // Komplette URL mit Filter und relationalem Select
-        String url = "https://pruclodpzbyfoaeuefvf.supabase.co/rest/v1/group_members"
-                + "?select=group:groups(id,name)&user_id=eq." + userId;
+    private void loadDashboard(SharedPreferences prefs) {
+        // Die Datenbank liefert die Gruppen bereits alphabetisch sortiert
+        groupRepository.observeGroups().observe(this, groups -> {
+            adapter.submitList(groups);
+
+            if (!groups.isEmpty()) {
+                // Standardgruppe für den Planer, falls der Login-Abruf noch nicht fertig war
+                if (prefs.getString("group_id", null) == null) {
+                    prefs.edit().putString("group_id", groups.get(0).getId()).apply();
+                }
+                reportDrawnOnce();
+            }
+        });
 
-        api.getGroupsByUser(url).enqueue(new Callback<List<GroupMemberResponse>>() {
+        dashboardRepository.observeSummary().observe(this, this::showSummary);
+
+        dashboardRepository.refresh(calls.keep(new ToastCallback<DashboardSummary>(this) {
             @Override
-            public void onResponse(Call<List<GroupMemberResponse>> call, Response<List<GroupMemberResponse>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    groupList.clear();
-                    for (GroupMemberResponse gmr : response.body()) {
-                        groupList.add(gmr.getGroup());
-                    }
-                    // Alphabetisch sortieren (case-insensitive)
-                    groupList.sort(Comparator.comparing(Group::getName, String.CASE_INSENSITIVE_ORDER));
-                    adapter.notifyDataSetChanged();
-                } else {
-                    Toast.makeText(DashboardActivity.this,
-                            "Laden der Gruppen fehlgeschlagen: " + response.code(),
-                            Toast.LENGTH_SHORT).show();
-                }
+            public void onSuccess(DashboardSummary result) {
+                // Auch ohne Gruppen ist die Übersicht jetzt vollständig
+                reportDrawnOnce();
             }
 
             @Override
-            public void onFailure(Call<List<GroupMemberResponse>> call, Throwable t) {
-                Toast.makeText(DashboardActivity.this,
-                        "Netzwerkfehler: " + t.getMessage(),
-                        Toast.LENGTH_SHORT).show();
+            public void onError(String message) {
+                super.onError(message);
+                reportDrawnOnce();
             }
-        });
+        }));
+    }
+
+    /**
+     * Zeigt offene Aufgaben, die nächsten Fälligkeiten und den nächsten Schritt je Gruppe.
+     *
+     * @param summary die Übersicht (null, solange noch keine geladen ist)
+     */
+    private void showSummary(DashboardSummary summary) {
+        if (summary == null) {
+            tvOpenTasks.setText("");
+            tvNextTasks.setVisibility(View.GONE);
+            tvNextSteps.setVisibility(View.GONE);
+            return;
+        }
+
+        String open = summary.getOpenTasks() == 1 ? "1 offene Aufgabe" : summary.getOpenTasks() + " offene Aufgaben";
+        if (summary.getOverdueTasks() > 0) {
+            open += " (" + summary.getOverdueTasks() + " überfällig)";
+        }
+        tvOpenTasks.setText(open);
+
+        StringBuilder tasks = new StringBuilder();
+        for (Task task : summary.getNextTasks()) {
+            appendLine(tasks, task.getDue_date() + "  " + task.getTitle());
+        }
+        showOrHide(tvNextTasks, tasks);
+
+        StringBuilder steps = new StringBuilder();
+        for (DashboardSummary.GroupSummary group : summary.getGroups()) {
+            DashboardSummary.NextStep step = group.getNextStep();
+            if (step != null) {
+                appendLine(steps, group.getName() + ": " + step.getTitle()
+                        + " (" + step.getPlanTitle() + ", " + step.getDueDate() + ")");
+            }
+        }
+        if (steps.length() > 0) {
+            steps.insert(0, "Nächste Lernschritte:\n");
+        }
+        showOrHide(tvNextSteps, steps);
+    }
+
+    private static void appendLine(StringBuilder text, String line) {
+        if (text.length() > 0) {
+            text.append('\n');
+        }
+        text.append(line);
+    }
+
+    private static void showOrHide(TextView view, CharSequence text) {
+        view.setText(text);
+        view.setVisibility(text.length() > 0 ? View.VISIBLE : View.GONE);
+    }
+
+    /**
+     * Meldet dem System (und der Login-Messung), dass die Übersicht vollständig angezeigt wird.
+     */
+    private void reportDrawnOnce() {
+        if (fullyDrawn) {
+            return;
+        }
+        fullyDrawn = true;
+        reportFullyDrawn();
+        LoginMetrics.dashboardDrawn();
     }
 }
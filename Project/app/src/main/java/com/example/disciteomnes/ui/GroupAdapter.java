@@ -10,31 +10,44 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
 import com.example.disciteomnes.data.models.Group;
 
-import java.util.List;
+import java.util.Objects;
 
 /**
  * RecyclerView-Adapter zur Anzeige einer Liste von Gruppen.
  *
  * Für jede Gruppe wird ein Eintrag mit dem Gruppennamen und der UUID angezeigt.
  * Die UUID kann durch Antippen in die Zwischenablage kopiert werden.
+ *
+ * Neue Listen kommen über {@link #submitList} und werden im Hintergrund mit der alten
+ * verglichen (siehe {@link ListDiffing}); nur geänderte Zeilen werden neu gebunden.
  */
-public class GroupAdapter extends RecyclerView.Adapter<GroupAdapter.GroupViewHolder> {
+public class GroupAdapter extends ListAdapter<Group, GroupAdapter.GroupViewHolder> {
+
+    // Vergleich zweier Gruppen: gleiche UUID = gleicher Eintrag, Inhalt über den Namen
+    private static final DiffUtil.ItemCallback<Group> DIFF = new DiffUtil.ItemCallback<Group>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Group a, @NonNull Group b) {
+            return a.getId().equals(b.getId());
+        }
 
-    // Liste aller Gruppen, die angezeigt werden sollen
-    private final List<Group> groupList;
+        @Override
+        public boolean areContentsTheSame(@NonNull Group a, @NonNull Group b) {
+            return Objects.equals(a.getName(), b.getName());
+        }
+    };
 
     /**
-     * Konstruktor zum Initialisieren des Adapters mit einer Liste von Gruppen.
-     *
-     * @param groupList Liste von Group-Objekten
+     * Konstruktor: erstellt einen leeren Adapter. Daten kommen über submitList(...).
      */
-    public GroupAdapter(List<Group> groupList) {
-        this.groupList = groupList;
+    public GroupAdapter() {
+        super(ListDiffing.config(DIFF));
     }
 
     /**
@@ -54,26 +67,7 @@ public class GroupAdapter extends RecyclerView.Adapter<GroupAdapter.GroupViewHol
      */
     @Override
     public void onBindViewHolder(@NonNull GroupViewHolder holder, int position) {
-        Group group = groupList.get(position);
-        holder.tvGroupName.setText(group.getName());
-        holder.tvGroupUUID.setText("UUID: " + group.getId());
-
-        // Beim Klick auf die UUID → in die Zwischenablage kopieren
-        holder.tvGroupUUID.setOnClickListener(v -> {
-            Context context = v.getContext();
-            ClipboardManager clipboard = (ClipboardManager) context.getSystemService(Context.CLIPBOARD_SERVICE);
-            ClipData clip = ClipData.newPlainText("UUID", group.getId());
-            clipboard.setPrimaryClip(clip);
-            Toast.makeText(context, "UUID kopiert", Toast.LENGTH_SHORT).show();
-        });
-    }
-
-    /**
-     * Gibt die Anzahl der Gruppen zurück.
-     */
-    @Override
-    public int getItemCount() {
-        return groupList.size();
+        holder.bind(getItem(position));
     }
 
     /**
@@ -85,11 +79,28 @@ public class GroupAdapter extends RecyclerView.Adapter<GroupAdapter.GroupViewHol
     public static class GroupViewHolder extends RecyclerView.ViewHolder {
         TextView tvGroupName;
         TextView tvGroupUUID;
+        private Group group;
 
         public GroupViewHolder(@NonNull View itemView) {
             super(itemView);
             tvGroupName = itemView.findViewById(R.id.tvGroupName);
             tvGroupUUID = itemView.findViewById(R.id.tvGroupUUID);
+
+            // Beim Klick auf die UUID → in die Zwischenablage kopieren (Listener nur einmal setzen)
+            tvGroupUUID.setOnClickListener(v -> {
+                if (group == null) return;
+                Context context = v.getContext();
+                ClipboardManager clipboard = (ClipboardManager) context.getSystemService(Context.CLIPBOARD_SERVICE);
+                ClipData clip = ClipData.newPlainText("UUID", group.getId());
+                clipboard.setPrimaryClip(clip);
+                Toast.makeText(context, "UUID kopiert", Toast.LENGTH_SHORT).show();
+            });
+        }
+
+        void bind(Group group) {
+            this.group = group;
+            tvGroupName.setText(group.getName());
+            tvGroupUUID.setText("UUID: " + group.getId());
         }
     }
 }
@@ -1,7 +1,6 @@
 package com.example.disciteomnes.ui;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.widget.Button;
 import android.widget.EditText;
@@ -12,22 +11,11 @@ import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
-import com.example.disciteomnes.data.dto.GroupMemberRequest;
-import com.example.disciteomnes.data.dto.GroupMemberResponse;
-import com.example.disciteomnes.data.dto.GroupRequest;
 import com.example.disciteomnes.data.models.Group;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.data.repository.GroupRepository;
 import com.example.disciteomnes.ui.GroupAdapter;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.SessionManager;
 
 /**
  * Ermöglicht das Erstellen neuer Gruppen und den Beitritt zu bestehenden Gruppen.
@@ -42,14 +30,16 @@ public class GroupCreateActivity extends AppCompatActivity {
 
     // Gruppenanzeige
     private GroupAdapter adapter;
-    private List<Group> groupList = new ArrayList<>();
 
-    // API-Zugriff
-    private DisciteOmnesApi api;
+    // Gruppen-Repository (Room + Supabase)
+    private GroupRepository repository;
 
     // Aktuelle Benutzer-ID
     private String userId;
 
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -66,22 +56,20 @@ public class GroupCreateActivity extends AppCompatActivity {
 
         // ─────────── RecyclerView für Gruppenübersicht ───────────
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new GroupAdapter(groupList);
+        adapter = new GroupAdapter();
         recyclerView.setAdapter(adapter);
 
-        // ─────────── Authentifizierung auslesen ───────────
-        SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        String jwt = prefs.getString("access_token", null);
-        userId     = prefs.getString("user_id",      null);
+        // ─────────── Authentifizierung prüfen ───────────
+        SessionManager session = SessionManager.getInstance();
+        userId = session.getUserId();
 
-        if (jwt == null || userId == null) {
+        if (!session.isLoggedIn()) {
             Toast.makeText(this, "Nicht angemeldet", Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
 
-        // API-Client mit JWT initialisieren
-        api = DatabaseClient.getInstance(jwt).create(DisciteOmnesApi.class);
+        repository = GroupRepository.getInstance(this);
 
         // Gruppen anzeigen
         loadGroups();
@@ -99,7 +87,7 @@ public class GroupCreateActivity extends AppCompatActivity {
 
     /**
      * Erstellt eine neue Gruppe basierend auf dem eingegebenen Gruppennamen.
-     * Nach erfolgreicher Erstellung wird der Benutzer automatisch beigetreten.
+     * Erstellen und Beitreten erledigt ein einziger Serveraufruf.
      */
     private void createGroup() {
         String name = etGroupName.getText().toString().trim();
@@ -108,26 +96,15 @@ public class GroupCreateActivity extends AppCompatActivity {
             return;
         }
 
-        GroupRequest request = new GroupRequest(name);
-        api.addGroup(request).enqueue(new Callback<List<Group>>() {
+        // Neue Gruppe anlegen und direkt beitreten; sie erscheint über die lokale Datenbank
+        repository.createGroup(name, calls.keep(new ToastCallback<Group>(this) {
             @Override
-            public void onResponse(Call<List<Group>> call, Response<List<Group>> response) {
-                if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
-                    // Neue Gruppe direkt beitreten
-                    String newGroupId = response.body().get(0).getId();
-                    joinGroupWithId(newGroupId);
-                } else {
-                    Toast.makeText(GroupCreateActivity.this,
-                            "Erstellen fehlgeschlagen", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<List<Group>> call, Throwable t) {
+            public void onSuccess(Group group) {
                 Toast.makeText(GroupCreateActivity.this,
-                        "Netzwerkfehler beim Erstellen", Toast.LENGTH_SHORT).show();
+                        "Beitritt erfolgreich", Toast.LENGTH_SHORT).show();
+                etGroupName.setText("");
             }
-        });
+        }));
     }
 
     /**
@@ -144,62 +121,28 @@ public class GroupCreateActivity extends AppCompatActivity {
 
     /**
      * Tritt einer Gruppe anhand der ID bei.
-     * Nach erfolgreichem Beitritt wird die Gruppenliste aktualisiert.
+     * Der Beitritt wird über die Outbox gesendet (auch offline); danach erscheint die Gruppe in der Liste.
      *
      * @param groupId UUID der Gruppe
      */
     private void joinGroupWithId(String groupId) {
-        GroupMemberRequest req = new GroupMemberRequest(userId, groupId);
-        api.joinGroup(req).enqueue(new Callback<Void>() {
-            @Override
-            public void onResponse(Call<Void> call, Response<Void> resp) {
-                if (resp.isSuccessful() || resp.code() == 204) {
-                    Toast.makeText(GroupCreateActivity.this,
-                            "Beitritt erfolgreich", Toast.LENGTH_SHORT).show();
-                    loadGroups();
-                } else {
-                    Toast.makeText(GroupCreateActivity.this,
-                            "Beitreten fehlgeschlagen: " + resp.code(), Toast.LENGTH_SHORT).show();
-                }
-            }
-
+        repository.joinGroup(userId, groupId, calls.keep(new ToastCallback<Void>(this) {
             @Override
-            public void onFailure(Call<Void> call, Throwable t) {
+            public void onSuccess(Void result) {
                 Toast.makeText(GroupCreateActivity.this,
-                        "Netzwerkfehler beim Beitreten", Toast.LENGTH_SHORT).show();
+                        "Beitritt vorgemerkt", Toast.LENGTH_SHORT).show();
+                etJoinGroupId.setText("");
             }
-        });
+        }));
     }
 
     /**
-     * Lädt alle Gruppen, in denen der Benutzer Mitglied ist, und aktualisiert das RecyclerView.
+     * Zeigt alle Gruppen, in denen der Benutzer Mitglied ist, aus der lokalen Datenbank an
+     * und gleicht sie einmalig mit Supabase ab.
      */
     private void loadGroups() {
-        String url = "https://pruclodpzbyfoaeuefvf.supabase.co/rest/v1/group_members"
-                + "?select=group:groups(id,name)&user_id=eq." + userId;
-
-        api.getGroupsByUser(url).enqueue(new Callback<List<GroupMemberResponse>>() {
-            @Override
-            public void onResponse(Call<List<GroupMemberResponse>> call,
-                                   Response<List<GroupMemberResponse>> resp) {
-                if (resp.isSuccessful() && resp.body() != null) {
-                    groupList.clear();
-                    for (GroupMemberResponse gmr : resp.body()) {
-                        groupList.add(gmr.getGroup());
-                    }
-                    Collections.sort(groupList, Comparator.comparing(Group::getName));
-                    adapter.notifyDataSetChanged();
-                } else {
-                    Toast.makeText(GroupCreateActivity.this,
-                            "Fehler beim Laden der Gruppen", Toast.LENGTH_SHORT).show();
-                }
-            }
+        repository.observeGroups().observe(this, adapter::submitList);
 
-            @Override
-            public void onFailure(Call<List<GroupMemberResponse>> call, Throwable t) {
-                Toast.makeText(GroupCreateActivity.this,
-                        "Netzwerkfehler beim Laden", Toast.LENGTH_SHORT).show();
-            }
-        });
+        repository.refresh(userId, calls.keep(new ToastCallback<>(this)));
     }
 }
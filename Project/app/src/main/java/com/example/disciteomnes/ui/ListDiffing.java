@@ -0,0 +1,44 @@
+package com.example.disciteomnes.ui;
+
+import androidx.recyclerview.widget.AsyncDifferConfig;
+import androidx.recyclerview.widget.DiffUtil;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+/**
+ * Gemeinsame Konfiguration für die ListAdapter der App.
+ *
+ * Neue Listen werden auf einem eigenen Hintergrund-Thread mit der alten verglichen; auf dem
+ * Main-Thread kommen danach nur die tatsächlichen Einfügungen, Verschiebungen und Änderungen
+ * an. Ein Thread genügt – die Listen sind klein und werden selten gleichzeitig neu geladen.
+ *
+ * Auf demselben Thread werden auch die Anzeigemodelle (z. B. {@link StepItem}) berechnet.
+ */
+final class ListDiffing {
+
+    private static final Executor DIFF_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "list-diff");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private ListDiffing() { }
+
+    /**
+     * @return der Hintergrund-Thread für Listenvergleiche und Anzeigemodelle
+     */
+    static Executor executor() {
+        return DIFF_EXECUTOR;
+    }
+
+    /**
+     * @param callback Vergleich nach ID (gleicher Eintrag) und Inhalt (gleiche Anzeige)
+     * @return Konfiguration, die auf dem gemeinsamen Hintergrund-Thread vergleicht
+     */
+    static <T> AsyncDifferConfig<T> config(DiffUtil.ItemCallback<T> callback) {
+        return new AsyncDifferConfig.Builder<>(callback)
+                .setBackgroundThreadExecutor(DIFF_EXECUTOR)
+                .build();
+    }
+}
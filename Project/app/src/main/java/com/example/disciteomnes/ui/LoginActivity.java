@@ -11,19 +11,17 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.disciteomnes.R;
-import com.example.disciteomnes.data.dto.GroupMemberResponse;
 import com.example.disciteomnes.data.dto.LoginRequest;
 import com.example.disciteomnes.data.dto.LoginResponse;
 import com.example.disciteomnes.data.models.Profile;
+import com.example.disciteomnes.data.repository.DashboardRepository;
+import com.example.disciteomnes.data.repository.ProfileRepository;
+import com.example.disciteomnes.data.repository.RepositoryCallback;
 import com.example.disciteomnes.network.AuthClient;
-import com.example.disciteomnes.network.DatabaseClient;
+import com.example.disciteomnes.network.CallRegistry;
 import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.SessionManager;
 
-import org.json.JSONObject;
-
-import java.util.List;
-
-import okhttp3.ResponseBody;
 import retrofit2.Call;
 import retrofit2.Callback;
 import retrofit2.Response;
@@ -31,15 +29,19 @@ import retrofit2.Response;
 /**
  * Diese Activity verwaltet den Login-Vorgang:
  * 1. Login über Supabase Auth (E-Mail + Passwort)
- * 2. Abruf von User-Daten (user_id)
- * 3. Profil-Erstellung bei Bedarf (pending_name aus Registrierung)
- * 4. Speichern von Token, user_id und optional group_id
+ * 2. Sitzung im SessionManager einrichten (user_id und Ablaufzeit direkt aus dem JWT)
+ * 3. sofort zum Dashboard wechseln
+ * 4. parallel im Hintergrund: Profil-Erstellung bei Bedarf (pending_name aus Registrierung)
+ *    und Laden der Dashboard-Übersicht (inkl. Gruppen)
  */
 public class LoginActivity extends AppCompatActivity {
 
     private EditText etEmail, etPassword;
     private Button   btnLogin, btnToRegister;
 
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -64,7 +66,7 @@ public class LoginActivity extends AppCompatActivity {
     /**
      * Führt den Login durch:
      * - sendet LoginRequest an Supabase Auth
-     * - ruft bei Erfolg das JWT ab
+     * - richtet bei Erfolg die Sitzung direkt aus dem JWT ein
      */
     private void attemptLogin() {
         String email    = etEmail.getText().toString().trim();
@@ -75,21 +77,20 @@ public class LoginActivity extends AppCompatActivity {
             return;
         }
 
-        DisciteOmnesApi authApi = AuthClient
-                .getInstance() // Nur mit apikey
-                .create(DisciteOmnesApi.class);
+        LoginMetrics.loginStarted();
+        DisciteOmnesApi authApi = AuthClient.getApi(); // Nur mit apikey
 
-        authApi.login(new LoginRequest(email, password))
-                .enqueue(new Callback<LoginResponse>() {
+        calls.enqueue(authApi.login(new LoginRequest(email, password)),
+                new Callback<LoginResponse>() {
                     @Override
                     public void onResponse(Call<LoginResponse> call, Response<LoginResponse> resp) {
+                        LoginMetrics.authResponded();
                         if (!resp.isSuccessful() || resp.body() == null) {
                             showToast("Login fehlgeschlagen: " + resp.code());
                             return;
                         }
 
-                        String jwt = resp.body().getAccessToken();
-                        fetchUserDetails(jwt);
+                        startSession(resp.body());
                     }
 
                     @Override
@@ -100,97 +101,62 @@ public class LoginActivity extends AppCompatActivity {
     }
 
     /**
-     * Holt die user_id via `auth/v1/user` und speichert sie.
-     * Falls pending_name vorhanden ist → Profil erstellen.
-     * Danach → group_id abfragen und speichern.
+     * Richtet die Sitzung aus der Login-Antwort ein und öffnet sofort das Dashboard.
+     *
+     * Die user_id steht als Claim "sub" im JWT – ein zusätzlicher Aufruf von `auth/v1/user`
+     * ist nicht nötig. Der SessionManager speichert Access- und Refresh-Token und erneuert
+     * die Sitzung vor Ablauf selbst. Profil-Erstellung und Laden der Übersicht laufen parallel
+     * im Hintergrund; das Dashboard hängt sich an den bereits laufenden Abruf an (SingleFlight).
      */
-    private void fetchUserDetails(String jwt) {
-        DisciteOmnesApi api = DatabaseClient
-                .getInstance(jwt) // apikey + Authorization: Bearer jwt
-                .create(DisciteOmnesApi.class);
-
-        api.getUser().enqueue(new Callback<ResponseBody>() {
-            @Override
-            public void onResponse(Call<ResponseBody> call, Response<ResponseBody> resp) {
-                if (!resp.isSuccessful() || resp.body() == null) {
-                    showToast("Fehler beim Laden des Benutzers");
-                    return;
-                }
-
-                try {
-                    JSONObject userJson = new JSONObject(resp.body().string());
-                    String userId = userJson.getString("id");
-
-                    // SharedPreferences vorbereiten
-                    SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-                    final SharedPreferences.Editor editor = prefs.edit();
-
-                    editor.putString("access_token", jwt);
-                    editor.putString("user_id", userId);
-
-                    // Profil erstellen, falls "pending_name" aus Registrierung vorhanden ist
-                    String pendingName = prefs.getString("pending_name", null);
-                    if (pendingName != null) {
-                        Profile profile = new Profile(userId, pendingName);
-                        api.createProfile(profile).enqueue(new Callback<Profile>() {
-                            @Override
-                            public void onResponse(Call<Profile> c, Response<Profile> r) {
-                                Log.d("Profile", "Profil gespeichert");
-                            }
-
-                            @Override
-                            public void onFailure(Call<Profile> c, Throwable t) {
-                                Log.e("Profile", "Fehler beim Speichern: " + t.getMessage());
-                            }
-                        });
-                        editor.remove("pending_name");
-                    }
+    private void startSession(LoginResponse response) {
+        SessionManager session = SessionManager.getInstance();
+        if (!session.start(response)) {
+            showToast("Fehler beim Verarbeiten des Benutzers");
+            return;
+        }
+        String userId = session.getUserId();
 
-                    // Gruppeninformationen laden
-                    fetchGroupId(api, userId, editor);
+        // Profil erstellen, falls "pending_name" aus Registrierung vorhanden ist
+        SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
+        String pendingName = prefs.getString("pending_name", null);
+        if (pendingName != null) {
+            prefs.edit().remove("pending_name").apply();
+        }
 
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    showToast("Fehler beim Verarbeiten des Benutzers");
-                }
-            }
+        // Beide Anfragen starten gleichzeitig und blockieren den Wechsel zum Dashboard nicht
+        if (pendingName != null) {
+            createProfile(userId, pendingName);
+        }
+        prefetchDashboard();
 
-            @Override
-            public void onFailure(Call<ResponseBody> call, Throwable t) {
-                showToast("Verbindungsfehler: " + t.getMessage());
-            }
-        });
+        startActivity(new Intent(this, DashboardActivity.class));
+        finish();
     }
 
     /**
-     * Fragt die erste Gruppe des Benutzers ab und speichert deren ID.
-     * Danach wird zur DashboardActivity navigiert.
+     * Legt das Profil mit dem bei der Registrierung gewählten Namen an.
      */
-    private void fetchGroupId(DisciteOmnesApi api, String userId, SharedPreferences.Editor editor) {
-        String url = "rest/v1/group_members?select=group:groups(id,name)&user_id=eq." + userId;
-
-        api.getGroupsByUser(url).enqueue(new Callback<List<GroupMemberResponse>>() {
-            @Override
-            public void onResponse(Call<List<GroupMemberResponse>> call, Response<List<GroupMemberResponse>> resp) {
-                if (resp.isSuccessful() && resp.body() != null && !resp.body().isEmpty()) {
-                    String groupId = resp.body().get(0).getGroupId();
-                    editor.putString("group_id", groupId);
-                } else {
-                    Log.w("Login", "Keine Gruppe gefunden");
-                }
-
-                // Alle Änderungen speichern und weiterleiten
-                editor.apply();
-                startActivity(new Intent(LoginActivity.this, DashboardActivity.class));
-                finish();
-            }
-
-            @Override
-            public void onFailure(Call<List<GroupMemberResponse>> call, Throwable t) {
-                editor.apply(); // editor trotzdem speichern
-                showToast("Fehler beim Laden der Gruppe: " + t.getMessage());
-            }
-        });
+    private void createProfile(String userId, String name) {
+        ProfileRepository.getInstance(this)
+                .createProfile(new Profile(userId, name), new RepositoryCallback<Profile>() {
+                    @Override
+                    public void onSuccess(Profile result) {
+                        Log.d("Profile", "Profil gespeichert");
+                    }
+
+                    @Override
+                    public void onError(String message) {
+                        Log.e("Profile", "Fehler beim Speichern: " + message);
+                    }
+                });
+    }
+
+    /**
+     * Startet den Abruf der Dashboard-Übersicht (Gruppen, Aufgaben, Fälligkeiten) schon jetzt.
+     * Läuft über das Ende dieser Activity hinaus; Fehler meldet das Dashboard selbst.
+     */
+    private void prefetchDashboard() {
+        DashboardRepository.getInstance(this).refresh(null);
     }
 
     /**
@@ -0,0 +1,88 @@
+package com.example.disciteomnes.ui;
+
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.Locale;
+
+/**
+ * Misst die Zeit vom Tippen auf "Login" bis zur ersten vollständig gezeichneten Übersicht
+ * (time-to-dashboard).
+ *
+ * Gemessen wird in drei Abschnitten:
+ * - auth: Antwort von Supabase Auth (einziger Netzwerk-Roundtrip auf dem kritischen Pfad)
+ * - start: Sitzung eingerichtet → DashboardActivity erzeugt
+ * - total: Login-Klick → Gruppenliste angezeigt ({@code reportFullyDrawn})
+ *
+ * Die Werte werden in Logcat (Tag "LoginMetrics") ausgegeben und bleiben bis zum
+ * nächsten Login abrufbar.
+ */
+public final class LoginMetrics {
+
+    private static final String TAG = "LoginMetrics";
+
+    // Zeitstempel (elapsedRealtime) – 0 = nicht gesetzt
+    private static long loginStartedAt;
+    private static long authRespondedAt;
+    private static long dashboardCreatedAt;
+
+    // Zuletzt gemessene Gesamtdauer in ms (-1 = noch keine Messung)
+    private static long lastTimeToDashboard = -1;
+
+    private LoginMetrics() { }
+
+    /**
+     * Startet eine neue Messung (Login-Button gedrückt).
+     */
+    public static synchronized void loginStarted() {
+        loginStartedAt = SystemClock.elapsedRealtime();
+        authRespondedAt = 0;
+        dashboardCreatedAt = 0;
+    }
+
+    /**
+     * Supabase Auth hat geantwortet.
+     */
+    public static synchronized void authResponded() {
+        if (loginStartedAt != 0) {
+            authRespondedAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    /**
+     * Die DashboardActivity wurde erzeugt.
+     */
+    public static synchronized void dashboardCreated() {
+        if (loginStartedAt != 0 && dashboardCreatedAt == 0) {
+            dashboardCreatedAt = SystemClock.elapsedRealtime();
+        }
+    }
+
+    /**
+     * Die Übersicht ist vollständig gezeichnet. Schließt die laufende Messung ab;
+     * ohne vorherigen Login (z. B. Rückkehr aus einem anderen Bildschirm) passiert nichts.
+     */
+    public static synchronized void dashboardDrawn() {
+        if (loginStartedAt == 0) {
+            return;
+        }
+        long now = SystemClock.elapsedRealtime();
+        lastTimeToDashboard = now - loginStartedAt;
+        Log.i(TAG, String.format(Locale.ROOT, "timeToDashboard=%dms auth=%dms start=%dms",
+                lastTimeToDashboard,
+                span(loginStartedAt, authRespondedAt),
+                span(authRespondedAt, dashboardCreatedAt)));
+        loginStartedAt = 0;
+    }
+
+    /**
+     * @return die Dauer der letzten abgeschlossenen Messung in ms oder -1
+     */
+    public static synchronized long getLastTimeToDashboard() {
+        return lastTimeToDashboard;
+    }
+
+    private static long span(long from, long to) {
+        return (from == 0 || to == 0) ? -1 : to - from;
+    }
+}
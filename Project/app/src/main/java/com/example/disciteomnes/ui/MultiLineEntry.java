@@ -0,0 +1,62 @@
+package com.example.disciteomnes.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Liest mehrzeilige Eingaben für das Anlegen vieler Einträge auf einmal.
+ *
+ * Jede nicht-leere Zeile ist ein Eintrag. Ein Datum kann hinter einem Semikolon pro Zeile
+ * angegeben werden, sonst gilt das Datum aus dem Datumsfeld:
+ * <pre>
+ * Kapitel 1 lesen; 2025-07-07
+ * Kapitel 2 lesen; 2025-07-08
+ * Übungsblatt abgeben
+ * </pre>
+ */
+final class MultiLineEntry {
+
+    /**
+     * Ein Eintrag aus einer Zeile.
+     */
+    static final class Line {
+        final String title;
+        final String date;
+
+        Line(String title, String date) {
+            this.title = title;
+            this.date = date;
+        }
+    }
+
+    private MultiLineEntry() { }
+
+    /**
+     * Zerlegt die Eingabe in Einträge.
+     *
+     * @param text        Inhalt des Titelfelds
+     * @param defaultDate Datum für Zeilen ohne eigenes Datum (darf leer sein)
+     * @return die Einträge in Eingabereihenfolge oder null, wenn einer Zeile Titel oder Datum fehlt
+     */
+    static List<Line> parse(String text, String defaultDate) {
+        List<Line> lines = new ArrayList<>();
+        for (String raw : text.split("\n")) {
+            String line = raw.trim();
+            if (line.isEmpty()) {
+                continue;
+            }
+            String title = line;
+            String date = defaultDate.trim();
+            int separator = line.lastIndexOf(';');
+            if (separator >= 0) {
+                title = line.substring(0, separator).trim();
+                date = line.substring(separator + 1).trim();
+            }
+            if (title.isEmpty() || date.isEmpty()) {
+                return null;
+            }
+            lines.add(new Line(title, date));
+        }
+        return lines;
+    }
+}
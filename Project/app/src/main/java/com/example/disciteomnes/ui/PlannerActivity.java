@@ -8,30 +8,29 @@ import android.widget.EditText;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
 import com.example.disciteomnes.data.dto.StudyPlanRequest;
-import com.example.disciteomnes.data.models.StudyPlan;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import com.example.disciteomnes.data.sync.RealtimeSync;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.RealtimeClient;
+import com.example.disciteomnes.network.SessionManager;
 
 public class PlannerActivity extends AppCompatActivity {
 
     private RecyclerView recyclerPlans;
     private EditText etTitle;
     private Button btnAdd, btnBackToDashboard;
-    private DisciteOmnesApi api;
+    private PlannerViewModel viewModel;
     private StudyPlanAdapter adapter;
-    private String groupId, jwt;
+    private String groupId;
+    private RealtimeClient.Subscription realtime;   // Live-Änderungen der Gruppe, solange sichtbar
+
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -45,21 +44,22 @@ public class PlannerActivity extends AppCompatActivity {
         btnAdd = findViewById(R.id.btnAddPlan);
         btnBackToDashboard = findViewById(R.id.btnBackToDashboard);
 
-        // ─── JWT und group_id laden ─────
+        // ─── Sitzung prüfen, Standardgruppe laden ─────
         SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        jwt = prefs.getString("access_token", null);
         groupId = prefs.getString("group_id", null);
 
-        if (jwt == null || groupId == null) {
+        if (!SessionManager.getInstance().isLoggedIn() || groupId == null) {
             Toast.makeText(this, "Nicht angemeldet oder Gruppe fehlt", Toast.LENGTH_SHORT).show();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
             return;
         }
 
-        // ─── API & Adapter ───────────────
-        api = DatabaseClient.getInstance(jwt).create(DisciteOmnesApi.class);
-        adapter = new StudyPlanAdapter(new ArrayList<>(), plan -> {
+        // ─── ViewModel & Adapter ────────
+        // Die Pläne liegen im ViewModel und überleben Konfigurationswechsel
+        viewModel = new ViewModelProvider(this).get(PlannerViewModel.class);
+        viewModel.start(groupId);
+        adapter = new StudyPlanAdapter(plan -> {
             Intent i = new Intent(PlannerActivity.this, StudyStepsActivity.class);
             i.putExtra("plan_id", plan.getId());
             startActivity(i);
@@ -80,45 +80,41 @@ public class PlannerActivity extends AppCompatActivity {
             }
 
             StudyPlanRequest req = new StudyPlanRequest(groupId, title);
-            api.addStudyPlan(req).enqueue(new Callback<Void>() {
+            viewModel.addPlan(req, calls.keep(new ToastCallback<Void>(this) {
                 @Override
-                public void onResponse(Call<Void> call, Response<Void> resp) {
-                    if (resp.isSuccessful()) {
-                        Toast.makeText(PlannerActivity.this, "Hinzugefügt", Toast.LENGTH_SHORT).show();
-                        etTitle.setText("");
-                        loadPlans();  // Liste neu laden
-                    } else {
-                        Toast.makeText(PlannerActivity.this, "Fehler beim Speichern", Toast.LENGTH_SHORT).show();
-                    }
+                public void onSuccess(Void result) {
+                    // Neuer Plan erscheint über die lokale Datenbank – kein Neuladen nötig
+                    Toast.makeText(PlannerActivity.this, "Hinzugefügt", Toast.LENGTH_SHORT).show();
+                    etTitle.setText("");
                 }
-
-                @Override
-                public void onFailure(Call<Void> call, Throwable t) {
-                    Toast.makeText(PlannerActivity.this, "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-                }
-            });
+            }));
         });
 
-        // ─── Initiales Laden ─────────────
-        loadPlans();
+        // ─── Lokale Pläne anzeigen (abgeglichen wird nur beim ersten Start) ───
+        viewModel.getPlans().observe(this, adapter::updateData);
+        viewModel.getMessage().observe(this, message -> {
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+                viewModel.consumeMessage();
+            }
+        });
     }
 
-    private void loadPlans() {
-        api.getStudyPlans("eq." + groupId).enqueue(new Callback<List<StudyPlan>>() {
-            @Override
-            public void onResponse(Call<List<StudyPlan>> call, Response<List<StudyPlan>> resp) {
-                if (resp.isSuccessful() && resp.body() != null) {
-                    adapter.updateData(resp.body());
-                } else {
-                    Toast.makeText(PlannerActivity.this, "Keine Pläne gefunden", Toast.LENGTH_SHORT).show();
-                    adapter.updateData(new ArrayList<>()); // auch bei leerer Antwort updaten
-                }
-            }
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Änderungen anderer Gruppenmitglieder live übernehmen
+        if (groupId != null) {
+            realtime = RealtimeSync.getInstance(this).watchStudyPlans(groupId);
+        }
+    }
 
-            @Override
-            public void onFailure(Call<List<StudyPlan>> call, Throwable t) {
-                Toast.makeText(PlannerActivity.this, "Fehler beim Laden: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (realtime != null) {
+            realtime.unsubscribe();
+            realtime = null;
+        }
     }
 }
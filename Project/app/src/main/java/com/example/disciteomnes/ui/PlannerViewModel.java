@@ -0,0 +1,53 @@
+package com.example.disciteomnes.ui;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+
+import com.example.disciteomnes.data.dto.StudyPlanRequest;
+import com.example.disciteomnes.data.models.StudyPlan;
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+import com.example.disciteomnes.data.repository.StudyPlanRepository;
+
+import java.util.List;
+
+/**
+ * Zustand des Planers (Lernpläne der Standardgruppe), unabhängig vom Lebenszyklus der Activity.
+ */
+public class PlannerViewModel extends ScreenViewModel {
+
+    private final StudyPlanRepository repository;
+    private LiveData<List<StudyPlan>> plans;
+
+    public PlannerViewModel(@NonNull Application application) {
+        super(application);
+        repository = StudyPlanRepository.getInstance(application);
+    }
+
+    /**
+     * Bindet das ViewModel an eine Gruppe und gleicht beim ersten Mal mit Supabase ab.
+     *
+     * @param groupId ID der Gruppe
+     */
+    void start(String groupId) {
+        if (!firstStart()) {
+            return;
+        }
+        plans = repository.observePlans(groupId);
+        repository.refreshPlans(groupId, reportErrors());
+    }
+
+    LiveData<List<StudyPlan>> getPlans() {
+        return plans;
+    }
+
+    /**
+     * Legt einen Plan an; er erscheint über die lokale Datenbank in der Liste.
+     *
+     * @param callback Rückmeldung an die Activity (z. B. Eingabefeld leeren)
+     */
+    void addPlan(StudyPlanRequest request, RepositoryCallback<Void> callback) {
+        repository.addPlan(request, callback);
+    }
+}
@@ -10,9 +10,13 @@ import android.widget.Toast;
 import androidx.appcompat.app.AppCompatActivity;
 
 import com.example.disciteomnes.R;
+import com.example.disciteomnes.data.dto.LoginResponse;
 import com.example.disciteomnes.data.dto.RegisterRequest;
+import com.example.disciteomnes.data.repository.DashboardRepository;
 import com.example.disciteomnes.network.AuthClient;
+import com.example.disciteomnes.network.CallRegistry;
 import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.SessionManager;
 
 import java.io.IOException;
 
@@ -22,15 +26,20 @@ import retrofit2.Response;
 
 /**
  * Diese Activity ermöglicht neuen Benutzern die Registrierung per E-Mail und Passwort.
- * Nach erfolgreicher Registrierung wird der Benutzer zur LoginActivity weitergeleitet.
- * Der angegebene Name wird in SharedPreferences zwischengespeichert, damit beim Login
- * automatisch ein Profil angelegt werden kann.
+ *
+ * Liefert Supabase mit der Registrierung bereits eine Sitzung (E-Mail-Bestätigung aus),
+ * wird sie direkt übernommen und das Dashboard geöffnet; das Profil legt ein Trigger aus dem
+ * mitgeschickten Namen an. Sonst geht es wie bisher zur LoginActivity: der Name wird in
+ * SharedPreferences zwischengespeichert und beim ersten Login per Upsert als Profil gespeichert.
  */
 public class RegisterActivity extends AppCompatActivity {
 
     EditText etName, etEmail, etPassword;
     Button btnRegisterUser, btnBackToLogin;
 
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
+
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -55,15 +64,20 @@ public class RegisterActivity extends AppCompatActivity {
                 return;
             }
 
-            RegisterRequest authReq = new RegisterRequest(email, password);
+            // Der Name geht als Metadatum mit – das Profil legt der Signup-Trigger an
+            RegisterRequest authReq = new RegisterRequest(email, password, name);
 
             // Supabase Auth-API
-            DisciteOmnesApi authApi = AuthClient.getInstance().create(DisciteOmnesApi.class);
+            DisciteOmnesApi authApi = AuthClient.getApi();
 
-            authApi.register(authReq).enqueue(new Callback<Void>() {
+            calls.enqueue(authApi.register(authReq), new Callback<LoginResponse>() {
                 @Override
-                public void onResponse(Call<Void> call, Response<Void> response) {
+                public void onResponse(Call<LoginResponse> call, Response<LoginResponse> response) {
+                    if (response.isSuccessful() && startSession(response.body(), name)) {
+                        return;
+                    }
                     if (response.isSuccessful()) {
+                        // E-Mail-Bestätigung aktiv: keine Sitzung, Anmeldung erst nach Bestätigung.
                         // ✅ Name temporär speichern (für Profil-Erstellung in LoginActivity)
                         SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
                         prefs.edit().putString("pending_name", name).apply();
@@ -90,7 +104,7 @@ public class RegisterActivity extends AppCompatActivity {
                 }
 
                 @Override
-                public void onFailure(Call<Void> call, Throwable t) {
+                public void onFailure(Call<LoginResponse> call, Throwable t) {
                     showToast("Verbindungsfehler: " + t.getMessage());
                 }
             });
@@ -103,6 +117,30 @@ public class RegisterActivity extends AppCompatActivity {
         });
     }
 
+    /**
+     * Übernimmt die Sitzung aus der Signup-Antwort und öffnet direkt das Dashboard –
+     * ohne zweite Eingabe der Zugangsdaten und ohne erneuten Login-Aufruf.
+     *
+     * @param response die Signup-Antwort
+     * @param name     der gewählte Anzeigename
+     * @return false, wenn die Antwort keine Sitzung enthält (E-Mail-Bestätigung aktiv)
+     */
+    private boolean startSession(LoginResponse response, String name) {
+        if (response == null || response.getAccessToken() == null
+                || !SessionManager.getInstance().start(response)) {
+            return false;
+        }
+        getSharedPreferences("auth", MODE_PRIVATE).edit().putString("username", name).apply();
+
+        // Übersicht schon laden, während das Dashboard startet (es hängt sich an diesen Abruf an)
+        DashboardRepository.getInstance(this).refresh(null);
+
+        showToast("✅ Registrierung erfolgreich!");
+        startActivity(new Intent(this, DashboardActivity.class));
+        finish();
+        return true;
+    }
+
     /**
      * Zeigt eine Toast-Nachricht im UI.
      *
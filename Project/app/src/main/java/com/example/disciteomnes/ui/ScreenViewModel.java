@@ -0,0 +1,73 @@
+package com.example.disciteomnes.ui;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+
+/**
+ * Gemeinsame Basis der ViewModels einer Listen-Ansicht.
+ *
+ * Das ViewModel überlebt Drehungen und andere Konfigurationswechsel: die beobachteten Listen
+ * bleiben erhalten, der Abgleich mit Supabase läuft nur beim ersten Öffnen, und laufende
+ * Aufrufe melden sich hier statt bei einer womöglich schon zerstörten Activity.
+ *
+ * Fehlermeldungen werden als {@link #getMessage()} bereitgestellt; die Activity zeigt sie an
+ * und bestätigt sie mit {@link #consumeMessage()}, damit sie nach einer Drehung nicht erneut
+ * erscheinen.
+ */
+abstract class ScreenViewModel extends AndroidViewModel {
+
+    private final MutableLiveData<String> message = new MutableLiveData<>();
+    private boolean started;
+
+    ScreenViewModel(@NonNull Application application) {
+        super(application);
+    }
+
+    /**
+     * @return die zuletzt gemeldete, noch nicht angezeigte Fehlermeldung (oder null)
+     */
+    LiveData<String> getMessage() {
+        return message;
+    }
+
+    /**
+     * Die Meldung wurde angezeigt und soll nicht erneut erscheinen.
+     */
+    void consumeMessage() {
+        message.setValue(null);
+    }
+
+    /**
+     * Gibt beim ersten Aufruf true zurück, danach (z. B. nach einer Drehung) false.
+     */
+    protected boolean firstStart() {
+        if (started) {
+            return false;
+        }
+        started = true;
+        return true;
+    }
+
+    /**
+     * Callback, der Fehler als Meldung bereitstellt und Erfolge still übernimmt.
+     */
+    protected <T> RepositoryCallback<T> reportErrors() {
+        return new RepositoryCallback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                // Die Daten kommen über die beobachtete lokale Datenbank
+            }
+
+            @Override
+            public void onError(String text) {
+                message.setValue(text);
+            }
+        };
+    }
+}
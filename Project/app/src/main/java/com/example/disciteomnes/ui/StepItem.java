@@ -0,0 +1,35 @@
+package com.example.disciteomnes.ui;
+
+import com.example.disciteomnes.data.models.StudyStep;
+
+import java.util.Objects;
+
+/**
+ * Unveränderliches Anzeigemodell eines Lernschritts.
+ *
+ * Wird einmal pro Datenänderung im Hintergrund aus dem {@link StudyStep} berechnet
+ * (siehe StudyStepsActivity); beim Binden werden nur noch die fertigen Texte gesetzt.
+ */
+final class StepItem {
+
+    final int id;
+    final String title;
+    final String dueLabel;   // z. B. "Fällig bis: 2025-07-10"
+
+    private StepItem(int id, String title, String dueLabel) {
+        this.id = id;
+        this.title = title;
+        this.dueLabel = dueLabel;
+    }
+
+    static StepItem from(StudyStep step) {
+        return new StepItem(step.getId(), step.getTitle(), "Fällig bis: " + step.getDueDate());
+    }
+
+    /**
+     * Gleicher Inhalt = gleiche Anzeige (für den Vergleich im Adapter).
+     */
+    boolean sameContentAs(StepItem other) {
+        return Objects.equals(title, other.title) && Objects.equals(dueLabel, other.dueLabel);
+    }
+}
@@ -6,18 +6,24 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
 import com.example.disciteomnes.data.models.StudyPlan;
 
 import java.util.List;
+import java.util.Objects;
 
 /**
  * Adapter zur Darstellung einer Liste von StudyPlans in einem RecyclerView.
- * Jeder Plan kann angeklickt werden, um z. B. zur Detailansicht zu navigieren.
+ * Jeder Plan kann angeklickt werden, um z. B. zur Detailansicht zu navigieren.
+ *
+ * Neue Listen werden im Hintergrund mit der alten verglichen (siehe {@link ListDiffing});
+ * nur geänderte Zeilen werden neu gebunden, Scroll-Position und Animationen bleiben erhalten.
  */
-public class StudyPlanAdapter extends RecyclerView.Adapter<StudyPlanAdapter.PlanViewHolder> {
+public class StudyPlanAdapter extends ListAdapter<StudyPlan, StudyPlanAdapter.PlanViewHolder> {
 
     /**
      * Interface zur Übergabe eines Klick-Events für ein StudyPlan-Element.
@@ -26,29 +32,38 @@ public class StudyPlanAdapter extends RecyclerView.Adapter<StudyPlanAdapter.Plan
         void onClick(StudyPlan plan);
     }
 
-    private final List<StudyPlan> plans;     // Liste der darzustellenden Pläne
+    // Vergleich zweier Pläne: gleiche ID = gleicher Eintrag, Inhalt über den Titel
+    private static final DiffUtil.ItemCallback<StudyPlan> DIFF = new DiffUtil.ItemCallback<StudyPlan>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull StudyPlan a, @NonNull StudyPlan b) {
+            return a.getId() == b.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull StudyPlan a, @NonNull StudyPlan b) {
+            return Objects.equals(a.getTitle(), b.getTitle());
+        }
+    };
+
     private final OnItemClick listener;      // Listener für Klicks
 
     /**
      * Konstruktor für den Adapter.
      *
-     * @param plans    Liste der StudyPlans
      * @param listener Callback bei Klick auf einen Plan
      */
-    public StudyPlanAdapter(List<StudyPlan> plans, OnItemClick listener) {
-        this.plans = plans;
+    public StudyPlanAdapter(OnItemClick listener) {
+        super(ListDiffing.config(DIFF));
         this.listener = listener;
     }
 
     /**
-     * Aktualisiert die angezeigten Daten im Adapter.
+     * Aktualisiert die angezeigten Daten im Adapter (Vergleich im Hintergrund).
      *
      * @param newPlans Neue Liste von StudyPlans
      */
     public void updateData(List<StudyPlan> newPlans) {
-        plans.clear();
-        plans.addAll(newPlans);
-        notifyDataSetChanged(); // RecyclerView neu rendern
+        submitList(newPlans);
     }
 
     /**
@@ -59,7 +74,7 @@ public class StudyPlanAdapter extends RecyclerView.Adapter<StudyPlanAdapter.Plan
     public PlanViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
         View view = LayoutInflater.from(parent.getContext())
                 .inflate(R.layout.item_study_plan, parent, false);
-        return new PlanViewHolder(view);
+        return new PlanViewHolder(view, listener);
     }
 
     /**
@@ -67,28 +82,28 @@ public class StudyPlanAdapter extends RecyclerView.Adapter<StudyPlanAdapter.Plan
      */
     @Override
     public void onBindViewHolder(@NonNull PlanViewHolder holder, int pos) {
-        StudyPlan plan = plans.get(pos);
-        holder.title.setText(plan.getTitle());
-        holder.itemView.setOnClickListener(v -> listener.onClick(plan));
-    }
-
-    /**
-     * Gibt die Gesamtanzahl der Einträge zurück.
-     */
-    @Override
-    public int getItemCount() {
-        return plans.size();
+        holder.bind(getItem(pos));
     }
 
     /**
      * ViewHolder für die Anzeige eines einzelnen StudyPlans.
+     * Der Klick-Listener wird einmal beim Erstellen gesetzt und meldet den zuletzt gebundenen Plan.
      */
     static class PlanViewHolder extends RecyclerView.ViewHolder {
         final TextView title;
+        private StudyPlan plan;
 
-        PlanViewHolder(View v) {
+        PlanViewHolder(View v, OnItemClick listener) {
             super(v);
             title = v.findViewById(R.id.studyPlanTitle);
+            v.setOnClickListener(view -> {
+                if (plan != null) listener.onClick(plan);
+            });
+        }
+
+        void bind(StudyPlan plan) {
+            this.plan = plan;
+            title.setText(plan.getTitle());
         }
     }
 }
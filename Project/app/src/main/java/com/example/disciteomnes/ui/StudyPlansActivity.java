@@ -2,7 +2,6 @@
 package com.example.disciteomnes.ui;
 
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.view.View;
 import android.widget.AdapterView;
@@ -12,21 +11,26 @@ import android.widget.Spinner;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.LiveData;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
-import com.example.disciteomnes.data.dto.GroupMemberResponse;
+import com.example.disciteomnes.data.models.Group;
 import com.example.disciteomnes.data.models.StudyPlan;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.data.repository.GroupRepository;
+import com.example.disciteomnes.data.repository.StudyPlanRepository;
+import com.example.disciteomnes.data.sync.RealtimeSync;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.LatestWins;
+import com.example.disciteomnes.network.RealtimeClient;
+import com.example.disciteomnes.network.SessionManager;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import java.util.Map;
 
 /**
  * Diese Activity zeigt eine Liste von Lernplänen für Gruppen,
@@ -37,10 +41,27 @@ public class StudyPlansActivity extends AppCompatActivity {
     private Spinner spinnerGroups;                      // Dropdown-Menü zur Gruppenauswahl
     private RecyclerView recyclerView;                  // RecyclerView zur Anzeige der StudyPlans
     private StudyPlanAdapter adapter;                   // Adapter für RecyclerView
-    private Button btnBackToDashboard = findViewById(R.id.btnBackToDashboard);  // Zurück-Button
+    private Button btnBackToDashboard;                  // Zurück-Button (optional im Layout)
+
+    private GroupRepository groupRepository;            // Lokale Gruppenliste
+    private StudyPlanRepository planRepository;         // Lokale Lernpläne
+    private LiveData<List<StudyPlan>> allPlans;         // Beobachtete Pläne aller Gruppen
+    private String selectedGroupId;                     // Aktuell gewählte Gruppe
+    private RealtimeClient.Subscription realtime;       // Live-Änderungen aller Gruppen
+
+    // Pläne aller Gruppen, nach Gruppe indiziert – ein Gruppenwechsel ist nur ein Nachschlagen
+    private final Map<String, List<StudyPlan>> plansByGroup = new HashMap<>();
+    private final List<String> loadedGroupIds = new ArrayList<>();  // Gruppen von allPlans
 
     private final List<String> groupIds   = new ArrayList<>();  // Liste von Gruppen-IDs
     private final List<String> groupNames = new ArrayList<>();  // Liste von Gruppen-Namen
+    private ArrayAdapter<String> spinAdapter;                   // Adapter für den Spinner
+
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
+
+    // Nachholen nach dem Realtime-Beitritt: nur das neueste zählt, endet mit dem Bildschirm
+    private final LatestWins planCatchUp = calls.lane();
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -50,10 +71,11 @@ public class StudyPlansActivity extends AppCompatActivity {
         // UI-Elemente referenzieren
         spinnerGroups = findViewById(R.id.spinnerGroups);
         recyclerView  = findViewById(R.id.studyPlanRecycler);
+        btnBackToDashboard = findViewById(R.id.btnBackToDashboard);
 
         // RecyclerView konfigurieren
         recyclerView.setLayoutManager(new LinearLayoutManager(this));
-        adapter = new StudyPlanAdapter(new ArrayList<>(), plan -> {
+        adapter = new StudyPlanAdapter(plan -> {
             // Bei Klick auf einen StudyPlan → StudyStepsActivity öffnen
             Intent intent = new Intent(this, StudyStepsActivity.class);
             intent.putExtra("plan_id", plan.getId());
@@ -61,11 +83,17 @@ public class StudyPlansActivity extends AppCompatActivity {
         });
         recyclerView.setAdapter(adapter);
 
-        // Zurück zum Dashboard
-        btnBackToDashboard.setOnClickListener(v -> {
-            startActivity(new Intent(this, DashboardActivity.class));
-            finish();
-        });
+        // Zurück zum Dashboard (nur falls das Layout den Button enthält)
+        if (btnBackToDashboard != null) {
+            btnBackToDashboard.setOnClickListener(v -> {
+                startActivity(new Intent(this, DashboardActivity.class));
+                finish();
+            });
+        }
+
+        groupRepository = GroupRepository.getInstance(this);
+        planRepository  = StudyPlanRepository.getInstance(this);
+        setupSpinner();
 
         // Gruppen des Benutzers abrufen
         fetchGroups();
@@ -75,55 +103,93 @@ public class StudyPlansActivity extends AppCompatActivity {
      * Ruft die Gruppen aus Supabase ab, in denen der aktuelle Benutzer Mitglied ist.
      */
     private void fetchGroups() {
-        SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        String jwtToken = prefs.getString("access_token", null);
-        String userId   = prefs.getString("user_id", null);
+        SessionManager session = SessionManager.getInstance();
+        String userId = session.getUserId();
 
         // Falls Benutzer nicht eingeloggt ist, zurück zur Login-Seite
-        if (jwtToken == null || userId == null) {
+        if (!session.isLoggedIn()) {
             Toast.makeText(this, "Bitte erst einloggen", Toast.LENGTH_SHORT).show();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
             return;
         }
 
-        // API-Client mit JWT erstellen
-        DisciteOmnesApi api = DatabaseClient
-                .getInstance(jwtToken)
-                .create(DisciteOmnesApi.class);
+        // Lokale Gruppen sofort anzeigen, danach mit Supabase abgleichen
+        groupRepository.observeGroups().observe(this, this::showGroups);
+        groupRepository.refresh(userId, calls.keep(new ToastCallback<>(this)));
+    }
 
-        // Supabase-URL für gruppenbasierte Abfrage
-        String url = "rest/v1/group_members"
-                + "?select=group:groups(id,name)"
-                + "&user_id=eq." + userId;
+    /**
+     * Übernimmt die (lokal gespeicherten) Gruppen in den Spinner.
+     * Die aktuelle Auswahl bleibt erhalten, solange die Gruppe noch existiert.
+     */
+    private void showGroups(List<Group> groups) {
+        int selected = spinnerGroups.getSelectedItemPosition();
+        String selectedId = selected >= 0 && selected < groupIds.size() ? groupIds.get(selected) : null;
 
-        // Anfrage senden
-        api.getGroupsByUser(url).enqueue(new Callback<List<GroupMemberResponse>>() {
-            @Override
-            public void onResponse(Call<List<GroupMemberResponse>> call,
-                                   Response<List<GroupMemberResponse>> resp) {
-                if (resp.isSuccessful() && resp.body() != null) {
-                    // Gruppeninformationen extrahieren
-                    for (GroupMemberResponse gm : resp.body()) {
-                        groupIds.add(gm.getGroup().getId());
-                        groupNames.add(gm.getGroup().getName());
-                    }
-                    // Dropdown-Menü befüllen
-                    setupSpinner();
-                } else {
-                    Toast.makeText(StudyPlansActivity.this,
-                            "Konnte Gruppen nicht laden",
-                            Toast.LENGTH_SHORT).show();
-                }
-            }
+        groupIds.clear();
+        groupNames.clear();
+        for (Group g : groups) {
+            groupIds.add(g.getId());
+            groupNames.add(g.getName());
+        }
+        spinAdapter.notifyDataSetChanged();
 
-            @Override
-            public void onFailure(Call<List<GroupMemberResponse>> call, Throwable t) {
-                Toast.makeText(StudyPlansActivity.this,
-                        "Netzwerkfehler: " + t.getMessage(),
-                        Toast.LENGTH_SHORT).show();
+        int index = selectedId != null ? groupIds.indexOf(selectedId) : -1;
+        if (index >= 0) {
+            spinnerGroups.setSelection(index);
+        }
+
+        loadAllPlans();
+    }
+
+    /**
+     * Beobachtet die Pläne aller Gruppen auf einmal, gleicht sie mit einer einzigen
+     * Abfrage ({@code group_id=in.(...)}) ab und abonniert sie mit einem einzigen
+     * Realtime-Channel – nur wenn sich die Gruppen geändert haben.
+     */
+    private void loadAllPlans() {
+        if (groupIds.equals(loadedGroupIds)) {
+            return;
+        }
+        loadedGroupIds.clear();
+        loadedGroupIds.addAll(groupIds);
+
+        if (allPlans != null) {
+            allPlans.removeObservers(this);
+            allPlans = null;
+        }
+        unsubscribeRealtime();
+        if (loadedGroupIds.isEmpty()) {
+            indexPlans(Collections.emptyList());
+            return;
+        }
+        allPlans = planRepository.observePlans(new ArrayList<>(loadedGroupIds));
+        allPlans.observe(this, this::indexPlans);
+
+        planRepository.refreshPlans(new ArrayList<>(loadedGroupIds), calls.keep(new ToastCallback<>(this)));
+        subscribeRealtime();
+    }
+
+    /**
+     * Ordnet die beobachteten Pläne ihren Gruppen zu und zeigt die der gewählten Gruppe.
+     */
+    private void indexPlans(List<StudyPlan> plans) {
+        plansByGroup.clear();
+        for (StudyPlan plan : plans) {
+            List<StudyPlan> group = plansByGroup.get(plan.getGroupId());
+            if (group == null) {
+                group = new ArrayList<>();
+                plansByGroup.put(plan.getGroupId(), group);
             }
-        });
+            group.add(plan);
+        }
+        showSelectedPlans();
+    }
+
+    private void showSelectedPlans() {
+        List<StudyPlan> plans = selectedGroupId != null ? plansByGroup.get(selectedGroupId) : null;
+        adapter.updateData(plans != null ? plans : Collections.emptyList());
     }
 
     /**
@@ -131,7 +197,7 @@ public class StudyPlansActivity extends AppCompatActivity {
      */
     private void setupSpinner() {
         // Spinner-Adapter konfigurieren
-        ArrayAdapter<String> spinAdapter = new ArrayAdapter<>(
+        spinAdapter = new ArrayAdapter<>(
                 this,
                 android.R.layout.simple_spinner_item,
                 groupNames
@@ -155,37 +221,41 @@ public class StudyPlansActivity extends AppCompatActivity {
     }
 
     /**
-     * Lädt die StudyPlans für eine bestimmte Gruppe und zeigt sie in der Liste.
+     * Zeigt die StudyPlans einer bestimmten Gruppe an. Pläne und Live-Abo umfassen bereits
+     * alle Gruppen ({@link #loadAllPlans()}), daher geht hier nichts ins Netz.
      * @param groupId ID der ausgewählten Gruppe
      */
     private void loadPlansFor(String groupId) {
-        String jwt = getSharedPreferences("auth", MODE_PRIVATE)
-                .getString("access_token", "");
+        selectedGroupId = groupId;
+        showSelectedPlans();
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        if (realtime == null) {
+            subscribeRealtime();
+        }
+    }
 
-        DisciteOmnesApi api = DatabaseClient
-                .getInstance(jwt)
-                .create(DisciteOmnesApi.class);
+    @Override
+    protected void onStop() {
+        super.onStop();
+        unsubscribeRealtime();
+        // Ohne Abo ist auch das Nachholen überflüssig; onStart holt beim neuen Beitritt nach
+        planCatchUp.cancel();
+    }
 
-        api.getStudyPlans("eq." + groupId).enqueue(new Callback<List<StudyPlan>>() {
-            @Override
-            public void onResponse(Call<List<StudyPlan>> call,
-                                   Response<List<StudyPlan>> resp) {
-                if (resp.isSuccessful() && resp.body() != null) {
-                    // Daten an Adapter übergeben
-                    adapter.updateData(resp.body());
-                } else {
-                    Toast.makeText(StudyPlansActivity.this,
-                            "Fehler beim Laden der Plans",
-                            Toast.LENGTH_SHORT).show();
-                }
-            }
+    private void subscribeRealtime() {
+        if (!loadedGroupIds.isEmpty()) {
+            realtime = RealtimeSync.getInstance(this).watchStudyPlans(loadedGroupIds, planCatchUp);
+        }
+    }
 
-            @Override
-            public void onFailure(Call<List<StudyPlan>> call, Throwable t) {
-                Toast.makeText(StudyPlansActivity.this,
-                        "Netzwerkfehler: " + t.getMessage(),
-                        Toast.LENGTH_SHORT).show();
-            }
-        });
+    private void unsubscribeRealtime() {
+        if (realtime != null) {
+            realtime.unsubscribe();
+            realtime = null;
+        }
     }
 }
@@ -6,40 +6,43 @@ import android.view.ViewGroup;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
-import com.example.disciteomnes.data.models.StudyStep;
-
-import java.util.ArrayList;
-import java.util.List;
 
 /**
  * Adapter-Klasse für die RecyclerView-Darstellung einzelner StudySteps (Lernschritte).
  * Verwaltet das Layout und die Datenbindung für jeden Eintrag in der Liste.
+ *
+ * Die Schritte kommen seitenweise aus der lokalen Datenbank ({@link PagingData});
+ * weitere Seiten werden beim Scrollen automatisch nachgeladen. Angezeigt werden fertig
+ * berechnete {@link StepItem}s – das Binden setzt nur noch Texte und erzeugt keine Objekte.
  */
 public class StudyStepAdapter
-        extends RecyclerView.Adapter<StudyStepAdapter.StepViewHolder> {
+        extends PagingDataAdapter<StepItem, StudyStepAdapter.StepViewHolder> {
 
-    // Liste der aktuell angezeigten Lernschritte
-    private final List<StudyStep> steps = new ArrayList<>();
+    // Vergleich zweier Schritte: gleiche ID = gleicher Eintrag, Inhalt über Titel und Datum
+    private static final DiffUtil.ItemCallback<StepItem> DIFF = new DiffUtil.ItemCallback<StepItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull StepItem a, @NonNull StepItem b) {
+            return a.id == b.id;
+        }
 
-    /**
-     * Konstruktor: erstellt eine leere Liste.
-     * Daten werden später über updateData(...) eingefügt.
-     */
-    public StudyStepAdapter() {
-        // Keine Aktion nötig – Liste ist initial leer
-    }
+        @Override
+        public boolean areContentsTheSame(@NonNull StepItem a, @NonNull StepItem b) {
+            return a.sameContentAs(b);
+        }
+    };
 
     /**
-     * Ersetzt die vorhandenen Schritte durch neue und aktualisiert die Anzeige.
-     * @param newSteps Liste mit neuen Lernschritten
+     * Konstruktor: erstellt einen leeren Adapter.
+     * Daten werden später über submitData(...) eingefügt.
      */
-    public void updateData(List<StudyStep> newSteps) {
-        steps.clear();             // Alte Daten entfernen
-        steps.addAll(newSteps);    // Neue Daten hinzufügen
-        notifyDataSetChanged();    // RecyclerView aktualisieren
+    public StudyStepAdapter() {
+        super(DIFF);
     }
 
     /**
@@ -59,17 +62,12 @@ public class StudyStepAdapter
      */
     @Override
     public void onBindViewHolder(@NonNull StepViewHolder holder, int pos) {
-        StudyStep s = steps.get(pos);  // Aktuelles Element holen
-        holder.txtTitle.setText(s.getTitle());                // Titel setzen
-        holder.txtDate.setText("Fällig bis: " + s.getDueDate()); // Datum formatieren
-    }
-
-    /**
-     * Gibt die Anzahl der Einträge zurück.
-     */
-    @Override
-    public int getItemCount() {
-        return steps.size();
+        StepItem s = getItem(pos);  // Aktuelles Element holen (ohne Platzhalter nie null)
+        if (s == null) {
+            return;
+        }
+        holder.txtTitle.setText(s.title);     // Titel setzen
+        holder.txtDate.setText(s.dueLabel);   // Datum ist bereits formatiert
     }
 
     /**
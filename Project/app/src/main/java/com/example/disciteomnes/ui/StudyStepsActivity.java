@@ -2,7 +2,6 @@ package com.example.disciteomnes.ui;
 
 import android.content.Context;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.util.Log;
 import android.view.View;
@@ -13,20 +12,23 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.paging.CombinedLoadStates;
+import androidx.paging.LoadState;
 import androidx.recyclerview.widget.LinearLayoutManager;
 import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
 import com.example.disciteomnes.data.dto.StudyStepRequest;
-import com.example.disciteomnes.data.models.StudyStep;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.data.sync.RealtimeSync;
+import com.example.disciteomnes.network.CallRegistry;
+import com.example.disciteomnes.network.RealtimeClient;
+import com.example.disciteomnes.network.SessionManager;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
+import kotlin.Unit;
 
 /**
  * Activity zur Anzeige und Verwaltung von StudySteps für einen bestimmten StudyPlan.
@@ -39,8 +41,12 @@ public class StudyStepsActivity extends AppCompatActivity {
     private EditText etTitle, etDate;
     private Button btnAddStep;
     private TextView tvEmpty;
-    private String jwt;
+    private StudyStepsViewModel viewModel;
     private int planId;
+    private RealtimeClient.Subscription realtime;   // Live-Änderungen des Plans, solange sichtbar
+
+    // Laufende Anfragen dieses Bildschirms (beim Zerstören abbrechen bzw. loslassen)
+    private final CallRegistry calls = CallRegistry.bind(this);
 
     /**
      * Initialisiert die Activity, lädt die UI-Elemente und ruft die Steps aus der Datenbank ab.
@@ -62,16 +68,19 @@ public class StudyStepsActivity extends AppCompatActivity {
         stepAdapter = new StudyStepAdapter();
         recyclerSteps.setAdapter(stepAdapter);
 
-        // 3) Auth-Daten (JWT + Plan-ID) laden
-        SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        jwt    = prefs.getString("access_token", null);
-        planId = getIntent().getIntExtra("plan_id", -1);
-        if (jwt == null || planId < 0) {
+        // 3) Sitzung und Plan-ID prüfen
+        // Offline angelegte Pläne haben (noch) eine negative ID – daher auf das Extra selbst prüfen
+        planId = getIntent().getIntExtra("plan_id", 0);
+        if (!SessionManager.getInstance().isLoggedIn() || !getIntent().hasExtra("plan_id")) {
             Toast.makeText(this, "Auth oder Plan fehlt", Toast.LENGTH_SHORT).show();
             finish();
             return;
         }
 
+        // Zustand der Liste liegt im ViewModel und überlebt Konfigurationswechsel
+        viewModel = new ViewModelProvider(this).get(StudyStepsViewModel.class);
+        viewModel.start(planId);
+
         // 4) Button-Listener
         btnAddStep.setOnClickListener(v -> {
             // Tastatur ausblenden
@@ -83,119 +92,93 @@ public class StudyStepsActivity extends AppCompatActivity {
             addStep();
         });
 
-        // 5) Schritte laden
-        loadSteps();
+        // 5) Lokale Schritte seitenweise anzeigen; abgeglichen wird nur beim ersten Start
+        stepAdapter.addLoadStateListener(states -> {
+            updateEmptyState(states);
+            return Unit.INSTANCE;
+        });
+        viewModel.getSteps().observe(this, data -> stepAdapter.submitData(getLifecycle(), data));
+        viewModel.getMessage().observe(this, message -> {
+            if (message != null) {
+                Log.e("StudySteps", "Fehler beim Laden: " + message);
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+                viewModel.consumeMessage();
+            }
+        });
     }
 
-    /**
-     * Lädt alle StudySteps für den aktuellen Plan aus der Datenbank.
-     * Zeigt bei leerer Liste einen Hinweistext an.
-     */
-    private void loadSteps() {
-        DisciteOmnesApi api = DatabaseClient
-                .getInstance(jwt)
-                .create(DisciteOmnesApi.class);
-
-        String filter = "eq." + planId;
-        Log.d("StudySteps", "Calling getStudyStepsByPlanId with filter=" + filter);
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // Neue oder geänderte Schritte anderer Gruppenmitglieder live übernehmen
+        if (viewModel != null) {
+            realtime = RealtimeSync.getInstance(this).watchStudySteps(planId);
+        }
+    }
 
-        api.getStudyStepsByPlanId(filter).enqueue(new Callback<List<StudyStep>>() {
-            @Override
-            public void onResponse(Call<List<StudyStep>> call, Response<List<StudyStep>> resp) {
-                Log.d("StudySteps", "onResponse: isSuccessful=" + resp.isSuccessful()
-                        + " code=" + resp.code());
-
-                if (resp.isSuccessful() && resp.body() != null) {
-                    List<StudyStep> list = resp.body();
-                    Log.d("StudySteps", "Loaded " + list.size() + " steps");
-
-                    // Anzeige je nach Ergebnis
-                    if (list.isEmpty()) {
-                        tvEmpty.setVisibility(View.VISIBLE);
-                        recyclerSteps.setVisibility(View.GONE);
-                    } else {
-                        tvEmpty.setVisibility(View.GONE);
-                        recyclerSteps.setVisibility(View.VISIBLE);
-                        stepAdapter.updateData(list);
-                    }
-
-                } else {
-                    String errBody = "";
-                    try {
-                        errBody = resp.errorBody() != null
-                                ? resp.errorBody().string()
-                                : "null";
-                    } catch (Exception e) {
-                        Log.e("StudySteps", "Error reading errorBody", e);
-                    }
-                    Log.e("StudySteps", "Fehler beim Laden: HTTP " + resp.code() + " – " + errBody);
-                    Toast.makeText(StudyStepsActivity.this,
-                            "Fehler beim Laden (siehe Logcat)", Toast.LENGTH_SHORT).show();
-                }
-            }
+    @Override
+    protected void onStop() {
+        super.onStop();
+        if (realtime != null) {
+            realtime.unsubscribe();
+            realtime = null;
+        }
+    }
 
-            @Override
-            public void onFailure(Call<List<StudyStep>> call, Throwable t) {
-                Log.e("StudySteps", "Network failure in loadSteps", t);
-                Toast.makeText(StudyStepsActivity.this,
-                        "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+    /**
+     * Zeigt bei leerer Liste einen Hinweistext an, sobald die erste Seite geladen ist.
+     */
+    private void updateEmptyState(CombinedLoadStates states) {
+        if (!(states.getRefresh() instanceof LoadState.NotLoading)) {
+            return;
+        }
+        Log.d("StudySteps", "Showing " + stepAdapter.getItemCount() + " steps");
+
+        // Anzeige je nach Ergebnis
+        if (stepAdapter.getItemCount() == 0) {
+            tvEmpty.setVisibility(View.VISIBLE);
+            recyclerSteps.setVisibility(View.GONE);
+        } else {
+            tvEmpty.setVisibility(View.GONE);
+            recyclerSteps.setVisibility(View.VISIBLE);
+        }
     }
 
     /**
-     * Sendet einen neuen Step an den Server und aktualisiert die Anzeige bei Erfolg.
-     * Vor dem Absenden wird geprüft, ob beide Eingabefelder ausgefüllt sind.
+     * Legt die eingegebenen Steps an; sie erscheinen über die lokale Datenbank in der Liste.
+     * Jede Zeile im Titelfeld ist ein Schritt (optional mit eigenem Datum nach ";", siehe
+     * {@link MultiLineEntry}). Mehrere Schritte gehen zusammen in einer einzigen Anfrage hinaus.
      */
     private void addStep() {
-        String title = etTitle.getText().toString().trim();
-        String date  = etDate .getText().toString().trim();
+        List<MultiLineEntry.Line> lines = MultiLineEntry.parse(
+                etTitle.getText().toString(), etDate.getText().toString());
 
-        if (title.isEmpty() || date.isEmpty()) {
+        if (lines == null || lines.isEmpty()) {
             Toast.makeText(this, "Titel und Datum eingeben", Toast.LENGTH_SHORT).show();
             return;
         }
 
-        StudyStepRequest req = new StudyStepRequest(planId, title, date);
-        Log.d("StudySteps", "Calling addStudyStep with request=" + req);
-
-        DisciteOmnesApi api = DatabaseClient
-                .getInstance(jwt)
-                .create(DisciteOmnesApi.class);
+        List<StudyStepRequest> requests = new ArrayList<>();
+        for (MultiLineEntry.Line line : lines) {
+            requests.add(new StudyStepRequest(planId, line.title, line.date));
+        }
+        Log.d("StudySteps", "Adding " + requests.size() + " steps to plan_id=" + planId);
 
-        api.addStudyStep(req).enqueue(new Callback<Void>() {
+        ToastCallback<Void> callback = new ToastCallback<Void>(this) {
             @Override
-            public void onResponse(Call<Void> call, Response<Void> resp) {
-                Log.d("StudySteps", "addStudyStep onResponse: isSuccessful=" +
-                        resp.isSuccessful() + " code=" + resp.code());
-
-                if (resp.isSuccessful()) {
-                    Log.d("StudySteps", "Step erfolgreich hinzugefügt");
-                    etTitle.setText("");
-                    etDate.setText("");
-                    loadSteps(); // Nach dem Hinzufügen erneut laden
-                } else {
-                    String errBody = "";
-                    try {
-                        errBody = resp.errorBody() != null
-                                ? resp.errorBody().string()
-                                : "null";
-                    } catch (Exception e) {
-                        Log.e("StudySteps", "Error reading errorBody", e);
-                    }
-                    Log.e("StudySteps", "Fehler beim Hinzufügen: HTTP " +
-                            resp.code() + " – " + errBody);
-                    Toast.makeText(StudyStepsActivity.this,
-                            "Fehler beim Hinzufügen (siehe Logcat)", Toast.LENGTH_SHORT).show();
-                }
+            public void onSuccess(Void result) {
+                Log.d("StudySteps", requests.size() + " Step(s) erfolgreich hinzugefügt");
+                etTitle.setText("");
+                etDate.setText("");
             }
 
             @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                Log.e("StudySteps", "Network failure in addStep", t);
-                Toast.makeText(StudyStepsActivity.this,
-                        "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+            public void onError(String message) {
+                Log.e("StudySteps", "Fehler beim Hinzufügen: " + message);
+                super.onError(message);
             }
-        });
+        };
+
+        viewModel.addSteps(requests, calls.keep(callback));
     }
 }
@@ -0,0 +1,65 @@
+package com.example.disciteomnes.ui;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.Transformations;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingDataTransforms;
+import androidx.paging.PagingLiveData;
+
+import com.example.disciteomnes.data.dto.StudyStepRequest;
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+import com.example.disciteomnes.data.repository.StudyPlanRepository;
+
+import java.util.List;
+
+/**
+ * Zustand der Lernschritte eines Plans (StudyStepsActivity), unabhängig vom Lebenszyklus
+ * der Activity. Die fertigen Anzeigemodelle bleiben über Drehungen hinweg erhalten.
+ */
+public class StudyStepsViewModel extends ScreenViewModel {
+
+    private final StudyPlanRepository repository;
+    private LiveData<PagingData<StepItem>> steps;
+
+    public StudyStepsViewModel(@NonNull Application application) {
+        super(application);
+        repository = StudyPlanRepository.getInstance(application);
+    }
+
+    /**
+     * Bindet das ViewModel an einen Plan und gleicht beim ersten Mal mit Supabase ab.
+     *
+     * @param planId ID des Lernplans
+     */
+    void start(int planId) {
+        if (!firstStart()) {
+            return;
+        }
+        // Anzeigemodelle (formatierte Texte) einmal pro Änderung im Hintergrund berechnen
+        LiveData<PagingData<StepItem>> items = Transformations.map(repository.pageSteps(planId),
+                data -> PagingDataTransforms.map(data, ListDiffing.executor(), StepItem::from));
+        steps = PagingLiveData.cachedIn(items, ViewModelKt.getViewModelScope(this));
+        repository.refreshSteps(planId, reportErrors());
+    }
+
+    LiveData<PagingData<StepItem>> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Legt einen oder mehrere Schritte an (mehrere als ein Bulk-Insert).
+     *
+     * @param callback Rückmeldung an die Activity (z. B. Eingabefelder leeren)
+     */
+    void addSteps(List<StudyStepRequest> requests, RepositoryCallback<Void> callback) {
+        if (requests.size() == 1) {
+            repository.addStep(requests.get(0), callback);
+        } else {
+            repository.addSteps(requests, callback);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.disciteomnes.ui;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.CheckBox;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.paging.PagingDataAdapter;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.disciteomnes.R;
+import com.example.disciteomnes.data.models.Task;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Adapter zur Darstellung der Aufgaben in einem RecyclerView.
+ *
+ * Die Aufgaben kommen seitenweise aus der lokalen Datenbank; weitere Seiten werden
+ * beim Scrollen automatisch nachgeladen. Die Liste der Aufgaben ist die einzige Datenquelle,
+ * Änderungen werden per DiffUtil (Identität über die ID) auf einzelne Zeilen abgebildet.
+ * Ändert sich nur der Status, wird lediglich das Häkchen neu gesetzt (Payload), ohne den
+ * Titel neu zu binden. Ein Klick schaltet den Status um,
+ * ein langer Klick startet die Mehrfachauswahl. Während der Auswahl markiert ein Klick
+ * die Aufgabe bzw. hebt die Markierung wieder auf.
+ */
+public class TaskAdapter extends PagingDataAdapter<Task, TaskAdapter.TaskViewHolder> {
+
+    /**
+     * Interface zur Übergabe der Klick-Events für eine Aufgabe.
+     */
+    public interface OnTaskClick {
+        void onClick(Task task);
+
+        /**
+         * Die Mehrfachauswahl hat sich geändert (0 = Auswahl beendet).
+         */
+        void onSelectionChanged(int selectedCount);
+    }
+
+    // Teil-Updates: nur das Häkchen bzw. nur die Auswahl-Markierung neu setzen
+    private static final Object PAYLOAD_COMPLETED = new Object();
+    private static final Object PAYLOAD_SELECTION = new Object();
+
+    // Vergleich zweier Aufgaben: gleiche ID = gleicher Eintrag, Inhalt über Titel und Status.
+    // PagingDataAdapter unterstützt keine Stable IDs – die ID-Identität steckt daher im DiffUtil.
+    private static final DiffUtil.ItemCallback<Task> DIFF = new DiffUtil.ItemCallback<Task>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull Task a, @NonNull Task b) {
+            return a.getId() == b.getId();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull Task a, @NonNull Task b) {
+            return a.isCompleted() == b.isCompleted() && Objects.equals(a.getTitle(), b.getTitle());
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull Task a, @NonNull Task b) {
+            return Objects.equals(a.getTitle(), b.getTitle()) ? PAYLOAD_COMPLETED : null;
+        }
+    };
+
+    private final OnTaskClick listener;      // Listener für Klicks
+
+    // IDs der markierten Aufgaben (Reihenfolge der Auswahl), nur im Auswahlmodus nicht leer
+    private final Set<Integer> selectedIds = new LinkedHashSet<>();
+
+    /**
+     * @param listener Callback bei Klick / langem Klick auf eine Aufgabe
+     */
+    public TaskAdapter(OnTaskClick listener) {
+        super(DIFF);
+        this.listener = listener;
+    }
+
+    /**
+     * Erstellt die ViewHolder und verbindet die Klick-Listener einmalig.
+     */
+    @NonNull
+    @Override
+    public TaskViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext())
+                .inflate(R.layout.item_task, parent, false);
+        TaskViewHolder holder = new TaskViewHolder(view);
+
+        view.setOnClickListener(v -> {
+            Task task = taskAt(holder);
+            if (task == null) return;
+            if (isSelecting()) {
+                toggleSelection(task, holder.getBindingAdapterPosition());
+            } else {
+                listener.onClick(task);
+            }
+        });
+        view.setOnLongClickListener(v -> {
+            Task task = taskAt(holder);
+            if (task == null || isSelecting()) return false;
+            toggleSelection(task, holder.getBindingAdapterPosition());
+            return true;
+        });
+        return holder;
+    }
+
+    /**
+     * Bindet eine Aufgabe vollständig (Titel, Häkchen, Markierung).
+     */
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position) {
+        Task task = getItem(position);
+        if (task == null) {
+            return;
+        }
+        holder.txtTitle.setText(task.getTitle());
+        holder.chkDone.setChecked(task.isCompleted());
+        holder.itemView.setActivated(selectedIds.contains(task.getId()));
+    }
+
+    /**
+     * Teil-Update: bei reiner Statusänderung bzw. Auswahl nur die betroffene Eigenschaft setzen.
+     */
+    @Override
+    public void onBindViewHolder(@NonNull TaskViewHolder holder, int position, @NonNull List<Object> payloads) {
+        Task task = getItem(position);
+        if (payloads.isEmpty() || task == null) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        for (Object payload : payloads) {
+            if (payload == PAYLOAD_COMPLETED) {
+                holder.chkDone.setChecked(task.isCompleted());
+            } else if (payload == PAYLOAD_SELECTION) {
+                holder.itemView.setActivated(selectedIds.contains(task.getId()));
+            }
+        }
+    }
+
+    // ───────────── Mehrfachauswahl ─────────────
+
+    /**
+     * Markiert eine Aufgabe bzw. hebt die Markierung auf und meldet die neue Anzahl.
+     */
+    private void toggleSelection(Task task, int position) {
+        if (!selectedIds.remove(task.getId())) {
+            selectedIds.add(task.getId());
+        }
+        notifyItemChanged(position, PAYLOAD_SELECTION);
+        listener.onSelectionChanged(selectedIds.size());
+    }
+
+    /**
+     * @return true, solange mindestens eine Aufgabe markiert ist
+     */
+    public boolean isSelecting() {
+        return !selectedIds.isEmpty();
+    }
+
+    /**
+     * @return Kopie der markierten IDs in Auswahlreihenfolge
+     */
+    public List<Integer> getSelectedIds() {
+        return new ArrayList<>(selectedIds);
+    }
+
+    /**
+     * Hebt alle Markierungen auf (z. B. beim Verlassen des Auswahlmodus).
+     */
+    public void clearSelection() {
+        if (selectedIds.isEmpty()) {
+            return;
+        }
+        selectedIds.clear();
+        notifyItemRangeChanged(0, getItemCount(), PAYLOAD_SELECTION);
+    }
+
+    private Task taskAt(TaskViewHolder holder) {
+        int pos = holder.getBindingAdapterPosition();
+        return pos == RecyclerView.NO_POSITION ? null : getItem(pos);
+    }
+
+    /**
+     * ViewHolder für eine einzelne Aufgabe.
+     */
+    static class TaskViewHolder extends RecyclerView.ViewHolder {
+        final CheckBox chkDone;
+        final TextView txtTitle;
+
+        TaskViewHolder(View itemView) {
+            super(itemView);
+            chkDone = itemView.findViewById(R.id.taskDone);
+            txtTitle = itemView.findViewById(R.id.taskTitle);
+        }
+    }
+}
@@ -2,73 +2,93 @@ package com.example.disciteomnes.ui;
 
 import android.app.AlertDialog;
 import android.content.Intent;
-import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.text.InputType;
+import android.view.Menu;
+import android.view.MenuItem;
 import android.widget.*;
 
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.appcompat.view.ActionMode;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.disciteomnes.R;
 import com.example.disciteomnes.data.dto.TaskRequest;
-import com.example.disciteomnes.data.dto.TaskUpdateRequest;
 import com.example.disciteomnes.data.models.Task;
-import com.example.disciteomnes.network.DatabaseClient;
-import com.example.disciteomnes.network.DisciteOmnesApi;
+import com.example.disciteomnes.network.SessionManager;
 
 import java.util.ArrayList;
 import java.util.List;
 
-import retrofit2.Call;
-import retrofit2.Callback;
-import retrofit2.Response;
-
 /**
  * Activity zur Verwaltung von Aufgaben:
  * - Anzeigen
  * - Erstellen
  * - Aktualisieren (abhaken)
- * - Löschen (long click)
+ * - Mehrfachauswahl (long click): markierte Aufgaben gesammelt abhaken oder löschen
  */
 public class TasksActivity extends AppCompatActivity {
 
-    private ListView listView;
+    private RecyclerView recyclerTasks;
     private Button btnAddTask, btnBack;
-    private ArrayAdapter<String> adapter;
-    private final List<Task> taskList = new ArrayList<>();
-    private final List<String> taskTitles = new ArrayList<>();
-    private DisciteOmnesApi api;
+    private TaskAdapter adapter;
+    private TasksViewModel viewModel;
     private String userId;
+    private ActionMode selectionMode;   // aktiv, solange Aufgaben markiert sind
+
+    // Menüeinträge der Mehrfachauswahl
+    private static final int MENU_COMPLETE = 1;
+    private static final int MENU_REOPEN   = 2;
+    private static final int MENU_DELETE   = 3;
 
     /**
-     * Initialisiert die Activity: lädt Auth, API und UI und ruft Aufgaben ab.
+     * Initialisiert die Activity: prüft die Sitzung, verbindet die UI und beobachtet die Aufgaben.
+     * Nach einer Drehung übernimmt sie den Stand des ViewModels, ohne erneut abzufragen.
      */
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_tasks);
 
-        // Authentifizierung laden
-        SharedPreferences prefs = getSharedPreferences("auth", MODE_PRIVATE);
-        String jwt = prefs.getString("access_token", null);
-        userId = prefs.getString("user_id", null);
+        // Authentifizierung prüfen
+        SessionManager session = SessionManager.getInstance();
+        userId = session.getUserId();
 
-        if (jwt == null || userId == null) {
+        if (!session.isLoggedIn()) {
             Toast.makeText(this, "Nicht angemeldet", Toast.LENGTH_SHORT).show();
             startActivity(new Intent(this, LoginActivity.class));
             finish();
             return;
         }
 
-        // API-Client initialisieren
-        api = DatabaseClient.getInstance(jwt).create(DisciteOmnesApi.class);
+        // Zustand der Liste liegt im ViewModel und überlebt Konfigurationswechsel
+        viewModel = new ViewModelProvider(this).get(TasksViewModel.class);
+        viewModel.start(userId);
 
         // UI-Elemente verbinden
-        listView    = findViewById(R.id.listViewTasks);
-        btnAddTask  = findViewById(R.id.btnAddTask);
-        btnBack     = findViewById(R.id.btnBackToDashboard);
+        recyclerTasks = findViewById(R.id.recyclerTasks);
+        btnAddTask    = findViewById(R.id.btnAddTask);
+        btnBack       = findViewById(R.id.btnBackToDashboard);
 
-        adapter = new ArrayAdapter<>(this, android.R.layout.simple_list_item_1, taskTitles);
-        listView.setAdapter(adapter);
+        // Aufgaben abhaken (Click) bzw. Mehrfachauswahl starten (LongClick)
+        adapter = new TaskAdapter(new TaskAdapter.OnTaskClick() {
+            @Override
+            public void onClick(Task task) {
+                updateTask(task);
+            }
+
+            @Override
+            public void onSelectionChanged(int selectedCount) {
+                updateSelectionMode(selectedCount);
+            }
+        });
+        recyclerTasks.setLayoutManager(new LinearLayoutManager(this));
+        recyclerTasks.setHasFixedSize(true);   // Höhe hängt nicht vom Inhalt ab
+        recyclerTasks.addItemDecoration(new DividerItemDecoration(this, DividerItemDecoration.VERTICAL));
+        recyclerTasks.setAdapter(adapter);
 
         // Buttons
         btnAddTask.setOnClickListener(v -> showAddDialog());
@@ -77,57 +97,28 @@ public class TasksActivity extends AppCompatActivity {
             finish();
         });
 
-        // Aufgaben abhaken (Click)
-        listView.setOnItemClickListener((parent, view, pos, id) -> {
-            Task task = taskList.get(pos);
-            task.setCompleted(!task.isCompleted());
-            updateTask(task, pos);
-        });
-
-        // Aufgabe löschen (LongClick)
-        listView.setOnItemLongClickListener((parent, view, pos, id) -> {
-            deleteTask(taskList.get(pos).getId(), pos);
-            return true;
-        });
-
-        // Aufgaben laden
-        loadTasks();
-    }
-
-    /**
-     * Holt alle Aufgaben des Benutzers aus Supabase und aktualisiert die Anzeige.
-     */
-    private void loadTasks() {
-        api.getTasksByUserId("eq." + userId, "*").enqueue(new Callback<List<Task>>() {
-            @Override
-            public void onResponse(Call<List<Task>> call, Response<List<Task>> response) {
-                if (response.isSuccessful() && response.body() != null) {
-                    taskList.clear();
-                    taskTitles.clear();
-                    for (Task task : response.body()) {
-                        taskList.add(task);
-                        taskTitles.add((task.isCompleted() ? "✅ " : "⬜ ") + task.getTitle());
-                    }
-                    adapter.notifyDataSetChanged();
-                } else {
-                    Toast.makeText(TasksActivity.this, "Fehler beim Laden der Aufgaben", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<List<Task>> call, Throwable t) {
-                Toast.makeText(TasksActivity.this, "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+        // Lokalen Stand seitenweise anzeigen; der Abgleich läuft nur beim ersten Start im ViewModel.
+        // Die erste Anzeige lädt nur eine Seite – egal wie viele Aufgaben gespeichert sind.
+        viewModel.getTasks().observe(this, data -> adapter.submitData(getLifecycle(), data));
+        viewModel.getMessage().observe(this, message -> {
+            if (message != null) {
+                Toast.makeText(this, message, Toast.LENGTH_SHORT).show();
+                viewModel.consumeMessage();
             }
         });
     }
 
     /**
-     * Zeigt einen Dialog zum Hinzufügen einer neuen Aufgabe.
-     * Nach Bestätigung wird die Aufgabe in Supabase gespeichert.
+     * Zeigt einen Dialog zum Hinzufügen einer oder mehrerer neuer Aufgaben.
+     * Nach Bestätigung werden die Aufgaben in Supabase gespeichert.
      */
     private void showAddDialog() {
+        // Mehrzeilig: jede Zeile wird eine eigene Aufgabe (siehe MultiLineEntry)
         EditText titleInput = new EditText(this);
-        titleInput.setHint("Titel");
+        titleInput.setHint("Titel (eine Aufgabe pro Zeile)");
+        titleInput.setInputType(InputType.TYPE_CLASS_TEXT | InputType.TYPE_TEXT_FLAG_MULTI_LINE);
+        titleInput.setMinLines(1);
+        titleInput.setMaxLines(8);
 
         EditText dueDateInput = new EditText(this);
         dueDateInput.setHint("Fälligkeitsdatum (yyyy-MM-dd)");
@@ -143,88 +134,93 @@ public class TasksActivity extends AppCompatActivity {
                 .setTitle("Neue Aufgabe")
                 .setView(layout)
                 .setPositiveButton("Hinzufügen", (dialog, which) -> {
-                    String title = titleInput.getText().toString().trim();
-                    String dueDate = dueDateInput.getText().toString().trim();
+                    List<MultiLineEntry.Line> lines = MultiLineEntry.parse(
+                            titleInput.getText().toString(), dueDateInput.getText().toString());
 
-                    if (title.isEmpty() || dueDate.isEmpty()) {
+                    if (lines == null || lines.isEmpty()) {
                         Toast.makeText(this, "Titel & Datum erforderlich", Toast.LENGTH_SHORT).show();
                         return;
                     }
 
-                    TaskRequest request = new TaskRequest(title, dueDate, false, userId);
-                    api.addTask(request).enqueue(new Callback<List<Task>>() {
-                        @Override
-                        public void onResponse(Call<List<Task>> call, Response<List<Task>> response) {
-                            if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
-                                Task newTask = response.body().get(0);
-                                taskList.add(newTask);
-                                taskTitles.add("⬜ " + newTask.getTitle());
-                                adapter.notifyDataSetChanged();
-                            } else {
-                                Toast.makeText(TasksActivity.this, "Fehler beim Hinzufügen", Toast.LENGTH_SHORT).show();
-                            }
-                        }
-
-                        @Override
-                        public void onFailure(Call<List<Task>> call, Throwable t) {
-                            Toast.makeText(TasksActivity.this, "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-                        }
-                    });
+                    List<TaskRequest> requests = new ArrayList<>();
+                    for (MultiLineEntry.Line line : lines) {
+                        requests.add(new TaskRequest(line.title, line.date, false, userId));
+                    }
+                    viewModel.addTasks(requests);
                 })
                 .setNegativeButton("Abbrechen", null)
                 .show();
     }
 
     /**
-     * Aktualisiert den Status (erledigt/nicht) einer Aufgabe in Supabase.
+     * Schaltet den Status (erledigt/nicht) einer Aufgabe um.
+     * Die Zeile ändert sich sofort über die lokale Datenbank; der Server erhält nach kurzer
+     * Ruhezeit nur den Endstand und die Outbox nimmt die Änderung bei Ablehnung zurück.
      * @param task Die zu aktualisierende Aufgabe.
-     * @param pos Position der Aufgabe in der Liste.
      */
-    private void updateTask(Task task, int pos) {
-        TaskUpdateRequest request = new TaskUpdateRequest(task.isCompleted());
-
-        api.updateTask("eq." + task.getId(), request).enqueue(new Callback<List<Task>>() {
-            @Override
-            public void onResponse(Call<List<Task>> call, Response<List<Task>> response) {
-                if (response.isSuccessful() && response.body() != null && !response.body().isEmpty()) {
-                    Task updatedTask = response.body().get(0);
-                    taskList.set(pos, updatedTask);
-                    taskTitles.set(pos, (updatedTask.isCompleted() ? "✅ " : "⬜ ") + updatedTask.getTitle());
-                    adapter.notifyDataSetChanged();
-                } else {
-                    Toast.makeText(TasksActivity.this, "Update fehlgeschlagen", Toast.LENGTH_SHORT).show();
-                }
-            }
-
-            @Override
-            public void onFailure(Call<List<Task>> call, Throwable t) {
-                Toast.makeText(TasksActivity.this, "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
-            }
-        });
+    private void updateTask(Task task) {
+        viewModel.setCompleted(task.getId(), !task.isCompleted());
     }
 
+    // ───────────── Mehrfachauswahl ─────────────
+
     /**
-     * Löscht eine Aufgabe in Supabase und entfernt sie aus der Liste.
-     * @param id ID der zu löschenden Aufgabe.
-     * @param pos Position in der lokalen Liste.
+     * Startet, aktualisiert oder beendet die Aktionsleiste der Mehrfachauswahl.
      */
-    private void deleteTask(int id, int pos) {
-        api.deleteTask("eq." + id).enqueue(new Callback<Void>() {
-            @Override
-            public void onResponse(Call<Void> call, Response<Void> response) {
-                if (response.isSuccessful()) {
-                    taskList.remove(pos);
-                    taskTitles.remove(pos);
-                    adapter.notifyDataSetChanged();
-                } else {
-                    Toast.makeText(TasksActivity.this, "Löschen fehlgeschlagen", Toast.LENGTH_SHORT).show();
-                }
+    private void updateSelectionMode(int selectedCount) {
+        if (selectedCount == 0) {
+            if (selectionMode != null) {
+                selectionMode.finish();
             }
+            return;
+        }
+        if (selectionMode == null) {
+            selectionMode = startSupportActionMode(selectionCallback);
+        }
+        if (selectionMode != null) {
+            selectionMode.setTitle(selectedCount + " ausgewählt");
+        }
+    }
 
-            @Override
-            public void onFailure(Call<Void> call, Throwable t) {
-                Toast.makeText(TasksActivity.this, "Netzwerkfehler: " + t.getMessage(), Toast.LENGTH_SHORT).show();
+    private final ActionMode.Callback selectionCallback = new ActionMode.Callback() {
+        @Override
+        public boolean onCreateActionMode(ActionMode mode, Menu menu) {
+            menu.add(Menu.NONE, MENU_COMPLETE, Menu.NONE, "Erledigt");
+            menu.add(Menu.NONE, MENU_REOPEN, Menu.NONE, "Offen");
+            menu.add(Menu.NONE, MENU_DELETE, Menu.NONE, "Löschen");
+            return true;
+        }
+
+        @Override
+        public boolean onPrepareActionMode(ActionMode mode, Menu menu) {
+            return false;
+        }
+
+        @Override
+        public boolean onActionItemClicked(ActionMode mode, MenuItem item) {
+            // Eine lokale Transaktion und ein PATCH mit id=in.(...) für alle markierten Aufgaben
+            List<Integer> ids = adapter.getSelectedIds();
+            switch (item.getItemId()) {
+                case MENU_COMPLETE:
+                    viewModel.setCompleted(ids, true);
+                    break;
+                case MENU_REOPEN:
+                    viewModel.setCompleted(ids, false);
+                    break;
+                case MENU_DELETE:
+                    viewModel.deleteTasks(ids);
+                    break;
+                default:
+                    return false;
             }
-        });
-    }
+            mode.finish();
+            return true;
+        }
+
+        @Override
+        public void onDestroyActionMode(ActionMode mode) {
+            selectionMode = null;
+            adapter.clearSelection();
+        }
+    };
 }
@@ -0,0 +1,80 @@
+package com.example.disciteomnes.ui;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.ViewModelKt;
+import androidx.paging.PagingData;
+import androidx.paging.PagingLiveData;
+
+import com.example.disciteomnes.data.dto.TaskRequest;
+import com.example.disciteomnes.data.models.Task;
+import com.example.disciteomnes.data.repository.TaskRepository;
+
+import java.util.List;
+
+/**
+ * Zustand der Aufgabenliste (TasksActivity), unabhängig vom Lebenszyklus der Activity.
+ *
+ * Die geladenen Seiten sind im ViewModel zwischengespeichert; nach einer Drehung zeigt die
+ * neue Activity sofort denselben Stand, ohne Datenbank- oder Netzwerkabfrage.
+ */
+public class TasksViewModel extends ScreenViewModel {
+
+    private final TaskRepository repository;
+    private String userId;
+    private LiveData<PagingData<Task>> tasks;
+
+    public TasksViewModel(@NonNull Application application) {
+        super(application);
+        repository = TaskRepository.getInstance(application);
+    }
+
+    /**
+     * Bindet das ViewModel an einen Benutzer und gleicht beim ersten Mal mit Supabase ab.
+     * Spätere Aufrufe (neue Activity nach Konfigurationswechsel) ändern nichts.
+     *
+     * @param userId ID des eingeloggten Benutzers
+     */
+    void start(String userId) {
+        if (!firstStart()) {
+            return;
+        }
+        this.userId = userId;
+        tasks = PagingLiveData.cachedIn(repository.pageTasks(userId), ViewModelKt.getViewModelScope(this));
+        repository.refresh(userId, reportErrors());
+    }
+
+    /**
+     * @return die Aufgaben seitenweise (im ViewModel zwischengespeichert)
+     */
+    LiveData<PagingData<Task>> getTasks() {
+        return tasks;
+    }
+
+    void addTasks(List<TaskRequest> requests) {
+        if (requests.size() == 1) {
+            repository.addTask(requests.get(0), reportErrors());
+        } else {
+            // Alle Aufgaben in einem Bulk-Insert statt einer Anfrage pro Aufgabe
+            repository.addTasks(requests, reportErrors());
+        }
+    }
+
+    void setCompleted(int taskId, boolean completed) {
+        repository.setCompleted(taskId, completed, reportErrors());
+    }
+
+    void setCompleted(List<Integer> taskIds, boolean completed) {
+        repository.setCompleted(taskIds, completed, reportErrors());
+    }
+
+    void deleteTasks(List<Integer> taskIds) {
+        repository.deleteTasks(taskIds, reportErrors());
+    }
+
+    String getUserId() {
+        return userId;
+    }
+}
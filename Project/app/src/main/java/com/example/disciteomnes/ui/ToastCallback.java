@@ -0,0 +1,34 @@
+package com.example.disciteomnes.ui;
+
+import android.content.Context;
+import android.widget.Toast;
+
+import com.example.disciteomnes.data.repository.RepositoryCallback;
+
+/**
+ * RepositoryCallback, der Fehler als Toast anzeigt und Erfolge still übernimmt.
+ *
+ * Die Daten selbst kommen über die beobachtete lokale Datenbank, daher müssen
+ * die meisten Bildschirme nur auf Fehler reagieren. Bei Bedarf kann
+ * {@link #onSuccess(Object)} überschrieben werden.
+ *
+ * @param <T> Typ des Ergebnisses
+ */
+public class ToastCallback<T> implements RepositoryCallback<T> {
+
+    private final Context context;
+
+    public ToastCallback(Context context) {
+        this.context = context;
+    }
+
+    @Override
+    public void onSuccess(T result) {
+        // Standard: nichts zu tun – die Liste aktualisiert sich über LiveData
+    }
+
+    @Override
+    public void onError(String message) {
+        Toast.makeText(context, message, Toast.LENGTH_SHORT).show();
+    }
+}
@@ -0,0 +1,322 @@
+package com.example.disciteomnes.data.sync;
+
+import androidx.lifecycle.LiveData;
+
+import com.example.disciteomnes.data.local.OutboxDao;
+import com.example.disciteomnes.data.local.OutboxEntry;
+import com.google.gson.JsonParser;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testet die Regeln der {@link Outbox} ohne Datenbank und Netzwerk: das Zusammenfassen beim
+ * Anlegen ({@link Outbox#enqueue(OutboxDao, Set, OutboxEntry)}), die Stapelbildung
+ * ({@link Outbox#nextBatch}) und das Zurückstellen entprellter Einträge ({@link Outbox#ready}).
+ */
+public class OutboxTest {
+
+    private static final String TASKS = "tasks";
+
+    private FakeOutboxDao dao;
+    private Set<Long> inFlight;
+
+    @Before
+    public void setUp() {
+        dao = new FakeOutboxDao();
+        inFlight = new HashSet<>();
+    }
+
+    // ───────────── Zusammenfassen ─────────────
+
+    @Test
+    public void updatesOfSameRowMergeIntoOne() {
+        enqueue(update("5", "{\"completed\":true,\"title\":\"a\"}"));
+        enqueue(update("5", "{\"completed\":false}"));
+
+        List<OutboxEntry> all = dao.getAll();
+        assertEquals(1, all.size());
+        assertEquals(OutboxEntry.OP_UPDATE, all.get(0).getOp());
+        assertJson("{\"completed\":false,\"title\":\"a\"}", all.get(0).getPayload());
+    }
+
+    @Test
+    public void updatesOfDifferentRowsStaySeparate() {
+        enqueue(update("5", "{\"completed\":true}"));
+        enqueue(update("6", "{\"completed\":true}"));
+
+        assertEquals(2, dao.getAll().size());
+    }
+
+    @Test
+    public void updateOfUnsentRowMergesIntoInsert() {
+        enqueue(insert("-1", "{\"title\":\"neu\",\"completed\":false}"));
+        enqueue(update("-1", "{\"completed\":true}"));
+
+        List<OutboxEntry> all = dao.getAll();
+        assertEquals(1, all.size());
+        assertEquals(OutboxEntry.OP_INSERT, all.get(0).getOp());
+        assertJson("{\"title\":\"neu\",\"completed\":true}", all.get(0).getPayload());
+    }
+
+    @Test
+    public void deleteOfUnsentRowDropsEverything() {
+        enqueue(insert("-1", "{\"title\":\"neu\"}"));
+        enqueue(update("-1", "{\"title\":\"umbenannt\"}"));
+        enqueue(delete("-1"));
+
+        assertTrue(dao.getAll().isEmpty());
+    }
+
+    @Test
+    public void deleteReplacesPendingUpdate() {
+        enqueue(update("5", "{\"completed\":true}"));
+        enqueue(delete("5"));
+
+        List<OutboxEntry> all = dao.getAll();
+        assertEquals(1, all.size());
+        assertEquals(OutboxEntry.OP_DELETE, all.get(0).getOp());
+    }
+
+    @Test
+    public void entryBeingSentIsNotTouched() {
+        enqueue(update("5", "{\"completed\":true}"));
+        inFlight.add(dao.getAll().get(0).getId());
+
+        enqueue(update("5", "{\"completed\":false}"));
+
+        List<OutboxEntry> all = dao.getAll();
+        assertEquals(2, all.size());
+        assertJson("{\"completed\":true}", all.get(0).getPayload());
+        assertJson("{\"completed\":false}", all.get(1).getPayload());
+    }
+
+    @Test
+    public void mergedUpdateTakesLatestQuietPeriod() {
+        OutboxEntry first = update("5", "{\"completed\":true}");
+        first.setNotBefore(1_000);
+        enqueue(first);
+        OutboxEntry second = update("5", "{\"completed\":false}");
+        second.setNotBefore(1_400);
+        enqueue(second);
+
+        assertEquals(1_400, dao.getAll().get(0).getNotBefore());
+    }
+
+    @Test
+    public void insertIsNeverDeferred() {
+        enqueue(insert("-1", "{\"title\":\"neu\"}"));
+        OutboxEntry toggle = update("-1", "{\"completed\":true}");
+        toggle.setNotBefore(1_400);
+        enqueue(toggle);
+
+        assertEquals(0, dao.getAll().get(0).getNotBefore());
+    }
+
+    // ───────────── Stapel ─────────────
+
+    @Test
+    public void insertsWithSameKeysFormOneBatch() {
+        List<OutboxEntry> all = Arrays.asList(
+                insert("-1", "{\"title\":\"a\",\"user_id\":\"u1\"}"),
+                insert("-2", "{\"user_id\":\"u1\",\"title\":\"b\"}"),
+                insert("-3", "{\"title\":\"c\",\"user_id\":\"u1\",\"due_date\":\"2026-10-20\"}"),
+                insert("-4", "{\"title\":\"d\",\"user_id\":\"u1\"}"));
+
+        // PostgREST verlangt bei Bulk-Inserts dieselben Schlüssel – -3 beendet den Stapel
+        assertEquals(ids(all.get(0), all.get(1)), ids(Outbox.nextBatch(all)));
+    }
+
+    @Test
+    public void insertsOfDifferentTablesAreNotBatched() {
+        List<OutboxEntry> all = Arrays.asList(
+                insert("-1", "{\"title\":\"a\"}"),
+                entry("study_plans", OutboxEntry.OP_INSERT, "-2", "{\"title\":\"b\"}"));
+
+        assertEquals(1, Outbox.nextBatch(all).size());
+    }
+
+    @Test
+    public void identicalPatchesFormOneBatch() {
+        List<OutboxEntry> all = Arrays.asList(
+                update("1", "{\"completed\":true}"),
+                update("2", "{\"completed\":true}"),
+                update("3", "{\"completed\":false}"),
+                update("4", "{\"completed\":true}"));
+
+        assertEquals(ids(all.get(0), all.get(1)), ids(Outbox.nextBatch(all)));
+    }
+
+    @Test
+    public void deletesFormOneBatch() {
+        List<OutboxEntry> all = Arrays.asList(delete("1"), delete("2"), update("3", "{\"completed\":true}"));
+
+        assertEquals(ids(all.get(0), all.get(1)), ids(Outbox.nextBatch(all)));
+    }
+
+    @Test
+    public void patchBatchIsCapped() {
+        List<OutboxEntry> all = new ArrayList<>();
+        for (int id = 1; id <= 150; id++) {
+            all.add(update(String.valueOf(id), "{\"completed\":true}"));
+        }
+
+        assertEquals(100, Outbox.nextBatch(all).size());
+    }
+
+    @Test
+    public void tempIdsAndMembershipsAreSentAlone() {
+        List<OutboxEntry> temp = Arrays.asList(
+                update("-1", "{\"completed\":true}"),
+                update("-2", "{\"completed\":true}"));
+        List<OutboxEntry> members = Arrays.asList(
+                entry(Outbox.TABLE_GROUP_MEMBERS, OutboxEntry.OP_DELETE, "g1:u1", null),
+                entry(Outbox.TABLE_GROUP_MEMBERS, OutboxEntry.OP_DELETE, "g2:u1", null));
+
+        assertEquals(1, Outbox.nextBatch(temp).size());
+        assertEquals(1, Outbox.nextBatch(members).size());
+    }
+
+    // ───────────── Zurückgestellte Einträge ─────────────
+
+    @Test
+    public void deferredRowIsSkippedWithItsLaterEntries() {
+        OutboxEntry toggle = update("5", "{\"completed\":true}");
+        toggle.setNotBefore(2_000);
+        OutboxEntry other = update("6", "{\"completed\":true}");
+        OutboxEntry laterDelete = delete("5");
+        List<OutboxEntry> all = Arrays.asList(toggle, other, laterDelete);
+
+        assertEquals(Collections.singletonList(other), Outbox.ready(all, 1_000));
+        assertEquals(2_000, Outbox.nextNotBefore(all, 1_000));
+
+        assertEquals(all, Outbox.ready(all, 2_000));
+        assertEquals(0, Outbox.nextNotBefore(all, 2_000));
+    }
+
+    // ───────────── Hilfen ─────────────
+
+    private void enqueue(OutboxEntry entry) {
+        Outbox.enqueue(dao, inFlight, entry);
+    }
+
+    private static OutboxEntry insert(String id, String payload) {
+        return entry(TASKS, OutboxEntry.OP_INSERT, id, payload);
+    }
+
+    private static OutboxEntry update(String id, String payload) {
+        return entry(TASKS, OutboxEntry.OP_UPDATE, id, payload);
+    }
+
+    private static OutboxEntry delete(String id) {
+        return entry(TASKS, OutboxEntry.OP_DELETE, id, null);
+    }
+
+    private static OutboxEntry entry(String table, String op, String id, String payload) {
+        return new OutboxEntry(table, op, id, payload);
+    }
+
+    private static List<String> ids(OutboxEntry... entries) {
+        return ids(Arrays.asList(entries));
+    }
+
+    private static List<String> ids(List<OutboxEntry> entries) {
+        List<String> ids = new ArrayList<>();
+        for (OutboxEntry e : entries) {
+            ids.add(e.getEntityId());
+        }
+        return ids;
+    }
+
+    private static void assertJson(String expected, String actual) {
+        assertEquals(JsonParser.parseString(expected), JsonParser.parseString(actual));
+    }
+
+    /**
+     * Outbox-Tabelle im Speicher; vergibt IDs wie Room (fortlaufend ab 1).
+     */
+    private static final class FakeOutboxDao implements OutboxDao {
+
+        private final List<OutboxEntry> rows = new ArrayList<>();
+        private long nextId = 1;
+
+        @Override
+        public List<OutboxEntry> getAll() {
+            return new ArrayList<>(rows);
+        }
+
+        @Override
+        public List<OutboxEntry> getForEntity(String tableName, String entityId) {
+            List<OutboxEntry> found = new ArrayList<>();
+            for (OutboxEntry e : rows) {
+                if (e.getTableName().equals(tableName) && e.getEntityId().equals(entityId)) {
+                    found.add(e);
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public List<String> getPendingEntityIds(String tableName) {
+            Set<String> ids = new HashSet<>();
+            for (OutboxEntry e : rows) {
+                if (e.getTableName().equals(tableName)) {
+                    ids.add(e.getEntityId());
+                }
+            }
+            return new ArrayList<>(ids);
+        }
+
+        @Override
+        public LiveData<Integer> observeCount() {
+            return null;
+        }
+
+        @Override
+        public long insert(OutboxEntry entry) {
+            entry.setId(nextId++);
+            rows.add(entry);
+            return entry.getId();
+        }
+
+        @Override
+        public void update(OutboxEntry entry) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (rows.get(i).getId() == entry.getId()) {
+                    rows.set(i, entry);
+                }
+            }
+        }
+
+        @Override
+        public void delete(OutboxEntry entry) {
+            rows.removeIf(e -> e.getId() == entry.getId());
+        }
+
+        @Override
+        public void deleteAll(List<OutboxEntry> entries) {
+            for (OutboxEntry e : entries) {
+                delete(e);
+            }
+        }
+
+        @Override
+        public void remapEntityId(String tableName, String oldId, String newId) {
+            for (OutboxEntry e : rows) {
+                if (e.getTableName().equals(tableName) && e.getEntityId().equals(oldId)) {
+                    e.setEntityId(newId);
+                }
+            }
+        }
+    }
+}
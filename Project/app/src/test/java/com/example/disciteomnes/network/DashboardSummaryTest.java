@@ -0,0 +1,123 @@
+package com.example.disciteomnes.network;
+
+import com.example.disciteomnes.data.dto.DashboardSummary;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Scanner;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+import retrofit2.Response;
+import retrofit2.Retrofit;
+import retrofit2.converter.gson.GsonConverterFactory;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testet den Aufruf der Dashboard-Übersicht gegen ein lokales Supabase-Double, das
+ * {@code rpc/dashboard_summary} mit einer festen Antwort (test/resources) beantwortet.
+ */
+public class DashboardSummaryTest {
+
+    private MockWebServer server;
+    private DisciteOmnesApi api;
+
+    @Before
+    public void setUp() throws Exception {
+        String fixture = readResource("dashboard_summary.json");
+
+        server = new MockWebServer();
+        server.setDispatcher(new Dispatcher() {
+            @Override
+            public MockResponse dispatch(RecordedRequest request) {
+                if ("GET".equals(request.getMethod())
+                        && "/rest/v1/rpc/dashboard_summary".equals(request.getRequestUrl().encodedPath())) {
+                    return new MockResponse()
+                            .setHeader("Content-Type", "application/json")
+                            .setBody(fixture);
+                }
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+
+        api = new Retrofit.Builder()
+                .baseUrl(server.url("/"))
+                .addConverterFactory(GsonConverterFactory.create(HttpClientProvider.getGson()))
+                .build()
+                .create(DisciteOmnesApi.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void loadsWholeDashboardInOneRequest() throws Exception {
+        Response<DashboardSummary> response = api.getDashboardSummary(5).execute();
+
+        assertTrue(response.isSuccessful());
+        assertEquals(1, server.getRequestCount());
+
+        RecordedRequest request = server.takeRequest();
+        assertEquals("GET", request.getMethod());
+        assertEquals("5", request.getRequestUrl().queryParameter("task_limit"));
+    }
+
+    @Test
+    public void parsesCountsTasksAndNextStepPerGroup() throws Exception {
+        DashboardSummary summary = api.getDashboardSummary(5).execute().body();
+        assertNotNull(summary);
+
+        assertEquals(3, summary.getOpenTasks());
+        assertEquals(1, summary.getOverdueTasks());
+
+        assertEquals(2, summary.getNextTasks().size());
+        assertEquals("Übungsblatt 4", summary.getNextTasks().get(0).getTitle());
+        assertEquals("2026-10-17", summary.getNextTasks().get(0).getDue_date());
+
+        assertEquals(2, summary.getGroups().size());
+        DashboardSummary.GroupSummary analysis = summary.getGroups().get(0);
+        assertEquals("g1", analysis.getId());
+        assertEquals("Kapitel 2 lesen", analysis.getNextStep().getTitle());
+        assertEquals("Klausur", analysis.getNextStep().getPlanTitle());
+        assertEquals(3, analysis.getNextStep().getPlanId());
+
+        assertNull(summary.getGroups().get(1).getNextStep());
+    }
+
+    @Test
+    public void groupsCarryAllColumnsOfTheLocalTable() throws Exception {
+        DashboardSummary summary = api.getDashboardSummary(5).execute().body();
+        assertNotNull(summary);
+
+        // DashboardRepository ersetzt damit die lokale Gruppentabelle komplett
+        DashboardSummary.GroupSummary analysis = summary.getGroups().get(0);
+        assertEquals("Analysis", analysis.getName());
+        assertEquals("Klausurvorbereitung", analysis.getDescription());
+        assertEquals("u1", analysis.getCreatedBy());
+
+        DashboardSummary.GroupSummary statistik = summary.getGroups().get(1);
+        assertNull(statistik.getDescription());
+        assertEquals("u2", statistik.getCreatedBy());
+    }
+
+    private static String readResource(String name) {
+        InputStream in = DashboardSummaryTest.class.getClassLoader().getResourceAsStream(name);
+        assertNotNull("Testdatei fehlt: " + name, in);
+        try (Scanner scanner = new Scanner(in, StandardCharsets.UTF_8.name())) {
+            return scanner.useDelimiter("\\A").next();
+        }
+    }
+}
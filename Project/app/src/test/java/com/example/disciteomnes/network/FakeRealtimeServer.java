@@ -0,0 +1,122 @@
+package com.example.disciteomnes.network;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.Response;
+import okhttp3.WebSocket;
+import okhttp3.WebSocketListener;
+import okhttp3.mockwebserver.MockResponse;
+
+/**
+ * Lokaler Ersatz für den Supabase-Realtime-Server in Unit-Tests.
+ *
+ * Wird über {@link #upgrade()} in einen MockWebServer eingereiht, nimmt die Phoenix-Nachrichten
+ * des Clients entgegen, beantwortet Heartbeats selbst und kann Beitritte bestätigen sowie
+ * Zeilenänderungen ("postgres_changes") an den Client schicken.
+ */
+public class FakeRealtimeServer extends WebSocketListener {
+
+    private final BlockingQueue<JsonObject> received = new LinkedBlockingQueue<>();
+    private volatile WebSocket socket;
+
+    /**
+     * @return eine MockResponse, die die Verbindung auf diesen Server umstellt
+     */
+    public MockResponse upgrade() {
+        return new MockResponse().withWebSocketUpgrade(this);
+    }
+
+    @Override
+    public void onOpen(WebSocket webSocket, Response response) {
+        socket = webSocket;
+    }
+
+    @Override
+    public void onMessage(WebSocket webSocket, String text) {
+        JsonObject message = JsonParser.parseString(text).getAsJsonObject();
+        if ("heartbeat".equals(message.get("event").getAsString())) {
+            reply(message, "ok");
+            return;
+        }
+        received.add(message);
+    }
+
+    @Override
+    public void onClosing(WebSocket webSocket, int code, String reason) {
+        // Schließen des Clients bestätigen, sonst wartet MockWebServer.shutdown() vergeblich
+        webSocket.close(code, null);
+    }
+
+    /**
+     * Wartet auf die nächste Nachricht mit dem angegebenen Event (z. B. "phx_join").
+     *
+     * @return die Nachricht oder null nach Ablauf der Wartezeit
+     */
+    public JsonObject awaitEvent(String event, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return null;
+            }
+            JsonObject message = received.poll(remaining, TimeUnit.NANOSECONDS);
+            if (message != null && event.equals(message.get("event").getAsString())) {
+                return message;
+            }
+        }
+    }
+
+    /**
+     * Beantwortet eine Client-Nachricht (z. B. einen Beitritt) mit dem angegebenen Status.
+     */
+    public void reply(JsonObject request, String status) {
+        JsonObject payload = new JsonObject();
+        payload.addProperty("status", status);
+        payload.add("response", new JsonObject());
+
+        JsonObject message = new JsonObject();
+        message.add("topic", request.get("topic"));
+        message.addProperty("event", "phx_reply");
+        message.add("payload", payload);
+        message.add("ref", request.get("ref"));
+        socket.send(message.toString());
+    }
+
+    /**
+     * Schickt eine Zeilenänderung an den Client.
+     *
+     * @param topic     Channel, z. B. "realtime:study_plans:group_id=eq.g1"
+     * @param type      "INSERT", "UPDATE" oder "DELETE"
+     * @param record    neue Zeile (kann null sein)
+     * @param oldRecord alte Zeile (kann null sein)
+     */
+    public void sendChange(String topic, String type, JsonObject record, JsonObject oldRecord) {
+        JsonObject data = new JsonObject();
+        data.addProperty("type", type);
+        data.addProperty("schema", "public");
+        data.add("record", record == null ? new JsonObject() : record);
+        data.add("old_record", oldRecord == null ? new JsonObject() : oldRecord);
+
+        JsonObject payload = new JsonObject();
+        payload.add("data", data);
+
+        JsonObject message = new JsonObject();
+        message.addProperty("topic", topic);
+        message.addProperty("event", "postgres_changes");
+        message.add("payload", payload);
+        message.add("ref", null);
+        socket.send(message.toString());
+    }
+
+    /**
+     * Trennt die Verbindung serverseitig (z. B. um einen Verbindungsabbruch zu simulieren).
+     */
+    public void drop() {
+        socket.cancel();
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.disciteomnes.network;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testet, wie {@link PostgrestQuery} Abfragen in Query-Parameter übersetzt:
+ * Reihenfolge, URL-Kodierung, Anführungszeichen in in.() und doppelt gesetzte Parameter.
+ */
+public class PostgrestQueryTest {
+
+    @Test
+    public void parametersAreSortedRegardlessOfCallOrder() {
+        Map<String, String> a = PostgrestQuery.from("tasks")
+                .select("id,title")
+                .eq("user_id", "u1")
+                .gt("id", 0)
+                .order("id", true)
+                .limit(200)
+                .toQueryMap();
+        Map<String, String> b = PostgrestQuery.from("tasks")
+                .limit(200)
+                .order("id", true)
+                .gt("id", 0)
+                .eq("user_id", "u1")
+                .select("id,title")
+                .toQueryMap();
+
+        assertEquals(a, b);
+        assertEquals(Arrays.asList("id", "limit", "order", "select", "user_id"), new ArrayList<>(a.keySet()));
+        assertEquals("gt.0", a.get("id"));
+        assertEquals("eq.u1", a.get("user_id"));
+    }
+
+    @Test
+    public void orderCallsBuildMultiLevelSort() {
+        Map<String, String> query = PostgrestQuery.from("study_steps")
+                .order("due_date", true)
+                .order("id", false)
+                .toQueryMap();
+
+        assertEquals("due_date.asc,id.desc", query.get("order"));
+    }
+
+    @Test
+    public void rangeSetsOffsetAndLimit() {
+        Map<String, String> query = PostgrestQuery.from("tasks").range(200, 399).toQueryMap();
+
+        assertEquals("200", query.get("offset"));
+        assertEquals("200", query.get("limit"));
+    }
+
+    @Test
+    public void encodeKeepsPostgrestSyntaxReadable() {
+        Map<String, String> query = PostgrestQuery.from("tasks")
+                .select("id", PostgrestQuery.embed("group", "groups", "id", "name"))
+                .gte("updated_at", "2026-10-18T12:00:00+02:00")
+                .toQueryMap();
+
+        assertEquals("id,group:groups(id,name)", query.get("select"));
+        // "+" würde der Server sonst als Leerzeichen lesen
+        assertEquals("gte.2026-10-18T12:00:00%2B02:00", query.get("updated_at"));
+    }
+
+    @Test
+    public void encodeEscapesSeparatorsSpacesAndNonAscii() {
+        assertEquals("a%20b", PostgrestQuery.encode("a b"));
+        assertEquals("x%26y%3Dz%23", PostgrestQuery.encode("x&y=z#"));
+        assertEquals("%C3%BCbung", PostgrestQuery.encode("übung"));
+        assertEquals("eq.1.5,(a)", PostgrestQuery.encode("eq.1.5,(a)"));
+    }
+
+    @Test
+    public void inListsPlainValuesUnquoted() {
+        Map<String, String> query = PostgrestQuery.from("study_plans")
+                .in("group_id", Arrays.asList("g1", "g2", 3))
+                .toQueryMap();
+
+        assertEquals("in.(g1,g2,3)", query.get("group_id"));
+    }
+
+    @Test
+    public void inQuotesValuesWithCommasAndQuotes() {
+        Map<String, String> query = PostgrestQuery.from("tasks")
+                .in("title", Arrays.asList("a,b", "say \"hi\"", "back\\slash", "plain"))
+                .toQueryMap();
+
+        // Roh: in.("a,b","say \"hi\"","back\\slash",plain) – dann " und \ URL-kodiert
+        assertEquals("in.(%22a,b%22,%22say%20%5C%22hi%5C%22%22,%22back%5C%5Cslash%22,plain)",
+                query.get("title"));
+    }
+
+    @Test
+    public void inQuotesEmptyValue() {
+        Map<String, String> query = PostgrestQuery.from("tasks")
+                .in("title", Collections.singletonList(""))
+                .toQueryMap();
+
+        assertEquals("in.(%22%22)", query.get("title"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void inRejectsEmptyList() {
+        PostgrestQuery.from("tasks").in("id", Collections.emptyList());
+    }
+
+    @Test
+    public void secondFilterOnSameColumnIsRejected() {
+        PostgrestQuery query = PostgrestQuery.from("tasks").gt("id", 0);
+        try {
+            query.lt("id", 100);
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains("id"));
+            return;
+        }
+        throw new AssertionError("IllegalStateException erwartet");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void secondSelectIsRejected() {
+        PostgrestQuery.from("tasks").select("id").select("title");
+    }
+
+    @Test
+    public void countEstimatedGoesIntoPreferHeader() {
+        PostgrestQuery query = PostgrestQuery.from("tasks").countEstimated();
+
+        assertEquals(Collections.singletonMap("Prefer", "count=estimated"), query.headers());
+        assertTrue(PostgrestQuery.from("tasks").headers().isEmpty());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.disciteomnes.network;
+
+import com.google.gson.JsonObject;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+import okhttp3.mockwebserver.MockWebServer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testet den Realtime-Client gegen den lokalen {@link FakeRealtimeServer}.
+ */
+public class RealtimeClientTest {
+
+    private static final String TOPIC = "realtime:study_plans:group_id=eq.g1";
+
+    private MockWebServer server;
+    private FakeRealtimeServer fake;
+    private RealtimeClient client;
+
+    private final CountDownLatch subscribed = new CountDownLatch(1);
+    private final BlockingQueue<String[]> changes = new LinkedBlockingQueue<>();
+
+    private final RealtimeClient.Listener listener = new RealtimeClient.Listener() {
+        @Override
+        public void onSubscribed() {
+            subscribed.countDown();
+        }
+
+        @Override
+        public void onChange(String type, JsonObject record, JsonObject oldRecord) {
+            String id = record.has("id") ? record.get("id").getAsString() : oldRecord.get("id").getAsString();
+            changes.add(new String[]{type, id});
+        }
+    };
+
+    @Before
+    public void setUp() throws Exception {
+        fake = new FakeRealtimeServer();
+        server = new MockWebServer();
+        server.enqueue(fake.upgrade());
+        server.start();
+
+        String url = server.url("/realtime/v1/websocket").toString().replaceFirst("^http", "ws");
+        client = new RealtimeClient(new OkHttpClient(), url, () -> "test-jwt");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void joinsScopedChannelWithToken() throws Exception {
+        client.subscribe("study_plans", "group_id=eq.g1", listener);
+
+        JsonObject join = fake.awaitEvent("phx_join", 5, TimeUnit.SECONDS);
+        assertNotNull(join);
+        assertEquals(TOPIC, join.get("topic").getAsString());
+
+        JsonObject payload = join.getAsJsonObject("payload");
+        assertEquals("test-jwt", payload.get("access_token").getAsString());
+        JsonObject change = payload.getAsJsonObject("config")
+                .getAsJsonArray("postgres_changes").get(0).getAsJsonObject();
+        assertEquals("study_plans", change.get("table").getAsString());
+        assertEquals("group_id=eq.g1", change.get("filter").getAsString());
+
+        fake.reply(join, "ok");
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void deliversRowChangesToListener() throws Exception {
+        client.subscribe("study_plans", "group_id=eq.g1", listener);
+        fake.reply(fake.awaitEvent("phx_join", 5, TimeUnit.SECONDS), "ok");
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+
+        JsonObject inserted = new JsonObject();
+        inserted.addProperty("id", 7);
+        inserted.addProperty("group_id", "g1");
+        inserted.addProperty("title", "Klausurvorbereitung");
+        fake.sendChange(TOPIC, "INSERT", inserted, null);
+
+        JsonObject deleted = new JsonObject();
+        deleted.addProperty("id", 3);
+        fake.sendChange(TOPIC, "DELETE", null, deleted);
+
+        assertEquals("INSERT:7", join(changes.poll(5, TimeUnit.SECONDS)));
+        assertEquals("DELETE:3", join(changes.poll(5, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void leavesChannelOnUnsubscribe() throws Exception {
+        RealtimeClient.Subscription subscription = client.subscribe("study_plans", "group_id=eq.g1", listener);
+        fake.reply(fake.awaitEvent("phx_join", 5, TimeUnit.SECONDS), "ok");
+        assertTrue(subscribed.await(5, TimeUnit.SECONDS));
+
+        subscription.unsubscribe();
+
+        JsonObject leave = fake.awaitEvent("phx_leave", 5, TimeUnit.SECONDS);
+        assertNotNull(leave);
+        assertEquals(TOPIC, leave.get("topic").getAsString());
+    }
+
+    private static String join(String[] change) {
+        return change == null ? null : change[0] + ":" + change[1];
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.disciteomnes.network;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.ResponseBody;
+import okio.Timeout;
+import retrofit2.Call;
+import retrofit2.Callback;
+import retrofit2.Response;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Testet {@link SingleFlight} ohne Netzwerk: Schlüsselbildung, Zusammenfassen gleichzeitiger
+ * Aufrufe, das Merkfenster von {@link SingleFlight#MEMO_WINDOW_MS} und das Verwerfen nach
+ * Schreibzugriffen. Uhr und Main-Thread werden durch eine feste Zeit und direkte Zustellung ersetzt.
+ */
+public class SingleFlightTest {
+
+    private static final String TASKS = "https://example.supabase.co/rest/v1/tasks";
+
+    private long now;
+    private SingleFlight flights;
+
+    @Before
+    public void setUp() {
+        now = 1_000;
+        flights = new SingleFlight(() -> now, Runnable::run);
+    }
+
+    // ───────────── Schlüssel ─────────────
+
+    @Test
+    public void keyIgnoresParameterOrder() {
+        String a = SingleFlight.keyOf(get(TASKS + "?user_id=eq.u1&order=id.asc"));
+        String b = SingleFlight.keyOf(get(TASKS + "?order=id.asc&user_id=eq.u1"));
+
+        assertEquals(a, b);
+    }
+
+    @Test
+    public void keyDistinguishesPathParametersAndPreferHeader() {
+        String plain = SingleFlight.keyOf(get(TASKS + "?user_id=eq.u1"));
+
+        assertNotEquals(plain, SingleFlight.keyOf(get(TASKS + "?user_id=eq.u2")));
+        assertNotEquals(plain, SingleFlight.keyOf(get("https://example.supabase.co/rest/v1/groups?user_id=eq.u1")));
+        assertNotEquals(plain, SingleFlight.keyOf(new Request.Builder()
+                .url(TASKS + "?user_id=eq.u1")
+                .header("Prefer", "count=estimated")
+                .build()));
+    }
+
+    // ───────────── Zusammenfassen ─────────────
+
+    @Test
+    public void identicalGetsShareOneCall() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        FakeCall<String> second = new FakeCall<>(get(TASKS));
+        Recorder<String> a = new Recorder<>();
+        Recorder<String> b = new Recorder<>();
+
+        flights.enqueue(first, a);
+        flights.enqueue(second, b);
+        first.respond(Response.success("rows"));
+
+        assertTrue(first.enqueued);
+        assertFalse(second.enqueued);
+        assertEquals(1, flights.getIssued());
+        assertEquals(1, flights.getCoalesced());
+        assertEquals(1, a.responses.size());
+        assertSame(a.responses.get(0), b.responses.get(0));
+    }
+
+    @Test
+    public void failureReachesEveryWaiterAndIsNotRemembered() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        Recorder<String> a = new Recorder<>();
+        Recorder<String> b = new Recorder<>();
+
+        flights.enqueue(first, a);
+        flights.enqueue(new FakeCall<>(get(TASKS)), b);
+        first.fail(new IOException("offline"));
+
+        assertEquals(1, a.failures.size());
+        assertEquals(1, b.failures.size());
+
+        FakeCall<String> retry = new FakeCall<>(get(TASKS));
+        flights.enqueue(retry, new Recorder<>());
+        assertTrue(retry.enqueued);
+    }
+
+    @Test
+    public void nonGetIsNeverShared() {
+        Request patch = new Request.Builder().url(TASKS + "?id=eq.1")
+                .patch(RequestBody.create(new byte[0], null))
+                .build();
+        FakeCall<String> first = new FakeCall<>(patch);
+        FakeCall<String> second = new FakeCall<>(patch);
+
+        flights.enqueue(first, new Recorder<>());
+        flights.enqueue(second, new Recorder<>());
+
+        assertTrue(first.enqueued);
+        assertTrue(second.enqueued);
+        assertEquals(0, flights.getIssued());
+    }
+
+    // ───────────── Merkfenster ─────────────
+
+    @Test
+    public void successIsReusedWithinMemoWindow() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        flights.enqueue(first, new Recorder<>());
+        first.respond(Response.success("rows"));
+
+        now += SingleFlight.MEMO_WINDOW_MS;
+        FakeCall<String> again = new FakeCall<>(get(TASKS));
+        Recorder<String> late = new Recorder<>();
+        flights.enqueue(again, late);
+
+        assertFalse(again.enqueued);
+        assertEquals("rows", late.responses.get(0).body());
+        assertEquals(1, flights.getMemoHits());
+    }
+
+    @Test
+    public void memoExpiresAfterWindow() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        flights.enqueue(first, new Recorder<>());
+        first.respond(Response.success("rows"));
+
+        now += SingleFlight.MEMO_WINDOW_MS + 1;
+        FakeCall<String> again = new FakeCall<>(get(TASKS));
+        flights.enqueue(again, new Recorder<>());
+
+        assertTrue(again.enqueued);
+        assertEquals(0, flights.getMemoHits());
+    }
+
+    @Test
+    public void errorResponseIsNotRemembered() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        flights.enqueue(first, new Recorder<>());
+        first.respond(Response.error(500, ResponseBody.create(new byte[0], null)));
+
+        FakeCall<String> again = new FakeCall<>(get(TASKS));
+        flights.enqueue(again, new Recorder<>());
+
+        assertTrue(again.enqueued);
+    }
+
+    // ───────────── Schreibzugriffe ─────────────
+
+    @Test
+    public void invalidateDropsMemosOfWrittenPathOnly() {
+        String groups = "https://example.supabase.co/rest/v1/groups";
+        FakeCall<String> tasks = new FakeCall<>(get(TASKS));
+        FakeCall<String> groupList = new FakeCall<>(get(groups));
+        flights.enqueue(tasks, new Recorder<>());
+        flights.enqueue(groupList, new Recorder<>());
+        tasks.respond(Response.success("tasks"));
+        groupList.respond(Response.success("groups"));
+
+        flights.invalidate("/rest/v1/tasks");
+
+        FakeCall<String> tasksAgain = new FakeCall<>(get(TASKS));
+        FakeCall<String> groupsAgain = new FakeCall<>(get(groups));
+        flights.enqueue(tasksAgain, new Recorder<>());
+        flights.enqueue(groupsAgain, new Recorder<>());
+
+        assertTrue(tasksAgain.enqueued);
+        assertFalse(groupsAgain.enqueued);
+    }
+
+    @Test
+    public void clearDropsAllMemos() {
+        FakeCall<String> first = new FakeCall<>(get(TASKS));
+        flights.enqueue(first, new Recorder<>());
+        first.respond(Response.success("rows"));
+
+        flights.clear();
+
+        FakeCall<String> again = new FakeCall<>(get(TASKS));
+        flights.enqueue(again, new Recorder<>());
+        assertTrue(again.enqueued);
+    }
+
+    // ───────────── Hilfen ─────────────
+
+    private static Request get(String url) {
+        return new Request.Builder().url(url).build();
+    }
+
+    /**
+     * Retrofit-Aufruf, dessen Antwort der Test selbst zustellt.
+     */
+    private static final class FakeCall<T> implements Call<T> {
+
+        private final Request request;
+        private Callback<T> callback;
+        boolean enqueued;
+        private boolean canceled;
+
+        FakeCall(Request request) {
+            this.request = request;
+        }
+
+        void respond(Response<T> response) {
+            callback.onResponse(this, response);
+        }
+
+        void fail(Throwable t) {
+            callback.onFailure(this, t);
+        }
+
+        @Override
+        public void enqueue(Callback<T> callback) {
+            this.callback = callback;
+            enqueued = true;
+        }
+
+        @Override
+        public Response<T> execute() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public boolean isExecuted() {
+            return enqueued;
+        }
+
+        @Override
+        public void cancel() {
+            canceled = true;
+        }
+
+        @Override
+        public boolean isCanceled() {
+            return canceled;
+        }
+
+        @Override
+        public Call<T> clone() {
+            return new FakeCall<>(request);
+        }
+
+        @Override
+        public Request request() {
+            return request;
+        }
+
+        @Override
+        public Timeout timeout() {
+            return Timeout.NONE;
+        }
+    }
+
+    /**
+     * Sammelt alle zugestellten Antworten und Fehler.
+     */
+    private static final class Recorder<T> implements Callback<T> {
+
+        final List<Response<T>> responses = new ArrayList<>();
+        final List<Throwable> failures = new ArrayList<>();
+
+        @Override
+        public void onResponse(Call<T> call, Response<T> response) {
+            responses.add(response);
+        }
+
+        @Override
+        public void onFailure(Call<T> call, Throwable t) {
+            failures.add(t);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+-- Delta-Sync: Änderungszeitpunkt + Soft-Delete für tasks, study_plans und study_steps.
+--
+-- Die App merkt sich je Tabelle und Bereich (Benutzer / Gruppe / Plan) den größten
+-- bekannten updated_at-Wert und fragt danach nur noch Zeilen mit updated_at >= Marke ab.
+-- Gelöschte Zeilen bleiben als Tombstone (deleted = true) erhalten, damit andere Geräte
+-- die Löschung beim nächsten Abgleich sehen.
+
+-- ───────────── Spalten ─────────────
+
+alter table public.tasks
+    add column if not exists updated_at timestamptz not null default now(),
+    add column if not exists deleted    boolean     not null default false;
+
+alter table public.study_plans
+    add column if not exists updated_at timestamptz not null default now(),
+    add column if not exists deleted    boolean     not null default false;
+
+alter table public.study_steps
+    add column if not exists updated_at timestamptz not null default now(),
+    add column if not exists deleted    boolean     not null default false;
+
+-- ───────────── updated_at bei jeder Änderung setzen ─────────────
+
+create or replace function public.set_updated_at()
+returns trigger
+language plpgsql
+as $$
+begin
+    new.updated_at := clock_timestamp();
+    return new;
+end;
+$$;
+
+drop trigger if exists tasks_set_updated_at on public.tasks;
+create trigger tasks_set_updated_at
+    before insert or update on public.tasks
+    for each row execute function public.set_updated_at();
+
+drop trigger if exists study_plans_set_updated_at on public.study_plans;
+create trigger study_plans_set_updated_at
+    before insert or update on public.study_plans
+    for each row execute function public.set_updated_at();
+
+drop trigger if exists study_steps_set_updated_at on public.study_steps;
+create trigger study_steps_set_updated_at
+    before insert or update on public.study_steps
+    for each row execute function public.set_updated_at();
+
+-- ───────────── Indizes für die Delta-Abfragen ─────────────
+
+create index if not exists tasks_user_id_updated_at_idx
+    on public.tasks (user_id, updated_at);
+
+create index if not exists study_plans_group_id_updated_at_idx
+    on public.study_plans (group_id, updated_at);
+
+create index if not exists study_steps_plan_id_updated_at_idx
+    on public.study_steps (plan_id, updated_at);
@@ -0,0 +1,6 @@
+-- Realtime: Zeilenänderungen an Lernplänen und -schritten über den Supabase-Realtime-Channel
+-- ausliefern. Die App abonniert sie je Gruppe (study_plans.group_id) bzw. je Plan
+-- (study_steps.plan_id); die Zeilenrechte (RLS) gelten auch für diese Ereignisse.
+
+alter publication supabase_realtime add table public.study_plans;
+alter publication supabase_realtime add table public.study_steps;
@@ -0,0 +1,91 @@
+-- Dashboard-Übersicht in einem Aufruf: Gruppen des Benutzers, Zahl der offenen Aufgaben,
+-- die nächsten fälligen Aufgaben und je Gruppe der nächste fällige Lernschritt.
+--
+-- Aufruf (stable → auch per GET; PostgREST liefert dafür keine Validatoren, der Client speichert
+-- die Antwort daher nicht im HTTP-Cache):
+--   GET /rest/v1/rpc/dashboard_summary?task_limit=5
+--
+-- Antwort:
+--   {
+--     "open_tasks": 3,
+--     "overdue_tasks": 1,
+--     "next_tasks": [ { "id", "title", "due_date", "completed", "user_id", "updated_at", "deleted" } ],
+--     "groups": [ { "id", "name", "description", "created_by",
+--                   "next_step": { "id", "plan_id", "plan_title", "title", "due_date" } | null } ]
+--   }
+--
+-- Die Gruppen tragen alle Spalten von groups, weil der Client mit ihnen seine lokale
+-- Gruppentabelle komplett ersetzt.
+--
+-- security invoker: es gelten die Zeilenrechte (RLS) des aufrufenden Benutzers.
+
+create or replace function public.dashboard_summary(task_limit integer default 5)
+returns json
+language sql
+stable
+security invoker
+set search_path = public
+as $$
+    with my_tasks as (
+        select t.id, t.title, t.due_date, t.completed, t.user_id, t.updated_at, t.deleted
+        from tasks t
+        where t.user_id = auth.uid()
+          and not t.deleted
+          and not t.completed
+    ),
+    my_groups as (
+        select g.id, g.name, g.description, g.created_by
+        from group_members m
+        join groups g on g.id = m.group_id
+        where m.user_id = auth.uid()
+    ),
+    next_steps as (
+        select distinct on (p.group_id)
+               p.group_id,
+               json_build_object(
+                   'id',         s.id,
+                   'plan_id',    s.plan_id,
+                   'plan_title', p.title,
+                   'title',      s.title,
+                   'due_date',   s.due_date
+               ) as step
+        from study_steps s
+        join study_plans p on p.id = s.plan_id
+        where p.group_id in (select id from my_groups)
+          and not p.deleted
+          and not s.deleted
+          and s.due_date::date >= current_date
+          and not (auth.uid()::text = any (coalesce(s.completed_by::text[], '{}')))
+        order by p.group_id, s.due_date::date, s.id
+    )
+    select json_build_object(
+        'open_tasks',    (select count(*) from my_tasks),
+        'overdue_tasks', (select count(*) from my_tasks where due_date::date < current_date),
+        'next_tasks',    coalesce((
+            select json_agg(row_to_json(n))
+            from (
+                select * from my_tasks
+                order by due_date::date, id
+                limit greatest(task_limit, 0)
+            ) n
+        ), '[]'::json),
+        'groups',        coalesce((
+            select json_agg(json_build_object(
+                       'id',          g.id,
+                       'name',        g.name,
+                       'description', g.description,
+                       'created_by',  g.created_by,
+                       'next_step',   ns.step
+                   ) order by g.name)
+            from my_groups g
+            left join next_steps ns on ns.group_id = g.id
+        ), '[]'::json)
+    );
+$$;
+
+grant execute on function public.dashboard_summary(integer) to authenticated;
+
+-- Für die Suche nach dem nächsten fälligen Schritt je Plan
+create index if not exists study_steps_plan_id_due_date_idx
+    on public.study_steps (plan_id, due_date)
+    where not deleted;
@@ -0,0 +1,51 @@
+-- Gruppe anlegen und beitreten in einem Aufruf (und in einer Transaktion).
+--
+-- Vorher: POST groups → POST group_members → Gruppenliste neu laden; schlug der Beitritt fehl,
+-- blieb eine Gruppe ohne Mitglieder zurück. Jetzt:
+--   POST /rest/v1/rpc/create_group_and_join   { "group_name": "Analysis" }
+--
+-- Antwort: die neue Mitgliedschaft in derselben Form wie
+--   group_members?select=group:groups(id,name,description,created_by)
+-- also { "user_id", "group_id", "group": { "id", "name", "description", "created_by" } },
+-- damit die App sie ohne erneutes Laden der Liste lokal übernehmen kann.
+--
+-- security invoker: es gelten dieselben Zeilenrechte (RLS) wie bei den Einzelaufrufen.
+
+create or replace function public.create_group_and_join(group_name text)
+returns json
+language plpgsql
+volatile
+security invoker
+set search_path = public
+as $$
+declare
+    created groups%rowtype;
+begin
+    if auth.uid() is null then
+        raise exception 'not authenticated' using errcode = '42501';
+    end if;
+    if coalesce(btrim(group_name), '') = '' then
+        raise exception 'group_name is required' using errcode = '22023';
+    end if;
+
+    insert into groups (name, created_by)
+    values (btrim(group_name), auth.uid())
+    returning * into created;
+
+    insert into group_members (user_id, group_id)
+    values (auth.uid(), created.id);
+
+    return json_build_object(
+        'user_id',  auth.uid(),
+        'group_id', created.id,
+        'group',    json_build_object(
+            'id',          created.id,
+            'name',        created.name,
+            'description', created.description,
+            'created_by',  created.created_by
+        )
+    );
+end;
+$$;
+
+grant execute on function public.create_group_and_join(text) to authenticated;
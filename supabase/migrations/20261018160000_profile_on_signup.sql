@@ -0,0 +1,28 @@
+-- Profil direkt bei der Registrierung anlegen.
+--
+-- Die App schickt den Anzeigenamen beim Signup als Benutzer-Metadaten mit
+--   POST /auth/v1/signup   { "email", "password", "data": { "name": "Alex" } }
+-- und dieser Trigger legt daraus in derselben Transaktion die Zeile in public.profiles an.
+-- Damit entfällt der spätere createProfile-Aufruf beim ersten Login; eine vorhandene Zeile
+-- bleibt unverändert (die App legt Profile ohnehin nur per Upsert an).
+
+create or replace function public.create_profile_for_new_user()
+returns trigger
+language plpgsql
+security definer
+set search_path = public
+as $$
+begin
+    if new.raw_user_meta_data ->> 'name' is not null then
+        insert into public.profiles (id, name)
+        values (new.id, new.raw_user_meta_data ->> 'name')
+        on conflict (id) do nothing;
+    end if;
+    return new;
+end;
+$$;
+
+drop trigger if exists on_auth_user_created_profile on auth.users;
+create trigger on_auth_user_created_profile
+    after insert on auth.users
+    for each row execute function public.create_profile_for_new_user();